@@ -56,7 +56,8 @@ abstract class AbstractNamedObject implements NamedObject {
    * @param name Name of the named object
    */
   AbstractNamedObject(final String name) {
-    this.name = name;
+    this.name = CrawlStringPool.intern(name);
+    CrawlTaskMetrics.recordObjectCreated();
   }
 
   /** {@inheritDoc} */
@@ -30,8 +30,12 @@ package schemacrawler.crawl;
 
 import static us.fatehi.utility.Utility.isBlank;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -48,8 +52,19 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
 
   private static final long serialVersionUID = -1486322887991472729L;
 
-  private final Map<String, Object> attributeMap;
+  // Attributes are serialized as a map, as they were before attribute maps
+  // were stored compactly, so that serialized catalogs can still be read
+  private static final ObjectStreamField[] serialPersistentFields = {
+    new ObjectStreamField("attributeMap", Map.class), new ObjectStreamField("remarks", String.class)
+  };
+
+  // Created only when the first attribute is set, since most database
+  // objects do not have attributes; guarded by this object, since
+  // attributes are set from the concurrent phases of a crawl
+  private AttributeMap attributeMap;
   private String remarks;
+  // Set when the catalog is frozen, after which attributes cannot be changed
+  private transient volatile boolean isAttributesFrozen;
 
   /**
    * Effective Java - Item 17 - Minimize Mutability - Package-private constructors make a class
@@ -59,7 +74,6 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
    */
   AbstractNamedObjectWithAttributes(final String name) {
     super(name);
-    attributeMap = new HashMap<>();
     remarks = "";
   }
 
@@ -71,15 +85,21 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
 
   /** {@inheritDoc} */
   @Override
-  public final <T> T getAttribute(final String name, final T defaultValue)
+  public final synchronized <T> T getAttribute(final String name, final T defaultValue)
       throws ClassCastException {
+    if (attributeMap == null) {
+      return defaultValue;
+    }
     return (T) attributeMap.getOrDefault(name, defaultValue);
   }
 
   /** {@inheritDoc} */
   @Override
-  public final Map<String, Object> getAttributes() {
-    return Collections.unmodifiableMap(attributeMap);
+  public final synchronized Map<String, Object> getAttributes() {
+    if (attributeMap == null) {
+      return Collections.emptyMap();
+    }
+    return attributeMap.toMap();
   }
 
   /** {@inheritDoc} */
@@ -90,8 +110,8 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
 
   /** {@inheritDoc} */
   @Override
-  public final boolean hasAttribute(final String name) {
-    return attributeMap.containsKey(name);
+  public final synchronized boolean hasAttribute(final String name) {
+    return attributeMap != null && attributeMap.containsKey(name);
   }
 
   /** {@inheritDoc} */
@@ -108,20 +128,22 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
 
   /** {@inheritDoc} */
   @Override
-  public final void removeAttribute(final String name) {
+  public final synchronized void removeAttribute(final String name) {
+    checkAttributesNotFrozen();
     if (!isBlank(name)) {
-      attributeMap.remove(name);
+      removeAttributeValue(name);
     }
   }
 
   /** {@inheritDoc} */
   @Override
-  public final void setAttribute(final String name, final Object value) {
+  public final synchronized void setAttribute(final String name, final Object value) {
+    checkAttributesNotFrozen();
     if (!isBlank(name)) {
       if (value == null) {
-        attributeMap.remove(name);
+        removeAttributeValue(name);
       } else {
-        attributeMap.put(name, value);
+        putAttributeValue(name, value);
       }
     }
   }
@@ -135,9 +157,58 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
     }
   }
 
-  protected final void addAttributes(final Map<String, Object> values) {
-    if (values != null) {
+  protected final synchronized void addAttributes(final Map<String, Object> values) {
+    checkAttributesNotFrozen();
+    if (values != null && !values.isEmpty()) {
+      if (attributeMap == null) {
+        attributeMap = new AttributeMap();
+      }
       attributeMap.putAll(values);
     }
   }
+
+  /** Freezes the attributes, so that they cannot be changed. */
+  final void freezeAttributes() {
+    isAttributesFrozen = true;
+  }
+
+  private void checkAttributesNotFrozen() {
+    if (isAttributesFrozen) {
+      throw new UnsupportedOperationException("Cannot change attributes of a frozen object");
+    }
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final ObjectInputStream.GetField fields = in.readFields();
+    final Map<String, Object> attributes = (Map<String, Object>) fields.get("attributeMap", null);
+    if (attributes != null && !attributes.isEmpty()) {
+      attributeMap = AttributeMap.fromSerializedMap(attributes);
+    }
+    remarks = (String) fields.get("remarks", "");
+  }
+
+  private synchronized void writeObject(final ObjectOutputStream out) throws IOException {
+    final ObjectOutputStream.PutField fields = out.putFields();
+    if (attributeMap == null) {
+      fields.put("attributeMap", new LinkedHashMap<>());
+    } else {
+      fields.put("attributeMap", new LinkedHashMap<>(attributeMap.toMap()));
+    }
+    fields.put("remarks", remarks);
+    out.writeFields();
+  }
+
+  private void putAttributeValue(final String name, final Object value) {
+    if (attributeMap == null) {
+      attributeMap = new AttributeMap();
+    }
+    attributeMap.put(name, value);
+  }
+
+  private void removeAttributeValue(final String name) {
+    if (attributeMap == null) {
+      return;
+    }
+    attributeMap.remove(name);
+  }
 }
@@ -35,6 +35,13 @@ import static us.fatehi.utility.Utility.isBlank;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -46,6 +53,7 @@ import schemacrawler.schema.DatabaseObject;
 import schemacrawler.schema.JavaSqlType;
 import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.Schema;
+import schemacrawler.schemacrawler.LoadOptions;
 import schemacrawler.schemacrawler.Retriever;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaReference;
@@ -75,6 +83,22 @@ abstract class AbstractRetriever {
     this.options = requireNonNull(options, "No SchemaCrawler options provided");
   }
 
+  /**
+   * Adds unread columns from the metadata results as attributes of the database object, if capture
+   * of unmapped attributes is switched on in the load options.
+   *
+   * @param namedObject Database object to add attributes to
+   * @param results Metadata results for the current row
+   */
+  final void addAttributes(
+      final AbstractNamedObjectWithAttributes namedObject, final MetadataResultSet results) {
+    final LoadOptions loadOptions = options.getLoadOptions();
+    if (!loadOptions.isCaptureUnmappedAttributes()) {
+      return;
+    }
+    namedObject.addAttributes(results.getAttributes(loadOptions.getUnmappedAttributesAllowlist()));
+  }
+
   /**
    * Checks whether the provided database object belongs to the specified schema.
    *
@@ -106,10 +130,45 @@ abstract class AbstractRetriever {
     return belongsToCatalog && belongsToSchema;
   }
 
+  /**
+   * Creates a statement for data dictionary queries, with the fetch size configured in the schema
+   * retrieval options.
+   *
+   * @return Statement
+   * @throws SQLException On an exception
+   */
+  final Statement createStatement() throws SQLException {
+    return retrieverConnection.createStatement();
+  }
+
   final NamedObjectList<SchemaReference> getAllSchemas() {
     return catalog.getAllSchemas();
   }
 
+  /**
+   * Groups tables by schema, in a single pass over the tables. Schemas are in the order that they
+   * are first found.
+   *
+   * @param allTables Tables to group
+   * @return Tables in each schema
+   */
+  final Map<Schema, List<MutableTable>> getTablesBySchema(
+      final NamedObjectList<MutableTable> allTables) {
+    final Map<Schema, List<MutableTable>> tablesBySchema = new LinkedHashMap<>();
+    for (final MutableTable table : allTables) {
+      tablesBySchema.computeIfAbsent(table.getSchema(), schema -> new ArrayList<>()).add(table);
+    }
+    return tablesBySchema;
+  }
+
+  final Collection<Schema> getTableSchemas(final NamedObjectList<MutableTable> allTables) {
+    final Collection<Schema> schemas = new LinkedHashSet<>();
+    for (final MutableTable table : allTables) {
+      schemas.add(table.getSchema());
+    }
+    return schemas;
+  }
+
   final Connection getDatabaseConnection() {
     return retrieverConnection.getConnection();
   }
@@ -135,11 +194,13 @@ abstract class AbstractRetriever {
     if ("HYC00".equalsIgnoreCase(e.getSQLState()) || "HY000".equalsIgnoreCase(e.getSQLState())) {
       logSQLFeatureNotSupported(message, e);
     } else {
+      CrawlTaskMetrics.recordFailure();
       LOGGER.log(Level.WARNING, message, e);
     }
   }
 
   final void logSQLFeatureNotSupported(final Supplier<String> message, final Throwable e) {
+    CrawlTaskMetrics.recordFailure();
     LOGGER.log(Level.WARNING, message);
     LOGGER.log(Level.FINE, message, e);
   }
@@ -178,9 +239,7 @@ abstract class AbstractRetriever {
       final String databaseSpecificTypeName,
       final String mappedClassName) {
     MutableColumnDataType columnDataType =
-        catalog
-            .lookupColumnDataType(schema, databaseSpecificTypeName)
-            .orElse(catalog.lookupSystemColumnDataType(databaseSpecificTypeName).orElse(null));
+        catalog.resolveColumnDataType(schema, databaseSpecificTypeName).orElse(null);
     // Create new data type, if needed
     if (columnDataType == null) {
       columnDataType = new MutableColumnDataType(schema, databaseSpecificTypeName, type);
@@ -213,8 +272,19 @@ abstract class AbstractRetriever {
         new NamedObjectKey(catalogName, schemaName, routineName, specificName));
   }
 
+  /**
+   * Looks up a table to retrieve details for. Tables that are reused from a previously crawled
+   * catalog are not returned, since their details are not retrieved again.
+   */
   final Optional<MutableTable> lookupTable(
       final String catalogName, final String schemaName, final String tableName) {
+    return lookupReferencedTable(catalogName, schemaName, tableName)
+        .filter(table -> !catalog.isReusedTable(table));
+  }
+
+  /** Looks up a table that is referred to by another table, including reused tables. */
+  final Optional<MutableTable> lookupReferencedTable(
+      final String catalogName, final String schemaName, final String tableName) {
     return catalog.lookupTable(new NamedObjectKey(catalogName, schemaName, tableName));
   }
 
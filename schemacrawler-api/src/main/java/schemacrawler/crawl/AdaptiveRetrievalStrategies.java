@@ -0,0 +1,201 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Level;
+
+import schemacrawler.SchemaCrawlerLogger;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Remembers how long each metadata retrieval strategy took for each database, so that the adaptive
+ * metadata retrieval strategy can use the one that is fastest. The first crawls of a database try
+ * each strategy in turn, and later crawls use the strategy that took the least time for each object
+ * that it retrieved. A strategy that fails is not used again. Databases are identified by a SHA-256
+ * hash of their connection URL, so that credentials in the URL are not saved.
+ *
+ * <p>Timings are kept for as long as the JVM runs. Applications that crawl the same database in
+ * later runs can save timings to a file, and load them before crawling.
+ */
+public final class AdaptiveRetrievalStrategies {
+
+  private static final SchemaCrawlerLogger LOGGER =
+      SchemaCrawlerLogger.getLogger(AdaptiveRetrievalStrategies.class.getName());
+
+  private static final AdaptiveRetrievalStrategies adaptiveRetrievalStrategies =
+      new AdaptiveRetrievalStrategies();
+
+  public static AdaptiveRetrievalStrategies getAdaptiveRetrievalStrategies() {
+    return adaptiveRetrievalStrategies;
+  }
+
+  static String databaseKey(final String connectionUrl) {
+    if (connectionUrl == null) {
+      return "unknown";
+    }
+    return new CrawlFingerprint().add("url", connectionUrl).fingerprint();
+  }
+
+  // Time taken in milliseconds for each object retrieved, keyed by
+  // database, retrieval type and strategy
+  private final Map<String, Double> timings;
+
+  private AdaptiveRetrievalStrategies() {
+    timings = new TreeMap<>();
+  }
+
+  /** Forgets all timings. */
+  public synchronized void clear() {
+    timings.clear();
+  }
+
+  /**
+   * Loads timings saved by an earlier run. Loaded timings replace timings for the same database,
+   * retrieval type and strategy.
+   *
+   * @param reader Reader for saved timings
+   * @throws IOException On an exception reading timings
+   */
+  public synchronized void load(final Reader reader) throws IOException {
+    requireNonNull(reader, "No reader provided");
+    final Properties properties = new Properties();
+    properties.load(reader);
+    for (final String key : properties.stringPropertyNames()) {
+      try {
+        timings.put(key, Double.valueOf(properties.getProperty(key)));
+      } catch (final NumberFormatException e) {
+        LOGGER.log(Level.WARNING, new StringFormat("Ignoring bad timing for <%s>", key));
+      }
+    }
+  }
+
+  /**
+   * Saves timings, so that they can be loaded by a later run.
+   *
+   * @param writer Writer for timings
+   * @throws IOException On an exception writing timings
+   */
+  public synchronized void save(final Writer writer) throws IOException {
+    requireNonNull(writer, "No writer provided");
+    final Properties properties = new Properties();
+    for (final Map.Entry<String, Double> timing : timings.entrySet()) {
+      properties.setProperty(timing.getKey(), String.valueOf(timing.getValue()));
+    }
+    properties.store(
+        writer, "SchemaCrawler metadata retrieval timings, in milliseconds per object retrieved");
+  }
+
+  @Override
+  public synchronized String toString() {
+    return timings.toString();
+  }
+
+  /**
+   * Chooses a retrieval strategy. The first candidate that has not been timed is chosen, so that
+   * each candidate is tried once. After that, the candidate that took the least time for each
+   * object that it retrieved is chosen.
+   *
+   * @param databaseKey Database identifier
+   * @param retrievalType Type of metadata being retrieved
+   * @param candidates Strategies that can be used, in order of preference
+   * @return Chosen strategy
+   */
+  synchronized MetadataRetrievalStrategy choose(
+      final String databaseKey,
+      final SchemaInfoMetadataRetrievalStrategy retrievalType,
+      final List<MetadataRetrievalStrategy> candidates) {
+    requireNonNull(candidates, "No candidate strategies provided");
+    if (candidates.isEmpty()) {
+      throw new IllegalArgumentException("No candidate strategies provided");
+    }
+
+    MetadataRetrievalStrategy chosen = null;
+    double leastTiming = Double.POSITIVE_INFINITY;
+    for (final MetadataRetrievalStrategy candidate : candidates) {
+      final Double timing = timings.get(timingKey(databaseKey, retrievalType, candidate));
+      if (timing == null) {
+        chosen = candidate;
+        break;
+      }
+      if (chosen == null || timing < leastTiming) {
+        chosen = candidate;
+        leastTiming = timing;
+      }
+    }
+
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Using <%s> for adaptive retrieval of <%s>", chosen, retrievalType.getKey()));
+    return chosen;
+  }
+
+  /**
+   * Records the time taken by a retrieval strategy.
+   *
+   * @param databaseKey Database identifier
+   * @param retrievalType Type of metadata that was retrieved
+   * @param strategy Strategy that was used
+   * @param elapsedMillis Time taken by the retrieval, in milliseconds
+   * @param objectCount Number of objects that were retrieved
+   * @param isFailed Whether the retrieval failed
+   */
+  synchronized void record(
+      final String databaseKey,
+      final SchemaInfoMetadataRetrievalStrategy retrievalType,
+      final MetadataRetrievalStrategy strategy,
+      final long elapsedMillis,
+      final long objectCount,
+      final boolean isFailed) {
+    final double timing;
+    if (isFailed) {
+      timing = Double.POSITIVE_INFINITY;
+    } else {
+      timing = (double) elapsedMillis / Math.max(1L, objectCount);
+    }
+    timings.put(timingKey(databaseKey, retrievalType, strategy), timing);
+  }
+
+  private String timingKey(
+      final String databaseKey,
+      final SchemaInfoMetadataRetrievalStrategy retrievalType,
+      final MetadataRetrievalStrategy strategy) {
+    return String.format("%s.%s.%s", databaseKey, retrievalType.getKey(), strategy);
+  }
+}
@@ -0,0 +1,337 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Attributes of a database object. Most database objects have only a few attributes, so up to four
+ * attributes are stored in small arrays, and a hash map is only used for more attributes.
+ * Attributes are returned in the same order as from a hash map. Attribute names are shared between
+ * database objects, since the same few names, such as TABLE_CAT, are used for many objects.
+ */
+final class AttributeMap {
+
+  /** Unmodifiable view of the attributes, that reflects later changes to the attributes. */
+  private final class AttributesView extends AbstractMap<String, Object> {
+
+    private final Set<Map.Entry<String, Object>> entries = new Entries();
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return key instanceof String && AttributeMap.this.containsKey((String) key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return entries;
+    }
+
+    @Override
+    public Object get(final Object key) {
+      if (key instanceof String) {
+        return AttributeMap.this.getOrDefault((String) key, null);
+      }
+      return null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return AttributeMap.this.isEmpty();
+    }
+
+    @Override
+    public int size() {
+      return AttributeMap.this.size();
+    }
+  }
+
+  private final class Entries extends AbstractSet<Map.Entry<String, Object>> {
+
+    @Override
+    public Iterator<Map.Entry<String, Object>> iterator() {
+      if (map != null) {
+        return Collections.unmodifiableMap(map).entrySet().iterator();
+      }
+      final int[] order = hashMapOrder();
+      return new Iterator<Map.Entry<String, Object>>() {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+          return index < order.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          final int next = order[index];
+          index = index + 1;
+          return new AbstractMap.SimpleImmutableEntry<>(names[next], values[next]);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return AttributeMap.this.size();
+    }
+  }
+
+  private static final int MAX_COMPACT_SIZE = 4;
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float LOAD_FACTOR = 0.75f;
+  // Limits the number of shared names, since attribute names can be
+  // set by applications, and not only from database metadata
+  private static final int MAX_SHARED_NAMES = 1024;
+
+  private static final ConcurrentMap<String, String> sharedNames = new ConcurrentHashMap<>();
+
+  /**
+   * Gets a shared instance of an attribute name, so that each database object does not hold its own
+   * copy of the name.
+   *
+   * @param name Attribute name
+   * @return Shared attribute name
+   */
+  static String shareName(final String name) {
+    if (name == null) {
+      return null;
+    }
+    final String sharedName = sharedNames.get(name);
+    if (sharedName != null) {
+      return sharedName;
+    }
+    if (sharedNames.size() >= MAX_SHARED_NAMES) {
+      return name;
+    }
+    final String previousName = sharedNames.putIfAbsent(name, name);
+    if (previousName != null) {
+      return previousName;
+    }
+    return name;
+  }
+
+  /**
+   * Creates attributes from a deserialized map, with the same capacity as a deserialized hash map,
+   * so that attributes are returned in the same order.
+   *
+   * @param attributes Deserialized attributes
+   * @return Attributes
+   */
+  static AttributeMap fromSerializedMap(final Map<String, Object> attributes) {
+    final AttributeMap attributeMap = new AttributeMap();
+    attributeMap.capacity =
+        Math.max(DEFAULT_CAPACITY, tableSizeFor((int) (attributes.size() / LOAD_FACTOR + 1.0f)));
+    for (final Map.Entry<String, Object> attribute : attributes.entrySet()) {
+      attributeMap.put(attribute.getKey(), attribute.getValue());
+    }
+    return attributeMap;
+  }
+
+  private static int tableSizeFor(final int minimumCapacity) {
+    if (minimumCapacity <= 1) {
+      return 1;
+    }
+    return Integer.highestOneBit(minimumCapacity - 1) << 1;
+  }
+
+  private String[] names;
+  private Object[] values;
+  private int size;
+  // Capacity that a hash map with the same attributes would have, so
+  // that attributes are returned in the same order as from a hash map
+  private int capacity;
+  private Map<String, Object> map;
+  // Created when attributes are first requested as a map
+  private Map<String, Object> view;
+
+  AttributeMap() {
+    names = new String[1];
+    values = new Object[1];
+  }
+
+  boolean containsKey(final String name) {
+    if (map != null) {
+      return map.containsKey(name);
+    }
+    return indexOf(name) >= 0;
+  }
+
+  Object getOrDefault(final String name, final Object defaultValue) {
+    if (map != null) {
+      return map.getOrDefault(name, defaultValue);
+    }
+    final int index = indexOf(name);
+    if (index >= 0) {
+      return values[index];
+    } else {
+      return defaultValue;
+    }
+  }
+
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  void put(final String name, final Object value) {
+    if (map != null) {
+      map.put(shareName(name), value);
+      return;
+    }
+
+    final int index = indexOf(name);
+    if (index >= 0) {
+      values[index] = value;
+    } else if (size < MAX_COMPACT_SIZE) {
+      if (size == names.length) {
+        names = Arrays.copyOf(names, size + 1);
+        values = Arrays.copyOf(values, size + 1);
+      }
+      names[size] = shareName(name);
+      values[size] = value;
+      size = size + 1;
+      if (capacity == 0) {
+        capacity = DEFAULT_CAPACITY;
+      }
+      while (size > (int) (capacity * LOAD_FACTOR)) {
+        capacity = capacity * 2;
+      }
+    } else {
+      // Attributes are added to the hash map in the order in which they
+      // were set, so that the hash map iterates in the same order
+      final Map<String, Object> hashMap = new HashMap<>(capacity);
+      for (int i = 0; i < size; i++) {
+        hashMap.put(names[i], values[i]);
+      }
+      hashMap.put(shareName(name), value);
+      map = hashMap;
+      names = null;
+      values = null;
+      size = 0;
+    }
+  }
+
+  void putAll(final Map<String, Object> attributes) {
+    if (attributes.isEmpty()) {
+      return;
+    }
+    if (map == null && capacity == 0) {
+      // Hash maps are sized for all attributes when they are first added
+      capacity = tableSizeFor((int) (attributes.size() / LOAD_FACTOR + 1.0f));
+    }
+    for (final Map.Entry<String, Object> attribute : attributes.entrySet()) {
+      put(attribute.getKey(), attribute.getValue());
+    }
+  }
+
+  void remove(final String name) {
+    if (map != null) {
+      map.remove(name);
+      return;
+    }
+
+    final int index = indexOf(name);
+    if (index >= 0) {
+      final int last = size - 1;
+      System.arraycopy(names, index + 1, names, index, last - index);
+      System.arraycopy(values, index + 1, values, index, last - index);
+      names[last] = null;
+      values[last] = null;
+      size = last;
+    }
+  }
+
+  int size() {
+    if (map != null) {
+      return map.size();
+    }
+    return size;
+  }
+
+  /**
+   * Gets an unmodifiable view of the attributes, that is backed by this attribute map, so that no
+   * copy is made.
+   *
+   * @return Attributes
+   */
+  Map<String, Object> toMap() {
+    if (view == null) {
+      view = new AttributesView();
+    }
+    return view;
+  }
+
+  /**
+   * Gets the order in which a hash map with the same capacity would return the attributes. A hash
+   * map returns entries by bucket, and entries in the same bucket in the order in which they were
+   * added.
+   *
+   * @return Indexes of attributes, in hash map order
+   */
+  private int[] hashMapOrder() {
+    final int[] buckets = new int[size];
+    final Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      final int hashCode = Objects.hashCode(names[i]);
+      buckets[i] = (hashCode ^ (hashCode >>> 16)) & (capacity - 1);
+      order[i] = i;
+    }
+    // Sorting is stable, so attributes in the same bucket stay in the order in which they were
+    // added
+    Arrays.sort(order, (index1, index2) -> Integer.compare(buckets[index1], buckets[index2]));
+    final int[] hashMapOrder = new int[size];
+    for (int i = 0; i < size; i++) {
+      hashMapOrder[i] = order[i];
+    }
+    return hashMapOrder;
+  }
+
+  private int indexOf(final String name) {
+    for (int i = 0; i < size; i++) {
+      if (Objects.equals(names[i], name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,208 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import schemacrawler.inclusionrule.InclusionRule;
+import schemacrawler.inclusionrule.InclusionRuleWithRegularExpression;
+import schemacrawler.schema.RoutineType;
+import schemacrawler.schema.TableTypes;
+import schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion;
+import schemacrawler.schemacrawler.FilterOptions;
+import schemacrawler.schemacrawler.GrepOptions;
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.LimitOptions;
+import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaInfoRetrieval;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+
+/**
+ * SHA-256 fingerprint of named values, used to decide whether the results of a previous crawl can
+ * be reused. Options are described from their individual settings, rather than from their string
+ * representation, so that the same options always have the same fingerprint. Settings that do not
+ * change the crawled catalog, such as the number of threads, are not part of the fingerprint.
+ */
+public final class CrawlFingerprint {
+
+  private static String describe(final InclusionRule inclusionRule) {
+    if (inclusionRule == null) {
+      return "";
+    }
+    if (inclusionRule instanceof InclusionRuleWithRegularExpression) {
+      final InclusionRuleWithRegularExpression regularExpressionRule =
+          (InclusionRuleWithRegularExpression) inclusionRule;
+      return String.format(
+          "%s include=%s exclude=%s",
+          inclusionRule.getClass().getName(),
+          regularExpressionRule.getInclusionPattern().pattern(),
+          regularExpressionRule.getExclusionPattern().pattern());
+    }
+    // Other inclusion rules cannot be described by their settings
+    return inclusionRule.getClass().getName();
+  }
+
+  private static String describe(final Optional<InclusionRule> inclusionRule) {
+    return describe(inclusionRule.orElse(null));
+  }
+
+  private static String describe(final TableTypes tableTypes) {
+    if (tableTypes == null || tableTypes.isIncludeAll()) {
+      return "*";
+    }
+    return String.join(",", tableTypes.toArray());
+  }
+
+  private final MessageDigest messageDigest;
+
+  public CrawlFingerprint() {
+    try {
+      messageDigest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      // SHA-256 is required to be supported by every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Adds a named value to the fingerprint. The order in which values are added matters.
+   *
+   * @param name Name of the value
+   * @param value Value, which can be null
+   * @return This fingerprint
+   */
+  public CrawlFingerprint add(final String name, final Object value) {
+    messageDigest.update(String.format("%s=%s", name, value).getBytes(UTF_8));
+    messageDigest.update((byte) '\n');
+    return this;
+  }
+
+  /**
+   * Adds the options that decide which database objects are crawled, and in how much detail.
+   *
+   * @param options SchemaCrawler options
+   * @return This fingerprint
+   */
+  public CrawlFingerprint addOptions(final SchemaCrawlerOptions options) {
+    if (options == null) {
+      return add("options", null);
+    }
+
+    final LimitOptions limitOptions = options.getLimitOptions();
+    for (final DatabaseObjectRuleForInclusion ruleForInclusion :
+        DatabaseObjectRuleForInclusion.values()) {
+      add("limit." + ruleForInclusion.name(), describe(limitOptions.get(ruleForInclusion)));
+    }
+    final TreeSet<String> routineTypes = new TreeSet<>();
+    for (final RoutineType routineType : limitOptions.getRoutineTypes()) {
+      routineTypes.add(routineType.name());
+    }
+    add("limit.routineTypes", routineTypes);
+    add("limit.tableNamePattern", limitOptions.getTableNamePattern());
+    add("limit.tableTypes", describe(limitOptions.getTableTypes()));
+
+    final FilterOptions filterOptions = options.getFilterOptions();
+    add("filter.childTableFilterDepth", filterOptions.getChildTableFilterDepth());
+    add("filter.parentTableFilterDepth", filterOptions.getParentTableFilterDepth());
+
+    final GrepOptions grepOptions = options.getGrepOptions();
+    add("grep.tables", describe(grepOptions.getGrepTableInclusionRule()));
+    add("grep.columns", describe(grepOptions.getGrepColumnInclusionRule()));
+    add("grep.routineParameters", describe(grepOptions.getGrepRoutineParameterInclusionRule()));
+    add("grep.definitions", describe(grepOptions.getGrepDefinitionInclusionRule()));
+    add("grep.invertMatch", grepOptions.isGrepInvertMatch());
+    add("grep.onlyMatching", grepOptions.isGrepOnlyMatching());
+
+    final LoadOptions loadOptions = options.getLoadOptions();
+    final SchemaInfoLevel schemaInfoLevel = loadOptions.getSchemaInfoLevel();
+    for (final SchemaInfoRetrieval schemaInfoRetrieval : SchemaInfoRetrieval.values()) {
+      add("load." + schemaInfoRetrieval.name(), schemaInfoLevel.is(schemaInfoRetrieval));
+    }
+    add("load.lazyTableDetails", loadOptions.isLazyTableDetails());
+    add("load.captureUnmappedAttributes", loadOptions.isCaptureUnmappedAttributes());
+    add(
+        "load.unmappedAttributesAllowlist",
+        new TreeSet<>(loadOptions.getUnmappedAttributesAllowlist()));
+
+    return this;
+  }
+
+  /**
+   * Adds the database-specific options that decide how database metadata is retrieved.
+   *
+   * @param schemaRetrievalOptions Database-specific schema retrieval overrides
+   * @return This fingerprint
+   */
+  public CrawlFingerprint addRetrievalOptions(final SchemaRetrievalOptions schemaRetrievalOptions) {
+    if (schemaRetrievalOptions == null) {
+      return add("retrieval", null);
+    }
+
+    add(
+        "retrieval.databaseServerType",
+        schemaRetrievalOptions.getDatabaseServerType().getDatabaseSystemIdentifier());
+    add("retrieval.identifierQuoteString", schemaRetrievalOptions.getIdentifierQuoteString());
+    add("retrieval.supportsCatalogs", schemaRetrievalOptions.isSupportsCatalogs());
+    add("retrieval.supportsSchemas", schemaRetrievalOptions.isSupportsSchemas());
+    for (final SchemaInfoMetadataRetrievalStrategy strategy :
+        SchemaInfoMetadataRetrievalStrategy.values()) {
+      add("retrieval." + strategy.name(), schemaRetrievalOptions.get(strategy));
+    }
+    final InformationSchemaViews informationSchemaViews =
+        schemaRetrievalOptions.getInformationSchemaViews();
+    for (final InformationSchemaKey key : InformationSchemaKey.values()) {
+      if (informationSchemaViews.hasQuery(key)) {
+        add("retrieval." + key.name(), informationSchemaViews.getQuery(key).getQuery());
+      }
+    }
+
+    return this;
+  }
+
+  /**
+   * Completes the fingerprint. No more values can be added once the fingerprint is completed.
+   *
+   * @return SHA-256 fingerprint, as a hexadecimal string
+   */
+  public String fingerprint() {
+    final StringBuilder fingerprint = new StringBuilder();
+    for (final byte digestByte : messageDigest.digest()) {
+      fingerprint.append(String.format("%02x", digestByte));
+    }
+    return fingerprint.toString();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import us.fatehi.utility.StopWatch;
+import us.fatehi.utility.scheduler.TaskDefinition.TaskRunnable;
+
+/**
+ * Metrics for each phase and task of a crawl, such as the time taken, the number of JDBC calls
+ * made, and the number of rows processed. Metrics can be obtained as a JSON document, and can be
+ * registered with a JMX MBean server, for example, <code>
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(crawlMetrics, new
+ * ObjectName("schemacrawler:type=CrawlMetrics"))</code>.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class CrawlMetrics implements CrawlMetricsMXBean {
+
+  private final List<CrawlTaskMetrics> taskMetrics;
+
+  CrawlMetrics() {
+    taskMetrics = new CopyOnWriteArrayList<>();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<CrawlTaskMetrics> getTaskMetrics() {
+    return new ArrayList<>(taskMetrics);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toJson() {
+    final StringBuilder buffer = new StringBuilder(1024);
+    buffer.append("{\"task-metrics\":[");
+    boolean isFirst = true;
+    for (final CrawlTaskMetrics task : taskMetrics) {
+      if (!isFirst) {
+        buffer.append(',');
+      }
+      isFirst = false;
+      buffer
+          .append("{\"phase\":")
+          .append(quote(task.getPhase()))
+          .append(",\"task-name\":")
+          .append(quote(task.getTaskName()))
+          .append(",\"elapsed-millis\":")
+          .append(task.getElapsedMillis())
+          .append(",\"jdbc-call-count\":")
+          .append(task.getJdbcCallCount())
+          .append(",\"row-count\":")
+          .append(task.getRowCount())
+          .append(",\"object-count\":")
+          .append(task.getObjectCount())
+          .append(",\"failure-count\":")
+          .append(task.getFailureCount())
+          .append('}');
+    }
+    buffer.append("]}");
+    return buffer.toString();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return toJson();
+  }
+
+  /**
+   * Looks up metrics for all runs of a task, in any phase.
+   *
+   * @param taskName Name of the task
+   * @return Metrics for the task, which may be empty if the task was not run
+   */
+  List<CrawlTaskMetrics> lookupTaskMetrics(final String taskName) {
+    final List<CrawlTaskMetrics> matchingTaskMetrics = new ArrayList<>();
+    for (final CrawlTaskMetrics task : taskMetrics) {
+      if (task.getTaskName().equals(taskName)) {
+        matchingTaskMetrics.add(task);
+      }
+    }
+    return matchingTaskMetrics;
+  }
+
+  /**
+   * Times a task of a crawl phase, using the stop watch for the phase, and records metrics for the
+   * task.
+   *
+   * @param stopWatch Stop watch for the crawl phase
+   * @param taskName Name of the task
+   * @param callable Task to run
+   * @return Value returned by the task
+   * @throws Exception On an exception from the task
+   */
+  <V> V time(final StopWatch stopWatch, final String taskName, final Callable<V> callable)
+      throws Exception {
+    requireNonNull(stopWatch, "No stop watch provided");
+    final CrawlTaskMetrics metrics = newTaskMetrics(stopWatch.getId(), taskName);
+    return stopWatch.time(taskName, () -> metrics.time(callable));
+  }
+
+  /**
+   * Wraps a task that is run by a task runner, so that metrics are recorded for the task when it is
+   * run.
+   *
+   * @param phase Name of the crawl phase
+   * @param taskName Name of the task
+   * @param runnable Task to run
+   * @return Task that records metrics
+   */
+  TaskRunnable track(final String phase, final String taskName, final TaskRunnable runnable) {
+    requireNonNull(runnable, "No task provided");
+    final CrawlTaskMetrics metrics = newTaskMetrics(phase, taskName);
+    return () ->
+        metrics.time(
+            () -> {
+              runnable.run();
+              return null;
+            });
+  }
+
+  private CrawlTaskMetrics newTaskMetrics(final String phase, final String taskName) {
+    final CrawlTaskMetrics metrics = new CrawlTaskMetrics(phase, taskName);
+    taskMetrics.add(metrics);
+    return metrics;
+  }
+
+  private String quote(final String text) {
+    return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+}
@@ -0,0 +1,52 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import java.util.List;
+
+/**
+ * Management interface for crawl metrics, so that they can be registered with a JMX MBean server.
+ *
+ * @author Sualeh Fatehi
+ */
+public interface CrawlMetricsMXBean {
+
+  /**
+   * Metrics for each task of the crawl, in the order in which the tasks were started.
+   *
+   * @return Metrics for each crawl task
+   */
+  List<CrawlTaskMetrics> getTaskMetrics();
+
+  /**
+   * Metrics for each task of the crawl, as a JSON document.
+   *
+   * @return JSON document
+   */
+  String toJson();
+}
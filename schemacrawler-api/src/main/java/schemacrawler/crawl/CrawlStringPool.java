@@ -0,0 +1,133 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import us.fatehi.utility.scheduler.TaskDefinition.TaskRunnable;
+
+/**
+ * Pool of strings for a single crawl, so that the catalog holds one instance of each distinct name,
+ * such as catalog, schema, table and data type names, rather than a new instance for every row of
+ * metadata that repeats it. The pool is current on the thread that runs the crawl, and on threads
+ * that do work on its behalf, and is discarded once the crawl is complete.
+ */
+final class CrawlStringPool {
+
+  private static final ThreadLocal<CrawlStringPool> currentStringPool = new ThreadLocal<>();
+
+  /**
+   * Gets the pooled instance of a string from the current pool. If there is no current pool, the
+   * string is returned as is.
+   *
+   * @param value String value
+   * @return Pooled string
+   */
+  static String intern(final String value) {
+    if (value == null) {
+      return null;
+    }
+    final CrawlStringPool stringPool = currentStringPool.get();
+    if (stringPool == null) {
+      return value;
+    }
+    return stringPool.pooled(value);
+  }
+
+  /**
+   * Runs a task with the pool that is current at the time this method is called, so that strings
+   * created on another thread are pooled with the rest of the crawl.
+   *
+   * @param runnable Task to run
+   * @return Task that uses the current pool
+   */
+  static TaskRunnable inCurrentPool(final TaskRunnable runnable) {
+    requireNonNull(runnable, "No task provided");
+    final CrawlStringPool stringPool = currentStringPool.get();
+    if (stringPool == null) {
+      return runnable;
+    }
+    return () -> {
+      final CrawlStringPool previousStringPool = stringPool.enter();
+      try {
+        runnable.run();
+      } finally {
+        exit(previousStringPool);
+      }
+    };
+  }
+
+  /**
+   * Restores the pool that was current before a pool was entered.
+   *
+   * @param previousStringPool Pool returned when the pool was entered, which may be null
+   */
+  static void exit(final CrawlStringPool previousStringPool) {
+    if (previousStringPool == null) {
+      currentStringPool.remove();
+    } else {
+      currentStringPool.set(previousStringPool);
+    }
+  }
+
+  private final ConcurrentMap<String, String> strings;
+
+  CrawlStringPool() {
+    strings = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Makes this the current pool for the calling thread, until the previous pool is restored.
+   *
+   * @return Pool that was current before, or null
+   */
+  CrawlStringPool enter() {
+    final CrawlStringPool previousStringPool = currentStringPool.get();
+    currentStringPool.set(this);
+    return previousStringPool;
+  }
+
+  int size() {
+    return strings.size();
+  }
+
+  private String pooled(final String value) {
+    final String pooledValue = strings.get(value);
+    if (pooledValue != null) {
+      return pooledValue;
+    }
+    final String previousValue = strings.putIfAbsent(value, value);
+    if (previousValue != null) {
+      return previousValue;
+    }
+    return value;
+  }
+}
@@ -0,0 +1,236 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import us.fatehi.utility.scheduler.TaskDefinition.TaskRunnable;
+
+/**
+ * Metrics for a single task of a crawl, such as retrieving tables or foreign keys. Metrics are
+ * recorded against the task that is running on the current thread, including work done on other
+ * threads on behalf of the task.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class CrawlTaskMetrics {
+
+  private static final ThreadLocal<CrawlTaskMetrics> currentTaskMetrics = new ThreadLocal<>();
+
+  /**
+   * Runs a task on behalf of the task that is current at the time this method is called, so that
+   * work done on another thread is recorded against the right task.
+   *
+   * @param runnable Task to run
+   * @return Task that records metrics against the current task
+   */
+  static TaskRunnable inCurrentTask(final TaskRunnable runnable) {
+    requireNonNull(runnable, "No task provided");
+    final CrawlTaskMetrics taskMetrics = currentTaskMetrics.get();
+    if (taskMetrics == null) {
+      return runnable;
+    }
+    return () ->
+        taskMetrics.call(
+            () -> {
+              runnable.run();
+              return null;
+            });
+  }
+
+  static void recordFailure() {
+    final CrawlTaskMetrics taskMetrics = currentTaskMetrics.get();
+    if (taskMetrics != null) {
+      taskMetrics.failureCount.incrementAndGet();
+    }
+  }
+
+  static void recordJdbcCall() {
+    final CrawlTaskMetrics taskMetrics = currentTaskMetrics.get();
+    if (taskMetrics != null) {
+      taskMetrics.jdbcCallCount.incrementAndGet();
+    }
+  }
+
+  static void recordObjectCreated() {
+    final CrawlTaskMetrics taskMetrics = currentTaskMetrics.get();
+    if (taskMetrics != null) {
+      taskMetrics.objectCount.incrementAndGet();
+    }
+  }
+
+  static void recordRows(final long rows) {
+    final CrawlTaskMetrics taskMetrics = currentTaskMetrics.get();
+    if (taskMetrics != null) {
+      taskMetrics.rowCount.addAndGet(rows);
+    }
+  }
+
+  private final String phase;
+  private final String taskName;
+  private final AtomicLong elapsedNanos;
+  private final AtomicLong jdbcCallCount;
+  private final AtomicLong rowCount;
+  private final AtomicLong objectCount;
+  private final AtomicLong failureCount;
+
+  CrawlTaskMetrics(final String phase, final String taskName) {
+    this.phase = requireNonNull(phase, "No phase provided");
+    this.taskName = requireNonNull(taskName, "No task name provided");
+    elapsedNanos = new AtomicLong();
+    jdbcCallCount = new AtomicLong();
+    rowCount = new AtomicLong();
+    objectCount = new AtomicLong();
+    failureCount = new AtomicLong();
+  }
+
+  /**
+   * Wall clock time taken by the task, in milliseconds. Work done on other threads on behalf of the
+   * task is not added to this time.
+   *
+   * @return Elapsed time in milliseconds
+   */
+  public long getElapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(elapsedNanos.get());
+  }
+
+  /**
+   * Number of failures, including metadata calls that the database driver does not support, and the
+   * task itself failing.
+   *
+   * @return Number of failures
+   */
+  public long getFailureCount() {
+    return failureCount.get();
+  }
+
+  /**
+   * Number of metadata calls and data dictionary queries made.
+   *
+   * @return Number of JDBC calls
+   */
+  public long getJdbcCallCount() {
+    return jdbcCallCount.get();
+  }
+
+  /**
+   * Number of named objects created. This includes database objects, such as tables and columns, as
+   * well as descriptions of the columns of each metadata result set.
+   *
+   * @return Number of objects created
+   */
+  public long getObjectCount() {
+    return objectCount.get();
+  }
+
+  /**
+   * Name of the crawl phase that the task belongs to, such as "crawlTables".
+   *
+   * @return Crawl phase
+   */
+  public String getPhase() {
+    return phase;
+  }
+
+  /**
+   * Number of rows processed from metadata result sets.
+   *
+   * @return Number of rows
+   */
+  public long getRowCount() {
+    return rowCount.get();
+  }
+
+  /**
+   * Name of the task, such as "retrieveForeignKeys".
+   *
+   * @return Task name
+   */
+  public String getTaskName() {
+    return taskName;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s.%s: %d ms, %d JDBC calls, %d rows, %d objects, %d failures",
+        phase,
+        taskName,
+        getElapsedMillis(),
+        getJdbcCallCount(),
+        getRowCount(),
+        getObjectCount(),
+        getFailureCount());
+  }
+
+  /**
+   * Runs the task, recording metrics against this task on the current thread.
+   *
+   * @param callable Task to run
+   * @return Value returned by the task
+   * @throws Exception On an exception from the task
+   */
+  <V> V call(final Callable<V> callable) throws Exception {
+    final CrawlTaskMetrics previousTaskMetrics = currentTaskMetrics.get();
+    currentTaskMetrics.set(this);
+    try {
+      return callable.call();
+    } finally {
+      if (previousTaskMetrics == null) {
+        currentTaskMetrics.remove();
+      } else {
+        currentTaskMetrics.set(previousTaskMetrics);
+      }
+    }
+  }
+
+  /**
+   * Runs the task, recording metrics against this task, and recording the time taken by the task. A
+   * task that throws an exception is counted as a failure.
+   *
+   * @param callable Task to run
+   * @return Value returned by the task
+   * @throws Exception On an exception from the task
+   */
+  <V> V time(final Callable<V> callable) throws Exception {
+    final long start = System.nanoTime();
+    try {
+      return call(callable);
+    } catch (final Exception e) {
+      failureCount.incrementAndGet();
+      throw e;
+    } finally {
+      elapsedNanos.addAndGet(System.nanoTime() - start);
+    }
+  }
+}
@@ -34,7 +34,6 @@ import static schemacrawler.schema.DataTypeType.user_defined;
 import static schemacrawler.schemacrawler.InformationSchemaKey.TYPE_INFO;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.typeInfoRetrievalStrategy;
 
-import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -81,6 +80,8 @@ final class DataTypeRetriever extends AbstractRetriever {
         retrieveSystemColumnDataTypesFromDataDictionary(systemSchema);
         break;
 
+      case metadata_all:
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving system column data types");
         retrieveSystemColumnDataTypesFromMetadata(systemSchema);
@@ -131,7 +132,7 @@ final class DataTypeRetriever extends AbstractRetriever {
         columnDataType.setBaseType(baseType);
         columnDataType.setRemarks(remarks);
 
-        columnDataType.addAttributes(results.getAttributes());
+        addAttributes(columnDataType, results);
 
         catalog.addColumnDataType(columnDataType);
       }
@@ -182,7 +183,7 @@ final class DataTypeRetriever extends AbstractRetriever {
     columnDataType.setMaximumScale(maximumScale);
     columnDataType.setNumPrecisionRadix(numPrecisionRadix);
 
-    columnDataType.addAttributes(results.getAttributes());
+    addAttributes(columnDataType, results);
 
     catalog.addColumnDataType(columnDataType);
   }
@@ -195,9 +196,7 @@ final class DataTypeRetriever extends AbstractRetriever {
       throw new SchemaCrawlerSQLException("No system column data types SQL provided", null);
     }
     final Query typeInfoSql = informationSchemaViews.getQuery(TYPE_INFO);
-    final Connection connection = getDatabaseConnection();
-
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(typeInfoSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveSystemColumnDataTypesFromDataDictionary");
@@ -29,14 +29,18 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSchemaInclusion;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForTableInclusion;
 import static schemacrawler.schemacrawler.InformationSchemaKey.FOREIGN_KEYS;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy;
 import static us.fatehi.utility.Utility.isBlank;
 
-import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 
@@ -45,8 +49,12 @@ import schemacrawler.schema.Column;
 import schemacrawler.schema.ForeignKeyDeferrability;
 import schemacrawler.schema.ForeignKeyUpdateRule;
 import schemacrawler.schema.NamedObjectKey;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.TableType;
+import schemacrawler.schema.TableTypes;
 import schemacrawler.schema.View;
 import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.LimitOptions;
 import schemacrawler.schemacrawler.Query;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaCrawlerSQLException;
@@ -62,11 +70,14 @@ final class ForeignKeyRetriever extends AbstractRetriever {
   private static final SchemaCrawlerLogger LOGGER =
       SchemaCrawlerLogger.getLogger(ForeignKeyRetriever.class.getName());
 
+  private final LimitOptions limitOptions;
+
   ForeignKeyRetriever(
       final RetrieverConnection retrieverConnection,
       final MutableCatalog catalog,
       final SchemaCrawlerOptions options) {
     super(retrieverConnection, catalog, options);
+    limitOptions = options.getLimitOptions();
   }
 
   void retrieveForeignKeys(final NamedObjectList<MutableTable> allTables) throws SQLException {
@@ -80,7 +91,13 @@ final class ForeignKeyRetriever extends AbstractRetriever {
 
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving foreign keys");
-        retrieveForeignKeysFromMetadata(allTables);
+        retrieveForeignKeysFromMetadata(allTables, !isCompleteTableSelection(allTables));
+        break;
+
+      case metadata_all:
+        LOGGER.log(Level.INFO, "Retrieving foreign keys, for all tables in each schema");
+        retrieveForeignKeysFromMetadataForAllTables(
+            allTables, !isCompleteTableSelection(allTables));
         break;
 
       default:
@@ -89,10 +106,17 @@ final class ForeignKeyRetriever extends AbstractRetriever {
     }
   }
 
-  private void createForeignKeys(
+  /**
+   * Creates foreign keys from metadata results.
+   *
+   * @return Number of rows that were returned
+   */
+  private int createForeignKeys(
       final MetadataResultSet results, final NamedObjectList<MutableForeignKey> foreignKeys)
       throws SQLException {
+    int rowCount = 0;
     while (results.next()) {
+      rowCount = rowCount + 1;
       final String foreignKeyName = results.getString("FK_NAME");
       LOGGER.log(Level.FINE, new StringFormat("Retrieving foreign key: %s", foreignKeyName));
 
@@ -124,6 +148,12 @@ final class ForeignKeyRetriever extends AbstractRetriever {
       if (pkColumn == null || fkColumn == null || isFkColumnPartial && isPkColumnPartial) {
         continue;
       }
+      // Foreign keys between tables that are reused from a previously
+      // crawled catalog are already known
+      if (catalog.isReusedTable(pkColumn.getParent())
+          && catalog.isReusedTable(fkColumn.getParent())) {
+        continue;
+      }
 
       final String specificName;
       if (isBlank(foreignKeyName)) {
@@ -133,21 +163,29 @@ final class ForeignKeyRetriever extends AbstractRetriever {
         specificName = foreignKeyName;
       }
 
-      final Optional<MutableForeignKey> foreignKeyOptional =
-          foreignKeys.lookup(new NamedObjectKey(foreignKeyName, specificName));
+      final NamedObjectKey foreignKeyLookupKey = new NamedObjectKey(foreignKeyName, specificName);
+      Optional<MutableForeignKey> foreignKeyOptional = foreignKeys.lookup(foreignKeyLookupKey);
+      // With lazy loading of table details, the foreign key may already have been
+      // retrieved when the table at the other end was loaded
+      if (!foreignKeyOptional.isPresent()) {
+        foreignKeyOptional = lookupRetrievedForeignKey(fkColumn, foreignKeyLookupKey);
+      }
+      if (!foreignKeyOptional.isPresent()) {
+        foreignKeyOptional = lookupRetrievedForeignKey(pkColumn, foreignKeyLookupKey);
+      }
       final MutableForeignKey foreignKey;
       if (foreignKeyOptional.isPresent()) {
         foreignKey = foreignKeyOptional.get();
       } else {
         foreignKey = new MutableForeignKey(foreignKeyName, specificName);
-        foreignKeys.add(foreignKey);
       }
+      foreignKeys.add(foreignKey);
 
       foreignKey.addColumnReference(keySequence, pkColumn, fkColumn);
       foreignKey.setUpdateRule(updateRule);
       foreignKey.setDeleteRule(deleteRule);
       foreignKey.setDeferrability(deferrability);
-      foreignKey.addAttributes(results.getAttributes());
+      addAttributes(foreignKey, results);
 
       if (fkColumn instanceof MutableColumn) {
         ((MutableColumn) fkColumn).setReferencedColumn(pkColumn);
@@ -163,6 +201,51 @@ final class ForeignKeyRetriever extends AbstractRetriever {
         ((TablePartial) pkColumn.getParent()).addForeignKey(foreignKey);
       }
     }
+    return rowCount;
+  }
+
+  /**
+   * Checks whether every table in the database is in the list of tables, that is, no table filter
+   * excluded any table. In that case, imported keys alone find every foreign key, and exported keys
+   * do not need to be retrieved. Table types are not excluded if all table types are requested, or
+   * if every table type that the database supports is requested.
+   *
+   * @param allTables Tables to retrieve foreign keys for
+   * @return Whether all tables in the database were selected
+   */
+  private boolean isCompleteTableSelection(final NamedObjectList<MutableTable> allTables) {
+    if (allTables.size() != catalog.getAllTables().size()) {
+      // Only some of the tables in the catalog are being loaded
+      return false;
+    }
+    if (!limitOptions.isIncludeAll(ruleForSchemaInclusion)
+        || !limitOptions.isIncludeAll(ruleForTableInclusion)
+        || !isBlank(limitOptions.getTableNamePattern())) {
+      return false;
+    }
+    final TableTypes tableTypes = limitOptions.getTableTypes();
+    if (tableTypes.isIncludeAll()) {
+      return true;
+    }
+    final TableTypes supportedTableTypes = getRetrieverConnection().getTableTypes();
+    if (supportedTableTypes.isIncludeAll() || supportedTableTypes.isIncludeNone()) {
+      // Table types supported by the database are not known
+      return false;
+    }
+    for (final TableType supportedTableType : supportedTableTypes) {
+      if (!tableTypes.lookupTableType(supportedTableType.getTableType()).isPresent()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Optional<MutableForeignKey> lookupRetrievedForeignKey(
+      final Column column, final NamedObjectKey foreignKeyLookupKey) {
+    if (column instanceof MutableColumn) {
+      return ((MutableTable) column.getParent()).lookupRetrievedForeignKey(foreignKeyLookupKey);
+    }
+    return Optional.empty();
   }
 
   /**
@@ -178,6 +261,26 @@ final class ForeignKeyRetriever extends AbstractRetriever {
         catalog, catalogName, schemaName, tableName, columnName);
   }
 
+  private void retrieveExportedForeignKeysFromMetadata(
+      final MutableTable table, final NamedObjectList<MutableForeignKey> foreignKeys) {
+    if (table instanceof View) {
+      return;
+    }
+    try (final MetadataResultSet results =
+        new MetadataResultSet(
+            getMetaData()
+                .getExportedKeys(
+                    table.getSchema().getCatalogName(),
+                    table.getSchema().getName(),
+                    table.getName()))) {
+      createForeignKeys(results, foreignKeys);
+    } catch (final SQLException e) {
+      // Since not all database drivers may support exported keys, log a warning instead of
+      // throwing an error
+      LOGGER.log(Level.WARNING, "Could not retrieve exported foreign keys for table " + table, e);
+    }
+  }
+
   private void retrieveForeignKeysFromDataDictionary() throws SchemaCrawlerSQLException {
     final InformationSchemaViews informationSchemaViews =
         getRetrieverConnection().getInformationSchemaViews();
@@ -189,8 +292,7 @@ final class ForeignKeyRetriever extends AbstractRetriever {
 
     final NamedObjectList<MutableForeignKey> foreignKeys = new NamedObjectList<>();
     final Query fkSql = informationSchemaViews.getQuery(FOREIGN_KEYS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(fkSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveForeignKeysUsingSql");
@@ -200,43 +302,119 @@ final class ForeignKeyRetriever extends AbstractRetriever {
     }
   }
 
-  private void retrieveForeignKeysFromMetadata(final NamedObjectList<MutableTable> allTables)
+  private void retrieveForeignKeysFromMetadata(
+      final NamedObjectList<MutableTable> allTables, final boolean retrieveExportedKeys)
       throws SchemaCrawlerSQLException {
     final NamedObjectList<MutableForeignKey> foreignKeys = new NamedObjectList<>();
     for (final MutableTable table : allTables) {
-      if (table instanceof View) {
-        continue;
-      }
+      retrieveForeignKeysFromMetadata(table, foreignKeys, retrieveExportedKeys);
+    }
+  }
 
-      final DatabaseMetaData metaData = getMetaData();
+  private void retrieveForeignKeysFromMetadata(
+      final MutableTable table,
+      final NamedObjectList<MutableForeignKey> foreignKeys,
+      final boolean retrieveExportedKeys)
+      throws SchemaCrawlerSQLException {
+    if (table instanceof View) {
+      return;
+    }
+
+    // Get imported foreign keys
+    try (final MetadataResultSet results =
+        new MetadataResultSet(
+            getMetaData()
+                .getImportedKeys(
+                    table.getSchema().getCatalogName(),
+                    table.getSchema().getName(),
+                    table.getName()))) {
+      createForeignKeys(results, foreignKeys);
+    } catch (final SQLException e) {
+      throw new SchemaCrawlerSQLException("Could not retrieve foreign keys for table " + table, e);
+    }
+
+    // We need to get exported keys as well, since if only a single
+    // table is selected, we have not retrieved it's keys that are
+    // imported by other tables.
+    if (retrieveExportedKeys) {
+      retrieveExportedForeignKeysFromMetadata(table, foreignKeys);
+    }
+  }
+
+  private void retrieveForeignKeysFromMetadataForAllTables(
+      final NamedObjectList<MutableTable> allTables, final boolean retrieveExportedKeys)
+      throws SchemaCrawlerSQLException {
+    final NamedObjectList<MutableForeignKey> foreignKeys = new NamedObjectList<>();
+    final DatabaseMetaData metaData = getMetaData();
+    for (final Map.Entry<Schema, List<MutableTable>> tablesForSchema :
+        getTablesBySchema(allTables).entrySet()) {
+      final Schema schema = tablesForSchema.getKey();
+      final List<MutableTable> schemaTables = tablesForSchema.getValue();
 
       // Get imported foreign keys
-      try (final MetadataResultSet results =
-          new MetadataResultSet(
-              metaData.getImportedKeys(
-                  table.getSchema().getCatalogName(),
-                  table.getSchema().getName(),
-                  table.getName()))) {
-        createForeignKeys(results, foreignKeys);
+      final ResultSet importedKeys;
+      try {
+        importedKeys = metaData.getImportedKeys(schema.getCatalogName(), schema.getName(), null);
+      } catch (final SQLException e) {
+        logPossiblyUnsupportedSQLFeature(
+            new StringFormat(
+                "Could not retrieve foreign keys for all tables in schema <%s>, "
+                    + "so retrieving them one table at a time",
+                schema),
+            e);
+        for (final MutableTable table : schemaTables) {
+          retrieveForeignKeysFromMetadata(table, foreignKeys, retrieveExportedKeys);
+        }
+        continue;
+      }
+      final int rowCount;
+      try (final MetadataResultSet results = new MetadataResultSet(importedKeys)) {
+        rowCount = createForeignKeys(results, foreignKeys);
       } catch (final SQLException e) {
         throw new SchemaCrawlerSQLException(
-            "Could not retrieve foreign keys for table " + table, e);
+            "Could not retrieve foreign keys for schema " + schema, e);
+      }
+
+      // Some JDBC drivers return no rows, instead of throwing an
+      // exception, if no table name is provided
+      if (rowCount == 0) {
+        LOGGER.log(
+            Level.INFO,
+            new StringFormat(
+                "No foreign keys were returned for all tables in schema <%s>, "
+                    + "so retrieving them one table at a time",
+                schema));
+        for (final MutableTable table : schemaTables) {
+          retrieveForeignKeysFromMetadata(table, foreignKeys, retrieveExportedKeys);
+        }
+        continue;
+      }
+
+      if (!retrieveExportedKeys) {
+        continue;
       }
 
-      // We need to get exported keys as well, since if only a single
-      // table is selected, we have not retrieved it's keys that are
-      // imported by other tables.
-      try (final MetadataResultSet results =
-          new MetadataResultSet(
-              metaData.getExportedKeys(
-                  table.getSchema().getCatalogName(),
-                  table.getSchema().getName(),
-                  table.getName()))) {
+      // Get exported foreign keys, for keys imported by tables in other schemas
+      final ResultSet exportedKeys;
+      try {
+        exportedKeys = metaData.getExportedKeys(schema.getCatalogName(), schema.getName(), null);
+      } catch (final SQLException e) {
+        logPossiblyUnsupportedSQLFeature(
+            new StringFormat(
+                "Could not retrieve exported foreign keys for all tables in schema <%s>, "
+                    + "so retrieving them one table at a time",
+                schema),
+            e);
+        for (final MutableTable table : schemaTables) {
+          retrieveExportedForeignKeysFromMetadata(table, foreignKeys);
+        }
+        continue;
+      }
+      try (final MetadataResultSet results = new MetadataResultSet(exportedKeys)) {
         createForeignKeys(results, foreignKeys);
       } catch (final SQLException e) {
-        // Since not all database drivers may support exported keys, log a warning instead of
-        // throwing an error
-        LOGGER.log(Level.WARNING, "Could not retrieve exported foreign keys for table " + table, e);
+        LOGGER.log(
+            Level.WARNING, "Could not retrieve exported foreign keys for schema " + schema, e);
       }
     }
   }
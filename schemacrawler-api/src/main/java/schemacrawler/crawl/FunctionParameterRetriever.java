@@ -34,11 +34,12 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.FUNCTION_COLUMNS;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.functionParametersRetrievalStrategy;
 import static us.fatehi.utility.Utility.isBlank;
 
-import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
@@ -91,6 +92,8 @@ final class FunctionParameterRetriever extends AbstractRetriever {
         retrieveFunctionParametersFromDataDictionary(allRoutines, parameterFilter);
         break;
 
+      case metadata_all:
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving function parameters");
         retrieveFunctionParametersFromMetadata(allRoutines, parameterFilter);
@@ -163,7 +166,7 @@ final class FunctionParameterRetriever extends AbstractRetriever {
       parameter.setNullable(isNullable);
       parameter.setRemarks(remarks);
 
-      parameter.addAttributes(results.getAttributes());
+      addAttributes(parameter, results);
 
       LOGGER.log(Level.FINER, new StringFormat("Adding parameter to function <%s>", parameter));
       function.addParameter(parameter);
@@ -205,8 +208,7 @@ final class FunctionParameterRetriever extends AbstractRetriever {
       throw new SchemaCrawlerSQLException("No function columns SQL provided", null);
     }
     final Query functionColumnsSql = informationSchemaViews.getQuery(FUNCTION_COLUMNS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(functionColumnsSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveFunctionColumnsFromDataDictionary");
@@ -218,32 +220,45 @@ final class FunctionParameterRetriever extends AbstractRetriever {
 
   private void retrieveFunctionParametersFromMetadata(
       final NamedObjectList<MutableRoutine> allRoutines,
-      final InclusionRuleFilter<FunctionParameter> parameterFilter) {
+      final InclusionRuleFilter<FunctionParameter> parameterFilter)
+      throws SQLException {
+    final List<MutableFunction> functions = new ArrayList<>();
     for (final MutableRoutine routine : allRoutines) {
-      if (routine.getRoutineType() != RoutineType.function) {
-        continue;
-      }
-      final MutableFunction function = (MutableFunction) routine;
-
-      LOGGER.log(Level.FINE, "Retrieving function parameters for " + function);
-      try (final MetadataResultSet results =
-          new MetadataResultSet(
-              getMetaData()
-                  .getFunctionColumns(
-                      function.getSchema().getCatalogName(),
-                      function.getSchema().getName(),
-                      function.getName(),
-                      null))) {
-        while (results.next()) {
-          createFunctionParameter(results, allRoutines, parameterFilter);
-        }
-      } catch (final AbstractMethodError | SQLFeatureNotSupportedException e) {
-        logSQLFeatureNotSupported(
-            new StringFormat("Could not retrieve parameters for function %s", function), e);
-      } catch (final SQLException e) {
-        logPossiblyUnsupportedSQLFeature(
-            new StringFormat("Could not retrieve parameters for function %s", function), e);
+      if (routine.getRoutineType() == RoutineType.function) {
+        functions.add((MutableFunction) routine);
       }
     }
+
+    new MetadataFanOut<MutableFunction>(
+            "retrieveFunctionParametersFromMetadata",
+            getRetrieverConnection(),
+            catalog,
+            (metaData, function) -> {
+              LOGGER.log(Level.FINE, "Retrieving function parameters for " + function);
+              try {
+                return metaData.getFunctionColumns(
+                    function.getSchema().getCatalogName(),
+                    function.getSchema().getName(),
+                    function.getName(),
+                    null);
+              } catch (final AbstractMethodError e) {
+                throw new SQLFeatureNotSupportedException(e);
+              }
+            },
+            (function, results) -> {
+              while (results.next()) {
+                createFunctionParameter(results, allRoutines, parameterFilter);
+              }
+            },
+            (function, e) -> {
+              if (e instanceof SQLFeatureNotSupportedException) {
+                logSQLFeatureNotSupported(
+                    new StringFormat("Could not retrieve parameters for function %s", function), e);
+              } else {
+                logPossiblyUnsupportedSQLFeature(
+                    new StringFormat("Could not retrieve parameters for function %s", function), e);
+              }
+            })
+        .retrieve(functions);
   }
 }
@@ -33,9 +33,11 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.INDEXES;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy;
 import static us.fatehi.utility.Utility.isBlank;
 
-import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
@@ -43,6 +45,7 @@ import schemacrawler.SchemaCrawlerLogger;
 import schemacrawler.schema.Column;
 import schemacrawler.schema.IndexColumnSortSequence;
 import schemacrawler.schema.IndexType;
+import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.Schema;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.Query;
@@ -81,6 +84,11 @@ final class IndexRetriever extends AbstractRetriever {
         retrieveIndexesFromMetadata(allTables);
         break;
 
+      case metadata_all:
+        LOGGER.log(Level.INFO, "Retrieving indexes, for all tables in each schema");
+        retrieveIndexesFromMetadataForAllTables(allTables);
+        break;
+
       default:
         LOGGER.log(Level.INFO, "Not retrieving indexes");
         break;
@@ -149,7 +157,6 @@ final class IndexRetriever extends AbstractRetriever {
       index = indexOptional.get();
     } else {
       index = new MutableIndex(table, indexName);
-      table.addIndex(index);
     }
 
     final MutableIndexColumn indexColumn = new MutableIndexColumn(index, column);
@@ -161,7 +168,11 @@ final class IndexRetriever extends AbstractRetriever {
     index.setIndexType(type);
     index.setCardinality(cardinality);
     index.setPages(pages);
-    index.addAttributes(results.getAttributes());
+    addAttributes(index, results);
+
+    // Add the index once its columns are known, since the sort order of
+    // indexes depends on their columns
+    table.addIndex(index);
   }
 
   private void retrieveIndexesFromDataDictionary(final NamedObjectList<MutableTable> allTables)
@@ -175,8 +186,7 @@ final class IndexRetriever extends AbstractRetriever {
     }
 
     final Query indexesSql = informationSchemaViews.getQuery(INDEXES);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(indexesSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveIndexesFromDataDictionary");
@@ -200,28 +210,103 @@ final class IndexRetriever extends AbstractRetriever {
 
   private void retrieveIndexesFromMetadata(final NamedObjectList<MutableTable> allTables)
       throws SQLException {
-    for (final MutableTable table : allTables) {
-      retrieveTableIndexesFromMetadata(table, false);
-      retrieveTableIndexesFromMetadata(table, true);
+    // For each table, all indexes are retrieved before unique indexes
+    final List<MutableTable> tables = allTables.sortedObjects();
+    tableIndexesFromMetadata(false).retrieve(tables);
+    tableIndexesFromMetadata(true).retrieve(tables);
+  }
+
+  private void retrieveIndexesFromMetadataForAllTables(
+      final NamedObjectList<MutableTable> allTables) throws SQLException {
+    for (final Schema schema : getTableSchemas(allTables)) {
+      if (retrieveSchemaIndexesFromMetadata(schema, allTables, false)) {
+        retrieveSchemaIndexesFromMetadata(schema, allTables, true);
+      } else {
+        final List<MutableTable> schemaTables = new ArrayList<>();
+        for (final MutableTable table : allTables) {
+          if (schema.equals(table.getSchema())) {
+            schemaTables.add(table);
+          }
+        }
+        tableIndexesFromMetadata(false).retrieve(schemaTables);
+        tableIndexesFromMetadata(true).retrieve(schemaTables);
+      }
     }
   }
 
-  private void retrieveTableIndexesFromMetadata(final MutableTable table, final boolean unique)
+  /**
+   * Retrieves indexes for all tables in a schema with a single metadata call.
+   *
+   * @return false if the JDBC driver does not support retrieving indexes for all tables, or if it
+   *     returned no indexes
+   */
+  private boolean retrieveSchemaIndexesFromMetadata(
+      final Schema schema, final NamedObjectList<MutableTable> allTables, final boolean unique)
       throws SQLException {
+    final ResultSet resultSet;
+    try {
+      resultSet =
+          getMetaData()
+              .getIndexInfo(
+                  schema.getCatalogName(), schema.getName(), null, unique, true /* approximate */);
+    } catch (final SQLException e) {
+      logPossiblyUnsupportedSQLFeature(
+          new StringFormat(
+              "Could not retrieve indexes for all tables in schema <%s>, "
+                  + "so retrieving them one table at a time",
+              schema),
+          e);
+      return false;
+    }
 
-    final Schema tableSchema = table.getSchema();
-    try (final MetadataResultSet results =
-        new MetadataResultSet(
-            getMetaData()
-                .getIndexInfo(
-                    tableSchema.getCatalogName(),
-                    tableSchema.getName(),
-                    table.getName(),
-                    unique,
-                    true /* approximate */))) {
-      createIndexes(table, results);
+    int rowCount = 0;
+    try (final MetadataResultSet results = new MetadataResultSet(resultSet)) {
+      while (results.next()) {
+        rowCount = rowCount + 1;
+        final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
+        final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
+        final String tableName = results.getString("TABLE_NAME");
+
+        final Optional<MutableTable> optionalTable =
+            allTables.lookup(new NamedObjectKey(catalogName, schemaName, tableName));
+        if (!optionalTable.isPresent()) {
+          continue;
+        }
+        createIndexForTable(optionalTable.get(), results);
+      }
     } catch (final SQLException e) {
-      throw new SchemaCrawlerSQLException("Could not retrieve indexes for table " + table, e);
+      throw new SchemaCrawlerSQLException("Could not retrieve indexes for schema " + schema, e);
+    }
+
+    // Some JDBC drivers return no rows, instead of throwing an
+    // exception, if no table name is provided
+    if (rowCount == 0 && !unique) {
+      LOGGER.log(
+          Level.INFO,
+          new StringFormat(
+              "No indexes were returned for all tables in schema <%s>, "
+                  + "so retrieving them one table at a time",
+              schema));
+      return false;
     }
+    return true;
+  }
+
+  private MetadataFanOut<MutableTable> tableIndexesFromMetadata(final boolean unique) {
+    return new MetadataFanOut<>(
+        "retrieveIndexesFromMetadata",
+        getRetrieverConnection(),
+        catalog,
+        (metaData, table) ->
+            metaData.getIndexInfo(
+                table.getSchema().getCatalogName(),
+                table.getSchema().getName(),
+                table.getName(),
+                unique,
+                true /* approximate */),
+        this::createIndexes,
+        (table, e) -> {
+          throw new SchemaCrawlerSQLException("Could not retrieve indexes for table " + table, e);
+        });
   }
 }
@@ -0,0 +1,223 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+import schemacrawler.SchemaCrawlerLogger;
+import us.fatehi.utility.scheduler.TaskDefinition;
+import us.fatehi.utility.scheduler.TaskDefinition.TaskRunnable;
+import us.fatehi.utility.scheduler.TaskRunner;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Makes a metadata call for each of a number of database objects, such as tables or routines. Calls
+ * are latency bound, so if the retriever connection has a connection pool, calls are made
+ * concurrently on pooled connections. Rows are read from the database concurrently, and then
+ * applied to the catalog while holding a lock on the catalog. Results from every metadata fan-out
+ * on the same catalog, including fan-outs in concurrent phases of a crawl, are applied one at a
+ * time.
+ */
+final class MetadataFanOut<T> {
+
+  @FunctionalInterface
+  interface MetadataCall<T> {
+    ResultSet call(DatabaseMetaData metaData, T object) throws SQLException;
+  }
+
+  @FunctionalInterface
+  interface ResultsHandler<T> {
+    void handle(T object, MetadataResultSet results) throws SQLException;
+  }
+
+  @FunctionalInterface
+  interface ErrorHandler<T> {
+    void handle(T object, SQLException e) throws SQLException;
+  }
+
+  private static final SchemaCrawlerLogger LOGGER =
+      SchemaCrawlerLogger.getLogger(MetadataFanOut.class.getName());
+
+  private final String id;
+  private final RetrieverConnection retrieverConnection;
+  private final MetadataCall<T> metadataCall;
+  private final ResultsHandler<T> resultsHandler;
+  private final ErrorHandler<T> errorHandler;
+  private final MutableCatalog catalog;
+
+  /**
+   * Sets up metadata calls.
+   *
+   * @param id Name of the retrieval, used for logging
+   * @param retrieverConnection Retriever connection, which may have a connection pool
+   * @param catalog Catalog that results are applied to, which is locked while results are applied
+   * @param metadataCall Makes the metadata call for one object
+   * @param resultsHandler Applies the results of the metadata call to the catalog
+   * @param errorHandler Handles an exception from the metadata call, or from applying results
+   */
+  MetadataFanOut(
+      final String id,
+      final RetrieverConnection retrieverConnection,
+      final MutableCatalog catalog,
+      final MetadataCall<T> metadataCall,
+      final ResultsHandler<T> resultsHandler,
+      final ErrorHandler<T> errorHandler) {
+    this.id = requireNonNull(id, "No id provided");
+    this.retrieverConnection =
+        requireNonNull(retrieverConnection, "No retriever connection provided");
+    this.catalog = requireNonNull(catalog, "No catalog provided");
+    this.metadataCall = requireNonNull(metadataCall, "No metadata call provided");
+    this.resultsHandler = requireNonNull(resultsHandler, "No results handler provided");
+    this.errorHandler = requireNonNull(errorHandler, "No error handler provided");
+  }
+
+  /**
+   * Makes the metadata call for each object, and applies the results. The first exception that is
+   * not handled stops further calls, and is thrown once calls that are in progress are complete.
+   *
+   * @param objects Database objects to make calls for
+   * @throws SQLException On an exception that is not handled
+   */
+  void retrieve(final Collection<T> objects) throws SQLException {
+    requireNonNull(objects, "No database objects provided");
+
+    final RetrieverConnectionPool connectionPool = retrieverConnection.getConnectionPool();
+    if (connectionPool == null || objects.size() <= 1) {
+      for (final T object : objects) {
+        retrieve(retrieverConnection.getMetaData(), false, object);
+      }
+      return;
+    }
+    // Borrow as many connections as can be used, in addition to
+    // the retriever connection
+    final List<Connection> borrowedConnections = new ArrayList<>();
+    final int maxBorrowed = Math.min(connectionPool.getMaxConnections(), objects.size() - 1);
+    while (borrowedConnections.size() < maxBorrowed) {
+      final Connection connection = connectionPool.borrow();
+      if (connection == null) {
+        break;
+      }
+      borrowedConnections.add(connection);
+    }
+
+    try {
+      final Queue<T> queue = new ConcurrentLinkedQueue<>(objects);
+      final TaskRunner taskRunner = new TaskRunner(id, borrowedConnections.size() + 1);
+      taskRunner.add(new TaskDefinition(id + "-1", newWorker(retrieverConnection, queue)));
+      for (int i = 0; i < borrowedConnections.size(); i++) {
+        taskRunner.add(
+            new TaskDefinition(
+                String.format("%s-%d", id, i + 2),
+                newWorker(retrieverConnection.forConnection(borrowedConnections.get(i)), queue)));
+      }
+      LOGGER.log(
+          Level.FINE,
+          new StringFormat(
+              "Making <%d> metadata calls for <%s> on <%d> connections",
+              objects.size(), id, borrowedConnections.size() + 1));
+      taskRunner.run();
+    } catch (final SQLException | RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new SQLException(e.getMessage(), e);
+    } finally {
+      for (final Connection connection : borrowedConnections) {
+        connectionPool.giveBack(connection);
+      }
+    }
+  }
+
+  private TaskRunnable newWorker(final RetrieverConnection workerConnection, final Queue<T> queue) {
+    final DatabaseMetaData metaData = workerConnection.getMetaData();
+    final TaskRunnable worker =
+        () -> {
+          T object;
+          while ((object = queue.poll()) != null) {
+            try {
+              retrieve(metaData, true, object);
+            } catch (final Exception e) {
+              // Stop other workers from making further calls
+              queue.clear();
+              throw e;
+            }
+          }
+        };
+    return CrawlTaskMetrics.inCurrentTask(CrawlStringPool.inCurrentPool(worker));
+  }
+
+  /**
+   * Makes the metadata call for one object, and applies the results. When calls are made
+   * concurrently, rows are read into memory before the lock is taken, so that other calls are not
+   * held up while rows are fetched from the database.
+   *
+   * @param metaData Database metadata to make the call on
+   * @param readRows Whether to read rows into memory before applying them, or to apply rows as they
+   *     are read
+   * @param object Database object to make the call for
+   * @throws SQLException On an exception that is not handled
+   */
+  private void retrieve(final DatabaseMetaData metaData, final boolean readRows, final T object)
+      throws SQLException {
+    try {
+      if (readRows) {
+        final MetadataResultSet rows;
+        try (final ResultSet resultSet = metadataCall.call(metaData, object);
+            final MetadataResultSet results = new MetadataResultSet(resultSet)) {
+          rows = results.readRows();
+        }
+        synchronized (catalog) {
+          try (final MetadataResultSet results = rows) {
+            resultsHandler.handle(object, results);
+          }
+        }
+      } else {
+        try (final ResultSet resultSet = metadataCall.call(metaData, object);
+            final MetadataResultSet results = new MetadataResultSet(resultSet)) {
+          synchronized (catalog) {
+            resultsHandler.handle(object, results);
+          }
+        }
+      }
+    } catch (final SQLException e) {
+      synchronized (catalog) {
+        errorHandler.handle(object, e);
+      }
+    }
+  }
+}
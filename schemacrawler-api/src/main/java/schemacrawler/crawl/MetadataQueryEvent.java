@@ -0,0 +1,94 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event for a metadata result set, from the time that the data dictionary
+ * query is executed, or the database metadata results are received, to the time that the results
+ * are closed. This class can only be loaded if Java Flight Recorder is available, so callers need
+ * to check for it first.
+ */
+@Name("schemacrawler.MetadataQuery")
+@Label("Metadata Query")
+@Category("SchemaCrawler")
+@Description("A database metadata call or data dictionary query, and the rows read from it")
+final class MetadataQueryEvent extends Event {
+
+  // Checked before each query, so that no event is created when the event is not enabled
+  private static final EventType EVENT_TYPE = EventType.getEventType(MetadataQueryEvent.class);
+
+  /**
+   * Begins an event, if the event is enabled in the recording settings.
+   *
+   * @param sql Data dictionary query, or null for database metadata calls
+   * @return Event, or null if the event is not enabled
+   */
+  static MetadataQueryEvent beginQuery(final String sql) {
+    if (!EVENT_TYPE.isEnabled()) {
+      return null;
+    }
+    final MetadataQueryEvent event = new MetadataQueryEvent();
+    event.sql = sql;
+    event.startNanoTime = System.nanoTime();
+    event.begin();
+    return event;
+  }
+
+  @Label("Query Name")
+  String queryName;
+
+  @Label("SQL")
+  String sql;
+
+  @Label("Time to First Row")
+  @Timespan(Timespan.NANOSECONDS)
+  long timeToFirstRow;
+
+  @Label("Rows")
+  long rowCount;
+
+  private transient long startNanoTime;
+
+  void endQuery(final String queryName, final long rowCount) {
+    this.queryName = queryName;
+    this.rowCount = rowCount;
+    commit();
+  }
+
+  void firstRow() {
+    timeToFirstRow = System.nanoTime() - startNanoTime;
+  }
+}
@@ -41,20 +41,23 @@ import static schemacrawler.utility.EnumUtility.enumValueFromId;
 import static us.fatehi.utility.DatabaseUtility.logSQLWarnings;
 import static us.fatehi.utility.IOUtility.readFully;
 import static us.fatehi.utility.Utility.isBlank;
+import static us.fatehi.utility.Utility.isClassAvailable;
 import static us.fatehi.utility.Utility.isIntegral;
 
 import java.io.Reader;
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
 
@@ -80,31 +83,101 @@ public final class MetadataResultSet implements AutoCloseable {
       SchemaCrawlerLogger.getLogger(MetadataResultSet.class.getName());
 
   private static final int FETCHSIZE = 20;
+  private static final String[] IDENTIFIER_COLUMN_SUFFIXES = {
+    "_CAT", "_CATALOG", "_SCHEM", "_SCHEMA", "_NAME", "_TYPE"
+  };
+
+  private static final boolean isFlightRecorderAvailable = isClassAvailable("jdk.jfr.Event");
+
+  private static MetadataQueryEvent beginQueryEvent(final String sql) {
+    if (isFlightRecorderAvailable) {
+      return MetadataQueryEvent.beginQuery(sql);
+    } else {
+      return null;
+    }
+  }
+
+  private static Statement withFetchSize(final Query query, final Statement statement) {
+    requireNonNull(query, "No query provided");
+    final int fetchSize = query.getFetchSize();
+    if (statement != null && fetchSize > 0) {
+      try {
+        statement.setFetchSize(fetchSize);
+      } catch (final SQLException e) {
+        LOGGER.log(
+            Level.WARNING, new StringFormat("Could not set fetch size to <%d>", fetchSize), e);
+      }
+    }
+    return statement;
+  }
 
   private final ResultsColumns resultsColumns;
+  private final Map<String, ResultsColumn> resultsColumnsMap;
+  // Null when rows have been read into memory
   private final ResultSet results;
+  // Rows read into memory, with values by ordinal position, or null when reading from results
+  private final Iterator<Object[]> bufferedRows;
+  private final BitSet readColumns;
+  private Object[] currentRow;
   private String description;
-  private Set<ResultsColumn> readColumns;
+  private MetadataQueryEvent queryEvent;
   private int rowCount;
   private boolean showLobs;
 
+  /**
+   * Executes a data dictionary query. The fetch size is the one set on the query, or otherwise the
+   * one already set on the statement.
+   *
+   * @param query Data dictionary query
+   * @param statement Statement to execute the query with
+   * @param schemaInclusionRule Schema inclusion rule for the query
+   * @throws SQLException On an exception
+   */
   public MetadataResultSet(
       final Query query, final Statement statement, final InclusionRule schemaInclusionRule)
       throws SQLException {
-    this(executeAgainstSchema(query, statement, schemaInclusionRule));
+    // Begin the flight recorder event before the query is executed
+    this(
+        beginQueryEvent(requireNonNull(query, "No query provided").getQuery()),
+        executeAgainstSchema(query, withFetchSize(query, statement), schemaInclusionRule),
+        false);
     description = query.getName();
   }
 
   public MetadataResultSet(final ResultSet resultSet) throws SQLException {
+    this(beginQueryEvent(null), resultSet, true);
+  }
+
+  private MetadataResultSet(
+      final MetadataQueryEvent queryEvent, final ResultSet resultSet, final boolean setFetchSize)
+      throws SQLException {
+    this.queryEvent = queryEvent;
     results = requireNonNull(resultSet, "Cannot use null results");
-    try {
-      results.setFetchSize(FETCHSIZE);
-    } catch (final NullPointerException | SQLException e) {
-      LOGGER.log(Level.WARNING, "Could not set fetch size", e);
+    bufferedRows = null;
+    CrawlTaskMetrics.recordJdbcCall();
+    if (setFetchSize) {
+      try {
+        results.setFetchSize(FETCHSIZE);
+      } catch (final NullPointerException | SQLException e) {
+        LOGGER.log(Level.WARNING, "Could not set fetch size", e);
+      }
     }
 
     resultsColumns = new ResultsCrawler(results).crawl();
-    readColumns = new HashSet<>();
+    resultsColumnsMap = mapResultsColumns(resultsColumns);
+    readColumns = new BitSet();
+    showLobs = true;
+  }
+
+  private MetadataResultSet(
+      final ResultsColumns resultsColumns,
+      final Map<String, ResultsColumn> resultsColumnsMap,
+      final List<Object[]> rows) {
+    results = null;
+    bufferedRows = rows.iterator();
+    this.resultsColumns = resultsColumns;
+    this.resultsColumnsMap = resultsColumnsMap;
+    readColumns = new BitSet();
     showLobs = true;
   }
 
@@ -116,7 +189,17 @@ public final class MetadataResultSet implements AutoCloseable {
    */
   @Override
   public void close() throws SQLException {
-    results.close();
+    if (results == null) {
+      // Rows were counted when they were read into memory
+      currentRow = null;
+    } else {
+      results.close();
+      CrawlTaskMetrics.recordRows(rowCount);
+    }
+    if (queryEvent != null) {
+      queryEvent.endQuery(description, rowCount);
+      queryEvent = null;
+    }
 
     if (LOGGER.isLoggable(Level.INFO) && !isBlank(description)) {
       LOGGER.log(Level.INFO, new StringFormat("Processed %d rows for <%s>", rowCount, description));
@@ -130,11 +213,26 @@ public final class MetadataResultSet implements AutoCloseable {
    * @return Map of additional attributes to the database object
    */
   public Map<String, Object> getAttributes() {
+    return getAttributes(Collections.emptySet());
+  }
+
+  /**
+   * Gets unread (and therefore unmapped) columns from the database metadata resultset, but only if
+   * they are in the allowlist, and makes them available as additional attributes.
+   *
+   * @param allowlist Upper case names of columns to return, or an empty set for all columns
+   * @return Map of additional attributes to the database object
+   */
+  public Map<String, Object> getAttributes(final Set<String> allowlist) {
+    requireNonNull(allowlist, "No allowlist provided");
     final Map<String, Object> attributes = new HashMap<>();
     for (final ResultsColumn resultsColumn : resultsColumns) {
-      if (!readColumns.contains(resultsColumn)) {
+      if (!readColumns.get(resultsColumn.getOrdinalPosition())) {
+        final String key = AttributeMap.shareName(resultsColumn.getLabel().toUpperCase());
+        if (!allowlist.isEmpty() && !allowlist.contains(key)) {
+          continue;
+        }
         try {
-          final String key = resultsColumn.getLabel().toUpperCase();
           final Object value = getColumnData(resultsColumn);
           attributes.put(key, value);
         } catch (final SQLException | ArrayIndexOutOfBoundsException e) {
@@ -178,11 +276,12 @@ public final class MetadataResultSet implements AutoCloseable {
    * @return Whether the string evaluates to true
    */
   public boolean getBoolean(final String columnName) {
-    if (useColumn(columnName)) {
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0) {
       try {
-        final Object booleanValue = results.getObject(columnName);
+        final Object booleanValue = getObject(columnIndex);
         final String stringBooleanValue;
-        if (results.wasNull() || booleanValue == null) {
+        if (booleanValue == null) {
           LOGGER.log(
               Level.FINER,
               new StringFormat("NULL value for column <%s>, so evaluating to 'false'", columnName));
@@ -266,10 +365,21 @@ public final class MetadataResultSet implements AutoCloseable {
    */
   public int getInt(final String columnName, final int defaultValue) {
     int value = defaultValue;
-    if (useColumn(columnName)) {
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0) {
       try {
-        value = results.getInt(columnName);
-        if (results.wasNull()) {
+        final boolean wasNull;
+        if (results == null) {
+          final Number number = readNumber(columnIndex);
+          wasNull = number == null;
+          if (!wasNull) {
+            value = number.intValue();
+          }
+        } else {
+          value = results.getInt(columnIndex);
+          wasNull = results.wasNull();
+        }
+        if (wasNull) {
           LOGGER.log(
               Level.FINER,
               new StringFormat(
@@ -296,10 +406,21 @@ public final class MetadataResultSet implements AutoCloseable {
    */
   public long getLong(final String columnName, final long defaultValue) {
     long value = defaultValue;
-    if (useColumn(columnName)) {
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0) {
       try {
-        value = results.getLong(columnName);
-        if (results.wasNull()) {
+        final boolean wasNull;
+        if (results == null) {
+          final Number number = readNumber(columnIndex);
+          wasNull = number == null;
+          if (!wasNull) {
+            value = number.longValue();
+          }
+        } else {
+          value = results.getLong(columnIndex);
+          wasNull = results.wasNull();
+        }
+        if (wasNull) {
           LOGGER.log(
               Level.FINER,
               new StringFormat(
@@ -327,10 +448,21 @@ public final class MetadataResultSet implements AutoCloseable {
    */
   public short getShort(final String columnName, final short defaultValue) {
     short value = defaultValue;
-    if (useColumn(columnName)) {
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0) {
       try {
-        value = results.getShort(columnName);
-        if (results.wasNull()) {
+        final boolean wasNull;
+        if (results == null) {
+          final Number number = readNumber(columnIndex);
+          wasNull = number == null;
+          if (!wasNull) {
+            value = number.shortValue();
+          }
+        } else {
+          value = results.getShort(columnIndex);
+          wasNull = results.wasNull();
+        }
+        if (wasNull) {
           LOGGER.log(
               Level.FINER,
               new StringFormat(
@@ -356,15 +488,20 @@ public final class MetadataResultSet implements AutoCloseable {
    */
   public String getString(final String columnName) {
     String value = null;
-    if (useColumn(columnName)) {
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0) {
       try {
-        value = results.getString(columnName);
-        if (results.wasNull()) {
-          value = null;
+        if (results == null) {
+          final Object readValue = currentRow()[columnIndex - 1];
+          value = readValue == null ? null : String.valueOf(readValue);
+        } else {
+          value = results.getString(columnIndex);
         }
-
         if (value != null) {
           value = value.trim();
+          if (isIdentifierColumn(columnName)) {
+            value = CrawlStringPool.intern(value);
+          }
         }
       } catch (final SQLException e) {
         LOGGER.log(
@@ -386,11 +523,24 @@ public final class MetadataResultSet implements AutoCloseable {
    * @throws SQLException On a database access error
    */
   public boolean next() throws SQLException {
-    readColumns = new HashSet<>();
+    readColumns.clear();
+
+    if (results == null) {
+      if (bufferedRows.hasNext()) {
+        currentRow = bufferedRows.next();
+        rowCount = rowCount + 1;
+        return true;
+      }
+      currentRow = null;
+      return false;
+    }
 
     final boolean next = results.next();
     logSQLWarnings(results);
     if (next) {
+      if (rowCount == 0 && queryEvent != null) {
+        queryEvent.firstRow();
+      }
       rowCount = rowCount + 1;
     }
     return next;
@@ -405,6 +555,34 @@ public final class MetadataResultSet implements AutoCloseable {
     return currentRow;
   }
 
+  /**
+   * Reads all remaining rows into memory, and closes this result set. Values are read the same way
+   * as for additional attributes, so large objects are read fully, and binary data is not read.
+   * This allows the rows to be processed later, without holding on to a database connection.
+   *
+   * @return Result set over rows read into memory
+   * @throws SQLException On an exception
+   */
+  MetadataResultSet readRows() throws SQLException {
+    final List<ResultsColumn> columns = resultsColumns.getColumns();
+    final List<Object[]> rows = new ArrayList<>();
+    try {
+      while (next()) {
+        final Object[] row = new Object[columns.size()];
+        for (final ResultsColumn resultsColumn : columns) {
+          row[resultsColumn.getOrdinalPosition() - 1] = getColumnData(resultsColumn);
+        }
+        rows.add(row);
+      }
+    } finally {
+      close();
+    }
+    final MetadataResultSet readResults =
+        new MetadataResultSet(resultsColumns, resultsColumnsMap, rows);
+    readResults.description = description;
+    return readResults;
+  }
+
   public void setDescription(final String description) {
     this.description = description;
   }
@@ -414,6 +592,10 @@ public final class MetadataResultSet implements AutoCloseable {
   }
 
   private Object getColumnData(final ResultsColumn resultsColumn) throws SQLException {
+    if (results == null) {
+      return currentRow()[resultsColumn.getOrdinalPosition() - 1];
+    }
+
     final int javaSqlType =
         resultsColumn.getColumnDataType().getJavaSqlType().getVendorTypeNumber();
     final int ordinalPosition = resultsColumn.getOrdinalPosition();
@@ -452,6 +634,59 @@ public final class MetadataResultSet implements AutoCloseable {
     return columnData;
   }
 
+  private Object[] currentRow() throws SQLException {
+    if (currentRow == null) {
+      throw new SQLException("Not positioned on a row");
+    }
+    return currentRow;
+  }
+
+  private Object getObject(final int columnIndex) throws SQLException {
+    if (results == null) {
+      return currentRow()[columnIndex - 1];
+    }
+    return results.getObject(columnIndex);
+  }
+
+  private Map<String, ResultsColumn> mapResultsColumns(final ResultsColumns resultsColumns) {
+    // Resolve column names once, with the same precedence as a lookup by name, full name or label
+    final Map<String, ResultsColumn> resultsColumnsMap = new HashMap<>();
+    for (final ResultsColumn resultsColumn : resultsColumns) {
+      for (final String name :
+          new String[] {
+            resultsColumn.getLabel(), resultsColumn.getFullName(), resultsColumn.getName()
+          }) {
+        if (name != null) {
+          resultsColumnsMap.putIfAbsent(name.toUpperCase(Locale.ENGLISH), resultsColumn);
+        }
+      }
+    }
+    return resultsColumnsMap;
+  }
+
+  /**
+   * Reads a value from a row that was read into memory as a number, in the same way that a JDBC
+   * driver would convert the value.
+   *
+   * @param columnIndex Column ordinal position
+   * @return Number, or null if the value was null
+   * @throws SQLException If the value cannot be converted to a number
+   */
+  private Number readNumber(final int columnIndex) throws SQLException {
+    final Object value = currentRow()[columnIndex - 1];
+    if (value == null || value instanceof Number) {
+      return (Number) value;
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value ? 1 : 0;
+    }
+    try {
+      return new BigDecimal(String.valueOf(value).trim());
+    } catch (final NumberFormatException e) {
+      throw new SQLException(String.format("Not a number, %s", value), e);
+    }
+  }
+
   private Object readCharacterData(final Reader reader) {
     try {
       if (reader != null && showLobs) {
@@ -465,9 +700,37 @@ public final class MetadataResultSet implements AutoCloseable {
     return new BinaryData();
   }
 
-  private boolean useColumn(final String columnName) {
-    final Optional<ResultsColumn> optionalResultsColumn = resultsColumns.lookupColumn(columnName);
-    optionalResultsColumn.ifPresent(readColumns::add);
-    return optionalResultsColumn.isPresent();
+  /**
+   * Marks a column as read, so that it is not also returned as an additional attribute.
+   *
+   * @param columnName Column name, full name or label
+   * @return Column ordinal position, or 0 if the column is not in the results
+   */
+  private int useColumn(final String columnName) {
+    if (columnName == null) {
+      return 0;
+    }
+    final ResultsColumn resultsColumn =
+        resultsColumnsMap.get(columnName.toUpperCase(Locale.ENGLISH));
+    if (resultsColumn == null) {
+      return 0;
+    }
+    final int ordinalPosition = resultsColumn.getOrdinalPosition();
+    readColumns.set(ordinalPosition);
+    return ordinalPosition;
+  }
+
+  /**
+   * Identifier columns, such as TABLE_CAT, TABLE_SCHEM, TABLE_NAME or TYPE_NAME, have values that
+   * repeat across many rows, so these values are pooled.
+   */
+  private boolean isIdentifierColumn(final String columnName) {
+    for (final String suffix : IDENTIFIER_COLUMN_SUFFIXES) {
+      if (columnName.regionMatches(
+          true, columnName.length() - suffix.length(), suffix, 0, suffix.length())) {
+        return true;
+      }
+    }
+    return false;
   }
 }
@@ -29,11 +29,20 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.crawl.NamedObjectList.valuesOf;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Column;
@@ -59,17 +68,66 @@ import schemacrawler.schemacrawler.SchemaReference;
  */
 final class MutableCatalog extends AbstractNamedObjectWithAttributes implements Catalog {
 
-  private static final class FilterBySchema implements Predicate<DatabaseObject> {
+  /**
+   * Groups database objects by schema. The groups are built from a sorted snapshot of a named
+   * object list, and built again only when the list changes. Groups are published as a whole, so
+   * lookups do not need to be synchronized.
+   */
+  private static final class SchemaIndex<D extends DatabaseObject> {
+
+    private static final class Groups<D extends DatabaseObject> {
+
+      private final List<D> indexedObjects;
+      private final Map<Schema, List<D>> objectsBySchema;
+
+      Groups(final List<D> indexedObjects) {
+        this.indexedObjects = indexedObjects;
+        final Map<Schema, List<D>> groups = new HashMap<>();
+        for (final D databaseObject : indexedObjects) {
+          groups
+              .computeIfAbsent(databaseObject.getSchema(), key -> new ArrayList<>())
+              .add(databaseObject);
+        }
+        objectsBySchema = new HashMap<>();
+        for (final Map.Entry<Schema, List<D>> group : groups.entrySet()) {
+          objectsBySchema.put(group.getKey(), Collections.unmodifiableList(group.getValue()));
+        }
+      }
+    }
+
+    private final NamedObjectList<D> namedObjects;
+    private volatile Groups<D> groups;
 
-    private final Schema schema;
+    SchemaIndex(final NamedObjectList<D> namedObjects) {
+      this.namedObjects = namedObjects;
+    }
 
-    public FilterBySchema(final Schema schema) {
-      this.schema = requireNonNull(schema, "No schema provided");
+    boolean isFrozen() {
+      return namedObjects.isFrozen();
     }
 
-    @Override
-    public boolean test(final DatabaseObject databaseObject) {
-      return databaseObject != null && databaseObject.getSchema().equals(schema);
+    List<D> lookup(final Schema schema) {
+      requireNonNull(schema, "No schema provided");
+      final List<D> sortedObjects = namedObjects.sortedObjects();
+      Groups<D> current = groups;
+      if (current == null || current.indexedObjects != sortedObjects) {
+        current = new Groups<>(sortedObjects);
+        groups = current;
+      }
+      return current.objectsBySchema.getOrDefault(schema, Collections.emptyList());
+    }
+  }
+
+  /**
+   * Gets database objects in a schema. If the catalog is frozen, an unmodifiable view is returned
+   * without copying, otherwise a copy is returned.
+   */
+  private static <T> Collection<T> lookupBySchema(
+      final SchemaIndex<? extends T> schemaIndex, final Schema schema) {
+    if (schemaIndex.isFrozen()) {
+      return Collections.unmodifiableList(schemaIndex.lookup(schema));
+    } else {
+      return new ArrayList<>(schemaIndex.lookup(schema));
     }
   }
 
@@ -85,31 +143,84 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
   private final NamedObjectList<MutableTable> tables = new NamedObjectList<>();
   private final NamedObjectList<ImmutableDatabaseUser> databaseUsers = new NamedObjectList<>();
   private final MutableCrawlInfo crawlInfo;
+  private transient SchemaIndex<MutableColumnDataType> columnDataTypesBySchema;
+  private transient SchemaIndex<MutableRoutine> routinesBySchema;
+  private transient SchemaIndex<MutableSequence> sequencesBySchema;
+  private transient SchemaIndex<MutableSynonym> synonymsBySchema;
+  private transient SchemaIndex<MutableTable> tablesBySchema;
+  private transient volatile boolean frozen;
+  // Column data types resolved by name, and then by schema, which are discarded when a column data
+  // type with the same name is added
+  private transient Map<String, Map<Schema, MutableColumnDataType>> resolvedColumnDataTypes;
+  // Tables copied from a previously crawled catalog, whose details are not
+  // retrieved again while tables are being crawled
+  private transient volatile Set<MutableTable> reusedTables;
 
   MutableCatalog(final String name) {
     super(name);
     databaseInfo = new MutableDatabaseInfo();
     jdbcDriverInfo = new MutableJdbcDriverInfo();
     crawlInfo = new MutableCrawlInfo();
+    createSchemaIndexes();
+    resolvedColumnDataTypes = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Freezes the catalog, and all the tables and routines in it. Table details that are loaded
+   * lazily are retrieved first. Once frozen, getters return unmodifiable views of the sorted
+   * objects without copying them, and the catalog can be shared between threads. Attributes of the
+   * catalog and the database objects in it can no longer be changed, other than those of schemas.
+   */
+  @Override
+  public synchronized void freeze() {
+    if (frozen) {
+      return;
+    }
+
+    for (final MutableTable table : tables) {
+      table.loadTableInformation();
+    }
+    for (final MutableTable table : tables) {
+      table.freeze();
+    }
+    for (final MutableRoutine routine : routines) {
+      routine.freeze();
+    }
+    for (final MutableColumnDataType columnDataType : columnDataTypes) {
+      columnDataType.freezeAttributes();
+    }
+    for (final ImmutableDatabaseUser databaseUser : databaseUsers) {
+      databaseUser.freezeAttributes();
+    }
+    for (final MutableSequence sequence : sequences) {
+      sequence.freezeAttributes();
+    }
+    for (final MutableSynonym synonym : synonyms) {
+      synonym.freezeAttributes();
+    }
+    freezeAttributes();
+
+    columnDataTypes.freeze();
+    databaseUsers.freeze();
+    routines.freeze();
+    schemas.freeze();
+    sequences.freeze();
+    synonyms.freeze();
+    tables.freeze();
+
+    frozen = true;
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<ColumnDataType> getColumnDataTypes() {
-    return new ArrayList<>(columnDataTypes.values());
+    return valuesOf(columnDataTypes);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<ColumnDataType> getColumnDataTypes(final Schema schema) {
-    final FilterBySchema filter = new FilterBySchema(schema);
-    final Collection<ColumnDataType> columnDataTypes = new ArrayList<>();
-    for (final ColumnDataType columnDataType : this.columnDataTypes) {
-      if (filter.test(columnDataType)) {
-        columnDataTypes.add(columnDataType);
-      }
-    }
-    return columnDataTypes;
+    return lookupBySchema(columnDataTypesBySchema, schema);
   }
 
   @Override
@@ -125,7 +236,7 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
   /** {@inheritDoc} */
   @Override
   public Collection<DatabaseUser> getDatabaseUsers() {
-    return new ArrayList<>(databaseUsers.values());
+    return valuesOf(databaseUsers);
   }
 
   /** {@inheritDoc} */
@@ -137,64 +248,43 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
   /** {@inheritDoc} */
   @Override
   public Collection<Routine> getRoutines() {
-    return new ArrayList<>(routines.values());
+    return valuesOf(routines);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Routine> getRoutines(final Schema schema) {
-    final FilterBySchema filter = new FilterBySchema(schema);
-    final Collection<Routine> routines = new ArrayList<>();
-    for (final Routine routine : this.routines) {
-      if (filter.test(routine)) {
-        routines.add(routine);
-      }
-    }
-    return routines;
+    return lookupBySchema(routinesBySchema, schema);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Schema> getSchemas() {
-    return new ArrayList<>(schemas.values());
+    return valuesOf(schemas);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Sequence> getSequences() {
-    return new ArrayList<>(sequences.values());
+    return valuesOf(sequences);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Sequence> getSequences(final Schema schema) {
-    final FilterBySchema filter = new FilterBySchema(schema);
-    final Collection<Sequence> sequences = new ArrayList<>();
-    for (final Sequence sequence : this.sequences) {
-      if (filter.test(sequence)) {
-        sequences.add(sequence);
-      }
-    }
-    return sequences;
+    return lookupBySchema(sequencesBySchema, schema);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Synonym> getSynonyms() {
-    return new ArrayList<>(synonyms.values());
+    return valuesOf(synonyms);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Synonym> getSynonyms(final Schema schema) {
-    final FilterBySchema filter = new FilterBySchema(schema);
-    final Collection<Synonym> synonyms = new ArrayList<>();
-    for (final Synonym synonym : this.synonyms) {
-      if (filter.test(synonym)) {
-        synonyms.add(synonym);
-      }
-    }
-    return synonyms;
+    return lookupBySchema(synonymsBySchema, schema);
   }
 
   /** {@inheritDoc} */
@@ -206,20 +296,19 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
   /** {@inheritDoc} */
   @Override
   public Collection<Table> getTables() {
-    return new ArrayList<>(tables.values());
+    return valuesOf(tables);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Table> getTables(final Schema schema) {
-    final FilterBySchema filter = new FilterBySchema(schema);
-    final Collection<Table> tables = new ArrayList<>();
-    for (final Table table : this.tables) {
-      if (filter.test(table)) {
-        tables.add(table);
-      }
-    }
-    return tables;
+    return lookupBySchema(tablesBySchema, schema);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isFrozen() {
+    return frozen;
   }
 
   /** {@inheritDoc} */
@@ -312,6 +401,10 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
   void addColumnDataType(final MutableColumnDataType columnDataType) {
     if (columnDataType != null) {
       columnDataTypes.add(columnDataType);
+      final String name = columnDataType.getName();
+      if (name != null) {
+        resolvedColumnDataTypes.remove(name);
+      }
     }
   }
 
@@ -329,7 +422,9 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
   }
 
   Schema addSchema(final String catalogName, final String schemaName) {
-    return addSchema(new SchemaReference(catalogName, schemaName));
+    return addSchema(
+        new SchemaReference(
+            CrawlStringPool.intern(catalogName), CrawlStringPool.intern(schemaName)));
   }
 
   void addSequence(final MutableSequence sequence) {
@@ -344,6 +439,72 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
     tables.add(table);
   }
 
+  /**
+   * Adds all the column data types, tables and routines from a catalog that was crawled for a
+   * subset of schemas.
+   *
+   * @param partialCatalog Partial catalog
+   */
+  void merge(final MutableCatalog partialCatalog) {
+    requireNonNull(partialCatalog, "No catalog provided");
+    for (final MutableColumnDataType columnDataType : partialCatalog.columnDataTypes) {
+      addColumnDataType(columnDataType);
+    }
+    for (final MutableTable table : partialCatalog.tables) {
+      tables.add(table);
+    }
+    for (final MutableRoutine routine : partialCatalog.routines) {
+      routines.add(routine);
+    }
+  }
+
+  /**
+   * Adds tables that were copied from a previously crawled catalog, replacing tables with the same
+   * names. The details of reused tables are not retrieved again, until reuse is cleared.
+   *
+   * @param tables Tables copied from a previously crawled catalog
+   */
+  void reuseTables(final Collection<MutableTable> tables) {
+    requireNonNull(tables, "No tables provided");
+    final Set<MutableTable> reused = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (final MutableTable table : tables) {
+      this.tables.add(table);
+      reused.add(table);
+      // Columns use the column data types of this catalog, and
+      // user-defined data types are added if they are not known yet
+      final List<Column> columns = new ArrayList<>(table.getAllColumns().values());
+      columns.addAll(table.getHiddenColumns());
+      for (final Column column : columns) {
+        final ColumnDataType columnDataType = column.getColumnDataType();
+        final Optional<MutableColumnDataType> knownColumnDataType =
+            lookupColumnDataType(columnDataType.getSchema(), columnDataType.getName());
+        if (knownColumnDataType.isPresent()) {
+          ((MutableColumn) column).setColumnDataType(knownColumnDataType.get());
+        } else if (columnDataType instanceof MutableColumnDataType) {
+          addColumnDataType((MutableColumnDataType) columnDataType);
+        }
+      }
+    }
+    reusedTables = reused;
+  }
+
+  /** Clears reused tables, once table details have been crawled. */
+  void clearReusedTables() {
+    reusedTables = null;
+  }
+
+  /**
+   * Checks whether a table was copied from a previously crawled catalog, and its details are not
+   * being retrieved again.
+   *
+   * @param table Table to check
+   * @return Whether the table is reused
+   */
+  boolean isReusedTable(final Table table) {
+    final Set<MutableTable> reused = reusedTables;
+    return reused != null && reused.contains(table);
+  }
+
   NamedObjectList<MutableRoutine> getAllRoutines() {
     return routines;
   }
@@ -383,7 +544,62 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
     return tables.lookup(tableLookupKey);
   }
 
+  /**
+   * Resolves a column data type by name, first in the schema, and then in the system schema. The
+   * same data types are resolved for every column, so resolved data types are remembered, until a
+   * data type with the same name is added to the catalog.
+   *
+   * @param schema Schema to look in first
+   * @param name Database specific type name
+   * @return Column data type, if found
+   */
+  Optional<MutableColumnDataType> resolveColumnDataType(final Schema schema, final String name) {
+    if (schema == null || name == null) {
+      return lookupUnresolvedColumnDataType(schema, name);
+    }
+
+    final Map<Schema, MutableColumnDataType> resolvedBySchema = resolvedColumnDataTypes.get(name);
+    if (resolvedBySchema != null) {
+      final MutableColumnDataType columnDataType = resolvedBySchema.get(schema);
+      if (columnDataType != null) {
+        return Optional.of(columnDataType);
+      }
+    }
+
+    final Optional<MutableColumnDataType> optionalColumnDataType =
+        lookupUnresolvedColumnDataType(schema, name);
+    optionalColumnDataType.ifPresent(
+        columnDataType ->
+            resolvedColumnDataTypes
+                .computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+                .put(schema, columnDataType));
+    return optionalColumnDataType;
+  }
+
   void setCrawlInfo() {
     crawlInfo.setDatabaseInfo(jdbcDriverInfo, databaseInfo);
   }
+
+  private void createSchemaIndexes() {
+    columnDataTypesBySchema = new SchemaIndex<>(columnDataTypes);
+    routinesBySchema = new SchemaIndex<>(routines);
+    sequencesBySchema = new SchemaIndex<>(sequences);
+    synonymsBySchema = new SchemaIndex<>(synonyms);
+    tablesBySchema = new SchemaIndex<>(tables);
+  }
+
+  private Optional<MutableColumnDataType> lookupUnresolvedColumnDataType(
+      final Schema schema, final String name) {
+    final Optional<MutableColumnDataType> columnDataType = lookupColumnDataType(schema, name);
+    if (columnDataType.isPresent()) {
+      return columnDataType;
+    }
+    return lookupSystemColumnDataType(name);
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    createSchemaIndexes();
+    resolvedColumnDataTypes = new ConcurrentHashMap<>();
+  }
 }
@@ -77,7 +77,7 @@ final class MutableColumnDataType extends AbstractDatabaseObject implements Colu
   private long precision;
   private SearchableType searchable;
   private boolean unsigned;
-  private List<String> enumValues;
+  private volatile List<String> enumValues;
 
   MutableColumnDataType(final ColumnDataType columnDataType) {
     this(columnDataType.getSchema(), columnDataType.getName(), columnDataType.getType());
@@ -276,7 +276,7 @@ final class MutableColumnDataType extends AbstractDatabaseObject implements Colu
     if (enumValues == null) {
       this.enumValues = new ArrayList<>();
     } else {
-      this.enumValues = enumValues;
+      this.enumValues = new ArrayList<>(enumValues);
     }
   }
 
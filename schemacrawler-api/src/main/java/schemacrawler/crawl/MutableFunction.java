@@ -29,8 +29,8 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.crawl.NamedObjectList.valuesOf;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,7 +61,7 @@ final class MutableFunction extends MutableRoutine implements Function {
   /** {@inheritDoc} */
   @Override
   public List<FunctionParameter> getParameters() {
-    return new ArrayList<>(columns.values());
+    return valuesOf(columns);
   }
 
   /** {@inheritDoc} */
@@ -85,6 +85,15 @@ final class MutableFunction extends MutableRoutine implements Function {
     columns.add(column);
   }
 
+  @Override
+  void freeze() {
+    freezeAttributes();
+    for (final MutableFunctionParameter column : columns) {
+      column.freezeAttributes();
+    }
+    columns.freeze();
+  }
+
   void setReturnType(final FunctionReturnType returnType) {
     this.returnType = requireNonNull(returnType, "Null function return type");
   }
@@ -29,8 +29,8 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.crawl.NamedObjectList.valuesOf;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -114,7 +114,7 @@ class MutableIndex extends AbstractDependantObject<Table> implements Index {
   /** {@inheritDoc} */
   @Override
   public final List<IndexColumn> getColumns() {
-    return new ArrayList<>(columns.values());
+    return valuesOf(columns);
   }
 
   /** {@inheritDoc} */
@@ -175,6 +175,14 @@ class MutableIndex extends AbstractDependantObject<Table> implements Index {
     }
   }
 
+  void freeze() {
+    freezeAttributes();
+    for (final MutableIndexColumn column : columns) {
+      column.freezeAttributes();
+    }
+    columns.freeze();
+  }
+
   final void setCardinality(final int cardinality) {
     this.cardinality = cardinality;
   }
@@ -29,8 +29,8 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.crawl.NamedObjectList.valuesOf;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,7 +60,7 @@ final class MutableProcedure extends MutableRoutine implements Procedure {
   /** {@inheritDoc} */
   @Override
   public List<ProcedureParameter> getParameters() {
-    return new ArrayList<>(columns.values());
+    return valuesOf(columns);
   }
 
   /** {@inheritDoc} */
@@ -84,6 +84,15 @@ final class MutableProcedure extends MutableRoutine implements Procedure {
     columns.add(column);
   }
 
+  @Override
+  void freeze() {
+    freezeAttributes();
+    for (final MutableProcedureParameter column : columns) {
+      column.freezeAttributes();
+    }
+    columns.freeze();
+  }
+
   void setReturnType(final ProcedureReturnType returnType) {
     this.returnType = requireNonNull(returnType, "Null procedure return type");
   }
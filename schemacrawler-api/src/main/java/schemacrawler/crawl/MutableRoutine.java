@@ -132,6 +132,9 @@ abstract class MutableRoutine extends AbstractDatabaseObject implements Routine
     return key;
   }
 
+  /** Freezes the routine and its parameters, so that they cannot be changed. */
+  abstract void freeze();
+
   final void appendDefinition(final String definition) {
     if (definition != null) {
       this.definition.append(definition);
@@ -30,15 +30,20 @@ package schemacrawler.crawl;
 
 import static java.util.Comparator.naturalOrder;
 import static java.util.Comparator.nullsLast;
+import static schemacrawler.crawl.NamedObjectList.valuesOf;
 import static schemacrawler.utility.NamedObjectSort.alphabetical;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -47,6 +52,7 @@ import schemacrawler.schema.ColumnReference;
 import schemacrawler.schema.ForeignKey;
 import schemacrawler.schema.Index;
 import schemacrawler.schema.NamedObject;
+import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.PrimaryKey;
 import schemacrawler.schema.Privilege;
 import schemacrawler.schema.Schema;
@@ -81,6 +87,17 @@ class MutableTable extends AbstractDatabaseObject implements Table {
   private MutablePrimaryKey primaryKey;
   private int sortIndex;
   private TableType tableType = TableType.UNKNOWN; // Default value
+  private transient volatile TableDetailsLoader tableDetailsLoader;
+  // Set once lazily loaded details have been retrieved, so that later reads skip the loader
+  private transient volatile boolean isColumnsLoaded;
+  private transient volatile boolean isKeysLoaded;
+  // Unmodifiable views of keys, columns and related tables, which are kept once the table is
+  // frozen
+  private transient Map<TableAssociationType, Collection<ForeignKey>> frozenForeignKeys;
+  private transient Collection<WeakAssociation> frozenWeakAssociations;
+  private transient Collection<PrimaryKey> frozenAlternateKeys;
+  private transient Collection<Column> frozenHiddenColumns;
+  private transient Map<TableRelationshipType, Collection<Table>> frozenRelatedTables;
 
   MutableTable(final Schema schema, final String name) {
     super(schema, name);
@@ -109,99 +126,102 @@ class MutableTable extends AbstractDatabaseObject implements Table {
   /** {@inheritDoc} */
   @Override
   public Collection<PrimaryKey> getAlternateKeys() {
-    return new HashSet<>(alternateKeys.values());
+    loadTableInformation();
+    if (frozenAlternateKeys != null) {
+      return frozenAlternateKeys;
+    }
+    return new HashSet<>(alternateKeys.sortedObjects());
   }
 
   /** {@inheritDoc} */
   @Override
   public List<Column> getColumns() {
-    return new ArrayList<>(columns.values());
+    loadKeys();
+    return valuesOf(columns);
   }
 
   /** {@inheritDoc} */
   @Override
   public String getDefinition() {
+    loadTableInformation();
     return definition.toString();
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<ForeignKey> getExportedForeignKeys() {
+    loadKeys();
+    if (frozenForeignKeys != null) {
+      return frozenForeignKeys.get(TableAssociationType.exported);
+    }
     return getTableReferences(foreignKeys, TableAssociationType.exported);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<ForeignKey> getForeignKeys() {
+    loadKeys();
+    if (frozenForeignKeys != null) {
+      return frozenForeignKeys.get(TableAssociationType.all);
+    }
     return getTableReferences(foreignKeys, TableAssociationType.all);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Column> getHiddenColumns() {
-    return new HashSet<>(hiddenColumns.values());
+    loadKeys();
+    if (frozenHiddenColumns != null) {
+      return frozenHiddenColumns;
+    }
+    return new HashSet<>(hiddenColumns.sortedObjects());
   }
 
   @Override
   public Collection<ForeignKey> getImportedForeignKeys() {
+    loadKeys();
+    if (frozenForeignKeys != null) {
+      return frozenForeignKeys.get(TableAssociationType.imported);
+    }
     return getTableReferences(foreignKeys, TableAssociationType.imported);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Index> getIndexes() {
-    return new ArrayList<>(indexes.values());
+    loadKeys();
+    return valuesOf(indexes);
   }
 
   /** {@inheritDoc} */
   @Override
   public MutablePrimaryKey getPrimaryKey() {
+    loadKeys();
     return primaryKey;
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Privilege<Table>> getPrivileges() {
-    return new ArrayList<>(privileges.values());
+    loadTableInformation();
+    return valuesOf(privileges);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Table> getRelatedTables(final TableRelationshipType tableRelationshipType) {
-    final Set<Table> relatedTables = new HashSet<>();
-    if (tableRelationshipType != null && tableRelationshipType != TableRelationshipType.none) {
-      final List<MutableForeignKey> foreignKeysList = new ArrayList<>(foreignKeys.values());
-      for (final ForeignKey foreignKey : foreignKeysList) {
-        for (final ColumnReference columnReference : foreignKey) {
-          final Table parentTable = columnReference.getPrimaryKeyColumn().getParent();
-          final Table childTable = columnReference.getForeignKeyColumn().getParent();
-          switch (tableRelationshipType) {
-            case parent:
-              if (equals(childTable)) {
-                relatedTables.add(parentTable);
-              }
-              break;
-            case child:
-              if (equals(parentTable)) {
-                relatedTables.add(childTable);
-              }
-              break;
-            default:
-              break;
-          }
-        }
-      }
+    loadKeys();
+    if (frozenRelatedTables != null && tableRelationshipType != null) {
+      return frozenRelatedTables.get(tableRelationshipType);
     }
-
-    final List<Table> relatedTablesList = new ArrayList<>(relatedTables);
-    relatedTablesList.sort(alphabetical);
-    return relatedTablesList;
+    return findRelatedTables(tableRelationshipType);
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<TableConstraint> getTableConstraints() {
-    return new ArrayList<>(constraints.values());
+    loadTableInformation();
+    return valuesOf(constraints);
   }
 
   /** {@inheritDoc} */
@@ -213,7 +233,8 @@ class MutableTable extends AbstractDatabaseObject implements Table {
   /** {@inheritDoc} */
   @Override
   public Collection<Trigger> getTriggers() {
-    return new ArrayList<>(triggers.values());
+    loadTableInformation();
+    return valuesOf(triggers);
   }
 
   /** {@inheritDoc} */
@@ -225,17 +246,22 @@ class MutableTable extends AbstractDatabaseObject implements Table {
   /** {@inheritDoc} */
   @Override
   public Collection<WeakAssociation> getWeakAssociations() {
+    if (frozenWeakAssociations != null) {
+      return frozenWeakAssociations;
+    }
     return getTableReferences(weakAssociations, TableAssociationType.all);
   }
 
   @Override
   public boolean hasDefinition() {
+    loadTableInformation();
     return definition.length() > 0;
   }
 
   /** {@inheritDoc} */
   @Override
   public final boolean hasForeignKeys() {
+    loadKeys();
     return !foreignKeys.isEmpty();
   }
 
@@ -248,12 +274,14 @@ class MutableTable extends AbstractDatabaseObject implements Table {
   /** {@inheritDoc} */
   @Override
   public Optional<MutablePrimaryKey> lookupAlternateKey(final String name) {
+    loadTableInformation();
     return alternateKeys.lookup(this, name);
   }
 
   /** {@inheritDoc} */
   @Override
   public Optional<MutableColumn> lookupColumn(final String name) {
+    loadColumns();
     Optional<MutableColumn> optionalColumn = columns.lookup(this, name);
     if (!optionalColumn.isPresent()) {
       optionalColumn = hiddenColumns.lookup(this, name);
@@ -264,24 +292,28 @@ class MutableTable extends AbstractDatabaseObject implements Table {
   /** {@inheritDoc} */
   @Override
   public Optional<MutableForeignKey> lookupForeignKey(final String name) {
+    loadKeys();
     return foreignKeys.lookup(this, name);
   }
 
   /** {@inheritDoc} */
   @Override
   public Optional<MutableIndex> lookupIndex(final String name) {
+    loadKeys();
     return indexes.lookup(this, name);
   }
 
   /** {@inheritDoc} */
   @Override
   public Optional<MutablePrivilege<Table>> lookupPrivilege(final String name) {
+    loadTableInformation();
     return privileges.lookup(this, name);
   }
 
   /** {@inheritDoc} */
   @Override
   public Optional<TableConstraint> lookupTableConstraint(final String name) {
+    loadTableInformation();
     return constraints.lookup(this, name);
   }
 
@@ -293,6 +325,7 @@ class MutableTable extends AbstractDatabaseObject implements Table {
    */
   @Override
   public Optional<MutableTrigger> lookupTrigger(final String triggerName) {
+    loadTableInformation();
     return triggers.lookup(this, triggerName);
   }
 
@@ -338,10 +371,119 @@ class MutableTable extends AbstractDatabaseObject implements Table {
     }
   }
 
+  /**
+   * Freezes the table, its columns and indexes, so that they cannot be changed. Lazily loaded table
+   * details need to be retrieved before the table is frozen, and the table details loader is not
+   * used again.
+   */
+  void freeze() {
+    tableDetailsLoader = null;
+
+    freezeAttributes();
+    for (final MutableColumn column : columns) {
+      column.freeze();
+    }
+    for (final MutableColumn column : hiddenColumns) {
+      column.freeze();
+    }
+    for (final MutableIndex index : indexes) {
+      index.freeze();
+    }
+    for (final TableConstraint constraint : constraints) {
+      if (constraint instanceof MutableTableConstraint) {
+        ((MutableTableConstraint) constraint).freeze();
+      }
+    }
+    for (final MutablePrimaryKey alternateKey : alternateKeys) {
+      alternateKey.freeze();
+    }
+    if (primaryKey != null) {
+      primaryKey.freeze();
+    }
+    for (final MutableForeignKey foreignKey : foreignKeys) {
+      foreignKey.freezeAttributes();
+    }
+    for (final MutableWeakAssociation weakAssociation : weakAssociations) {
+      weakAssociation.freezeAttributes();
+    }
+    for (final MutablePrivilege<Table> privilege : privileges) {
+      privilege.freezeAttributes();
+    }
+    for (final MutableTrigger trigger : triggers) {
+      trigger.freezeAttributes();
+    }
+
+    alternateKeys.freeze();
+    columns.freeze();
+    constraints.freeze();
+    foreignKeys.freeze();
+    hiddenColumns.freeze();
+    indexes.freeze();
+    privileges.freeze();
+    triggers.freeze();
+    weakAssociations.freeze();
+
+    final Map<TableAssociationType, Collection<ForeignKey>> sortedForeignKeys =
+        new EnumMap<>(TableAssociationType.class);
+    for (final TableAssociationType tableAssociationType : TableAssociationType.values()) {
+      sortedForeignKeys.put(
+          tableAssociationType,
+          Collections.unmodifiableCollection(
+              getTableReferences(foreignKeys, tableAssociationType)));
+    }
+    frozenWeakAssociations =
+        Collections.unmodifiableCollection(
+            getTableReferences(weakAssociations, TableAssociationType.all));
+    frozenForeignKeys = sortedForeignKeys;
+
+    final Map<TableRelationshipType, Collection<Table>> relatedTables =
+        new EnumMap<>(TableRelationshipType.class);
+    for (final TableRelationshipType tableRelationshipType : TableRelationshipType.values()) {
+      relatedTables.put(
+          tableRelationshipType,
+          Collections.unmodifiableList(findRelatedTables(tableRelationshipType)));
+    }
+    frozenRelatedTables = relatedTables;
+    frozenAlternateKeys =
+        Collections.unmodifiableSet(new HashSet<PrimaryKey>(alternateKeys.sortedObjects()));
+    frozenHiddenColumns =
+        Collections.unmodifiableSet(new HashSet<Column>(hiddenColumns.sortedObjects()));
+  }
+
   NamedObjectList<MutableColumn> getAllColumns() {
+    loadColumns();
     return columns;
   }
 
+  /**
+   * Retrieves table information, such as triggers, definitions, privileges and table constraints,
+   * if table details are loaded lazily, and the information has not yet been retrieved.
+   */
+  final void loadTableInformation() {
+    final TableDetailsLoader loader = tableDetailsLoader;
+    if (loader != null) {
+      loader.loadTableInformation(this);
+    }
+  }
+
+  /**
+   * Looks up a foreign key that has already been retrieved, without loading table details.
+   *
+   * @param key Foreign key lookup key
+   * @return Foreign key, if it has been retrieved
+   */
+  final Optional<MutableForeignKey> lookupRetrievedForeignKey(final NamedObjectKey key) {
+    return foreignKeys.lookup(key);
+  }
+
+  final void setColumnsLoaded() {
+    isColumnsLoaded = true;
+  }
+
+  final void setKeysLoaded() {
+    isKeysLoaded = true;
+  }
+
   void removeTableConstraint(final TableConstraint tableConstraint) {
     constraints.remove(tableConstraint);
   }
@@ -358,6 +500,16 @@ class MutableTable extends AbstractDatabaseObject implements Table {
     this.sortIndex = sortIndex;
   }
 
+  /**
+   * Sets the loader that retrieves table details when they are first accessed, if table details are
+   * loaded lazily.
+   *
+   * @param tableDetailsLoader Table details loader
+   */
+  final void setTableDetailsLoader(final TableDetailsLoader tableDetailsLoader) {
+    this.tableDetailsLoader = tableDetailsLoader;
+  }
+
   final void setTableType(final TableType tableType) {
     if (tableType == null) {
       this.tableType = TableType.UNKNOWN;
@@ -366,6 +518,36 @@ class MutableTable extends AbstractDatabaseObject implements Table {
     }
   }
 
+  private List<Table> findRelatedTables(final TableRelationshipType tableRelationshipType) {
+    final Set<Table> relatedTables = new HashSet<>();
+    if (tableRelationshipType != null && tableRelationshipType != TableRelationshipType.none) {
+      for (final ForeignKey foreignKey : foreignKeys.sortedObjects()) {
+        for (final ColumnReference columnReference : foreignKey) {
+          final Table parentTable = columnReference.getPrimaryKeyColumn().getParent();
+          final Table childTable = columnReference.getForeignKeyColumn().getParent();
+          switch (tableRelationshipType) {
+            case parent:
+              if (equals(childTable)) {
+                relatedTables.add(parentTable);
+              }
+              break;
+            case child:
+              if (equals(parentTable)) {
+                relatedTables.add(childTable);
+              }
+              break;
+            default:
+              break;
+          }
+        }
+      }
+    }
+
+    final List<Table> relatedTablesList = new ArrayList<>(relatedTables);
+    relatedTablesList.sort(alphabetical);
+    return relatedTablesList;
+  }
+
   private <R extends TableReference> Collection<R> getTableReferences(
       final NamedObjectList<? extends R> tableReferences,
       final TableAssociationType tableAssociationType) {
@@ -387,7 +569,7 @@ class MutableTable extends AbstractDatabaseObject implements Table {
                     })
                 .thenComparing(naturalOrder()));
 
-    final List<R> foreignKeysList = new ArrayList<>(tableReferences.values());
+    final List<R> foreignKeysList = new ArrayList<>(tableReferences.sortedObjects());
     Collections.sort(foreignKeysList, fkComparator);
     if (tableAssociationType != null && tableAssociationType != TableAssociationType.all) {
       for (final Iterator<R> iterator = foreignKeysList.iterator(); iterator.hasNext(); ) {
@@ -403,4 +585,31 @@ class MutableTable extends AbstractDatabaseObject implements Table {
     }
     return foreignKeysList;
   }
+
+  private void loadColumns() {
+    if (isColumnsLoaded) {
+      return;
+    }
+    final TableDetailsLoader loader = tableDetailsLoader;
+    if (loader != null) {
+      loader.loadColumns(this);
+    }
+  }
+
+  private void loadKeys() {
+    if (isKeysLoaded) {
+      return;
+    }
+    final TableDetailsLoader loader = tableDetailsLoader;
+    if (loader != null) {
+      loader.loadKeys(this);
+    }
+  }
+
+  /** Lazily loaded table details are retrieved before the table is serialized. */
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    loadKeys();
+    loadTableInformation();
+    out.defaultWriteObject();
+  }
 }
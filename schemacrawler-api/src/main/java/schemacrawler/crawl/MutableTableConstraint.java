@@ -28,7 +28,8 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.crawl;
 
-import java.util.ArrayList;
+import static schemacrawler.crawl.NamedObjectList.valuesOf;
+
 import java.util.List;
 
 import schemacrawler.schema.Table;
@@ -56,7 +57,7 @@ class MutableTableConstraint extends AbstractDependantObject<Table> implements T
   /** {@inheritDoc} */
   @Override
   public List<TableConstraintColumn> getConstrainedColumns() {
-    return new ArrayList<>(columns.values());
+    return valuesOf(columns);
   }
 
   /** {@inheritDoc} */
@@ -105,6 +106,14 @@ class MutableTableConstraint extends AbstractDependantObject<Table> implements T
     }
   }
 
+  void freeze() {
+    freezeAttributes();
+    for (final MutableTableConstraintColumn column : columns) {
+      column.freezeAttributes();
+    }
+    columns.freeze();
+  }
+
   void setDeferrable(final boolean deferrable) {
     this.deferrable = deferrable;
   }
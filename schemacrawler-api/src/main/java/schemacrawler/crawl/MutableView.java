@@ -28,7 +28,8 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.crawl;
 
-import java.util.ArrayList;
+import static schemacrawler.crawl.NamedObjectList.valuesOf;
+
 import java.util.Collection;
 import java.util.Optional;
 
@@ -56,24 +57,28 @@ class MutableView extends MutableTable implements View {
   /** {@inheritDoc} */
   @Override
   public CheckOptionType getCheckOption() {
+    loadTableInformation();
     return checkOption;
   }
 
   /** {@inheritDoc} */
   @Override
   public Collection<Table> getTableUsage() {
-    return new ArrayList<>(tableUsage.values());
+    loadTableInformation();
+    return valuesOf(tableUsage);
   }
 
   /** {@inheritDoc} */
   @Override
   public boolean isUpdatable() {
+    loadTableInformation();
     return updatable;
   }
 
   /** {@inheritDoc} */
   @Override
   public Optional<MutableTable> lookupTable(final Schema schemaRef, final String name) {
+    loadTableInformation();
     return tableUsage.lookup(schemaRef, name);
   }
 
@@ -83,6 +88,12 @@ class MutableView extends MutableTable implements View {
     }
   }
 
+  @Override
+  void freeze() {
+    super.freeze();
+    tableUsage.freeze();
+  }
+
   void setCheckOption(final CheckOptionType checkOption) {
     this.checkOption = checkOption;
   }
@@ -32,14 +32,20 @@ import static java.util.Comparator.naturalOrder;
 import static java.util.Objects.requireNonNull;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.io.ObjectStreamField;
+import java.io.ObjectOutputStream;
+import java.io.ObjectInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import schemacrawler.schema.NamedObject;
@@ -51,12 +57,19 @@ import us.fatehi.utility.ObjectToString;
  * Ordered list of named objects, that can be searched associatively. NamedObjectList has the
  * ability to look up by dependent object which is not created yet. That is, by NamedObject +
  * String. Returns values sorted in natural sort order, and is iterable. The iterator does not allow
- * modifications to the underlying data structure.
+ * modifications to the underlying data structure. Named objects can be added from the concurrent
+ * phases of a crawl. Changes to the list are synchronized, and reads do not take a lock.
  */
 final class NamedObjectList<N extends NamedObject> implements Serializable, ReducibleCollection<N> {
 
   private static final long serialVersionUID = 3257847666804142128L;
 
+  // Serialized form is the map of named objects, written in iteration order so that a
+  // deserialized list iterates, and sorts, in the same order as the original
+  private static final ObjectStreamField[] serialPersistentFields = {
+    new ObjectStreamField("objects", Map.class)
+  };
+
   private static NamedObjectKey makeLookupKey(final NamedObject namedObject) {
     final NamedObjectKey key;
     if (namedObject == null) {
@@ -75,13 +88,34 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
     return key;
   }
 
-  private final Map<NamedObjectKey, N> objects = new HashMap<>();
+  /**
+   * Gets all named objects in a list, in sorted order. If the list is frozen, an unmodifiable view
+   * of the sorted snapshot is returned without copying, otherwise a copy is returned.
+   *
+   * @param namedObjects List of named objects
+   * @return All named objects
+   */
+  static <T> List<T> valuesOf(final NamedObjectList<? extends T> namedObjects) {
+    if (namedObjects.isFrozen()) {
+      return Collections.unmodifiableList(namedObjects.sortedObjects());
+    } else {
+      return new ArrayList<>(namedObjects.sortedObjects());
+    }
+  }
+
+  private Map<NamedObjectKey, N> objects = new ConcurrentHashMap<>();
+  // Sorted snapshot of the objects, which is discarded when objects are added or removed, or when
+  // the sort order of the objects changes
+  private transient volatile List<N> sortedObjects;
+  // Frozen lists keep their sorted snapshot, and cannot be changed
+  private transient volatile boolean frozen;
 
   @Override
-  public void filter(final Predicate<? super N> predicate) {
+  public synchronized void filter(final Predicate<? super N> predicate) {
     if (predicate == null) {
       return;
     }
+    checkNotFrozen();
 
     final Set<Entry<NamedObjectKey, N>> entrySet = objects.entrySet();
     for (final Iterator<Entry<NamedObjectKey, N>> iterator = entrySet.iterator();
@@ -89,6 +123,7 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
       final Entry<NamedObjectKey, N> entry = iterator.next();
       if (!predicate.test(entry.getValue())) {
         iterator.remove();
+        sortedObjects = null;
       }
     }
   }
@@ -124,13 +159,13 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
         throw new UnsupportedOperationException();
       }
     }
-    return new UnmodifiableIterator(values().iterator());
+    return new UnmodifiableIterator(sortedObjects().iterator());
   }
 
   /** {@inheritDoc} */
   @Override
   public String toString() {
-    return ObjectToString.toString(values());
+    return ObjectToString.toString(sortedObjects());
   }
 
   /**
@@ -138,15 +173,30 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
    *
    * @param namedObject Named object
    */
-  boolean add(final N namedObject) {
+  synchronized boolean add(final N namedObject) {
     requireNonNull(namedObject, "Cannot add a null object to the list");
+    checkNotFrozen();
     final NamedObjectKey key = makeLookupKey(namedObject);
     objects.put(key, namedObject);
+    sortedObjects = null;
     return true;
   }
 
   boolean contains(final NamedObject namedObject) {
-    return objects.containsKey(makeLookupKey(namedObject));
+    final NamedObjectKey key = makeLookupKey(namedObject);
+    return key != null && objects.containsKey(key);
+  }
+
+  /**
+   * Freezes the list, so that it cannot be changed. The sorted snapshot is created once, so the
+   * sort order of the named objects should not change once the list is frozen.
+   */
+  synchronized void freeze() {
+    if (frozen) {
+      return;
+    }
+    sortedObjects = Collections.unmodifiableList(sortObjects());
+    frozen = true;
   }
 
   boolean isEmpty() {
@@ -168,8 +218,31 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
     return internalGet(lookupKey);
   }
 
-  N remove(final N namedObject) {
-    return objects.remove(makeLookupKey(namedObject));
+  boolean isFrozen() {
+    return frozen;
+  }
+
+  synchronized N remove(final N namedObject) {
+    checkNotFrozen();
+    final NamedObjectKey key = makeLookupKey(namedObject);
+    if (key == null) {
+      return null;
+    }
+    final N removed = objects.remove(key);
+    if (removed != null) {
+      sortedObjects = null;
+    }
+    return removed;
+  }
+
+  /**
+   * Discards the sorted snapshot, after named objects in the list have changed in a way that can
+   * change their sort order, such as when tables are sorted by foreign key dependencies. The list
+   * is sorted again the next time that it is read.
+   */
+  synchronized void sortOrderChanged() {
+    checkNotFrozen();
+    sortedObjects = null;
   }
 
   /**
@@ -181,18 +254,74 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
     return objects.size();
   }
 
+  /**
+   * Gets an unmodifiable, sorted snapshot of the named objects. The snapshot is not changed once
+   * created, so iterators over it are not affected by later changes to the list. The snapshot is
+   * reused until objects are added or removed, or the sort order of the list changes, so repeated
+   * calls do not compare objects. A snapshot is only created while holding the lock, so that it
+   * cannot miss an object added at the same time.
+   *
+   * @return Sorted snapshot of the named objects
+   */
+  List<N> sortedObjects() {
+    List<N> snapshot = sortedObjects;
+    if (snapshot != null) {
+      return snapshot;
+    }
+    synchronized (this) {
+      snapshot = sortedObjects;
+      if (snapshot == null) {
+        snapshot = Collections.unmodifiableList(sortObjects());
+        sortedObjects = snapshot;
+      }
+      return snapshot;
+    }
+  }
+
   /**
    * Gets all named objects in the list, in sorted order.
    *
    * @return All named objects
    */
   List<N> values() {
+    return new ArrayList<>(sortedObjects());
+  }
+
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new UnsupportedOperationException("Cannot change a frozen list");
+    }
+  }
+
+  private Optional<N> internalGet(final NamedObjectKey key) {
+    if (key == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(objects.get(key));
+  }
+
+  private List<N> sortObjects() {
     final List<N> all = new ArrayList<>(objects.values());
     all.sort(naturalOrder());
     return all;
   }
 
-  private Optional<N> internalGet(final NamedObjectKey key) {
-    return Optional.ofNullable(objects.get(key));
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final ObjectInputStream.GetField fields = in.readFields();
+    final Map<NamedObjectKey, N> serializedObjects =
+        (Map<NamedObjectKey, N>) fields.get("objects", null);
+    objects = new ConcurrentHashMap<>();
+    if (serializedObjects != null) {
+      for (final Entry<NamedObjectKey, N> entry : serializedObjects.entrySet()) {
+        objects.put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    final ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("objects", new LinkedHashMap<>(objects));
+    out.writeFields();
   }
 }
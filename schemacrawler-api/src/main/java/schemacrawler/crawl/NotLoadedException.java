@@ -29,6 +29,7 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import schemacrawler.schema.PartialDatabaseObject;
+import schemacrawler.schema.Table;
 import schemacrawler.schema.TableConstraint;
 
 public class NotLoadedException extends UnsupportedOperationException {
@@ -44,4 +45,8 @@ public class NotLoadedException extends UnsupportedOperationException {
         String.format(
             "Complete metadata has not been loaded for table constraint <%s>", constraint));
   }
+
+  public NotLoadedException(final Table table, final Throwable cause) {
+    super(String.format("Could not load metadata for table <%s>", table), cause);
+  }
 }
@@ -32,13 +32,16 @@ import static java.util.Objects.requireNonNull;
 import static schemacrawler.schemacrawler.InformationSchemaKey.PRIMARY_KEYS;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy;
 
-import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
 import schemacrawler.SchemaCrawlerLogger;
+import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.Schema;
 import schemacrawler.schema.View;
 import schemacrawler.schemacrawler.InformationSchemaViews;
@@ -76,7 +79,12 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
 
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving primary keys");
-        retrievePrimaryKeysFromMetadata(allTables);
+        retrievePrimaryKeysFromMetadata(null, allTables);
+        break;
+
+      case metadata_all:
+        LOGGER.log(Level.INFO, "Retrieving primary keys, for all tables in each schema");
+        retrievePrimaryKeysFromMetadataForAllTables(allTables);
         break;
 
       default:
@@ -126,8 +134,7 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
     }
 
     final Query pkSql = informationSchemaViews.getQuery(PRIMARY_KEYS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(pkSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrievePrimaryKeysFromDataDictionary");
@@ -149,24 +156,90 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
     }
   }
 
-  private void retrievePrimaryKeysFromMetadata(final NamedObjectList<MutableTable> allTables)
-      throws SQLException {
+  /**
+   * Retrieves primary keys with a metadata call for each table.
+   *
+   * @param schema Schema of the tables, or null for tables in all schemas
+   * @param allTables Tables to retrieve primary keys for
+   */
+  private void retrievePrimaryKeysFromMetadata(
+      final Schema schema, final NamedObjectList<MutableTable> allTables) throws SQLException {
+    // Views do not have primary keys
+    final List<MutableTable> tables = new ArrayList<>();
     for (final MutableTable table : allTables) {
-      if (table instanceof View) {
+      if (!(table instanceof View) && (schema == null || schema.equals(table.getSchema()))) {
+        tables.add(table);
+      }
+    }
+
+    new MetadataFanOut<MutableTable>(
+            "retrievePrimaryKeysFromMetadata",
+            getRetrieverConnection(),
+            catalog,
+            (metaData, table) ->
+                metaData.getPrimaryKeys(
+                    table.getSchema().getCatalogName(),
+                    table.getSchema().getName(),
+                    table.getName()),
+            (table, results) -> {
+              while (results.next()) {
+                createPrimaryKeyForTable(table, results);
+              }
+            },
+            (table, e) -> {
+              throw new SchemaCrawlerSQLException(
+                  "Could not retrieve primary keys for table " + table, e);
+            })
+        .retrieve(tables);
+  }
+
+  private void retrievePrimaryKeysFromMetadataForAllTables(
+      final NamedObjectList<MutableTable> allTables) throws SQLException {
+    for (final Schema schema : getTableSchemas(allTables)) {
+      final ResultSet resultSet;
+      try {
+        resultSet = getMetaData().getPrimaryKeys(schema.getCatalogName(), schema.getName(), null);
+      } catch (final SQLException e) {
+        logPossiblyUnsupportedSQLFeature(
+            new StringFormat(
+                "Could not retrieve primary keys for all tables in schema <%s>, "
+                    + "so retrieving them one table at a time",
+                schema),
+            e);
+        retrievePrimaryKeysFromMetadata(schema, allTables);
         continue;
       }
-      final Schema tableSchema = table.getSchema();
-      try (final MetadataResultSet results =
-          new MetadataResultSet(
-              getMetaData()
-                  .getPrimaryKeys(
-                      tableSchema.getCatalogName(), tableSchema.getName(), table.getName()))) {
+
+      int rowCount = 0;
+      try (final MetadataResultSet results = new MetadataResultSet(resultSet)) {
         while (results.next()) {
-          createPrimaryKeyForTable(table, results);
+          rowCount = rowCount + 1;
+          final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
+          final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
+          final String tableName = results.getString("TABLE_NAME");
+
+          final Optional<MutableTable> optionalTable =
+              allTables.lookup(new NamedObjectKey(catalogName, schemaName, tableName));
+          if (!optionalTable.isPresent() || optionalTable.get() instanceof View) {
+            continue;
+          }
+          createPrimaryKeyForTable(optionalTable.get(), results);
         }
       } catch (final SQLException e) {
         throw new SchemaCrawlerSQLException(
-            "Could not retrieve primary keys for table " + table, e);
+            "Could not retrieve primary keys for schema " + schema, e);
+      }
+
+      // Some JDBC drivers return no rows, instead of throwing an
+      // exception, if no table name is provided
+      if (rowCount == 0) {
+        LOGGER.log(
+            Level.INFO,
+            new StringFormat(
+                "No primary keys were returned for all tables in schema <%s>, "
+                    + "so retrieving them one table at a time",
+                schema));
+        retrievePrimaryKeysFromMetadata(schema, allTables);
       }
     }
   }
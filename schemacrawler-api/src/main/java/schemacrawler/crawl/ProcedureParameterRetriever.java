@@ -34,10 +34,11 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.PROCEDURE_COLUMNS
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.procedureParametersRetrievalStrategy;
 import static us.fatehi.utility.Utility.isBlank;
 
-import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
@@ -90,6 +91,8 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
         retrieveProcedureParametersFromDataDictionary(allRoutines, parameterFilter);
         break;
 
+      case metadata_all:
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving procedure parameters");
         retrieveProcedureParametersFromMetadata(allRoutines, parameterFilter);
@@ -162,7 +165,7 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
       parameter.setNullable(isNullable);
       parameter.setRemarks(remarks);
 
-      parameter.addAttributes(results.getAttributes());
+      addAttributes(parameter, results);
 
       LOGGER.log(Level.FINER, new StringFormat("Adding parameter to procedure <%s>", parameter));
       procedure.addParameter(parameter);
@@ -205,8 +208,7 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
       throw new SchemaCrawlerSQLException("No procedure parameters SQL provided", null);
     }
     final Query procedureColumnsSql = informationSchemaViews.getQuery(PROCEDURE_COLUMNS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(procedureColumnsSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveProcedureParametersFromDataDictionary");
@@ -219,30 +221,37 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
   private void retrieveProcedureParametersFromMetadata(
       final NamedObjectList<MutableRoutine> allRoutines,
       final InclusionRuleFilter<ProcedureParameter> parameterFilter)
-      throws SchemaCrawlerSQLException {
+      throws SQLException {
+    final List<MutableProcedure> procedures = new ArrayList<>();
     for (final MutableRoutine routine : allRoutines) {
-      if (routine.getRoutineType() != RoutineType.procedure) {
-        continue;
-      }
-
-      final MutableProcedure procedure = (MutableProcedure) routine;
-      LOGGER.log(Level.FINE, "Retrieving procedure parameters for " + procedure);
-      try (final MetadataResultSet results =
-          new MetadataResultSet(
-              getMetaData()
-                  .getProcedureColumns(
-                      procedure.getSchema().getCatalogName(),
-                      procedure.getSchema().getName(),
-                      procedure.getName(),
-                      null))) {
-        while (results.next()) {
-          createProcedureParameter(results, allRoutines, parameterFilter);
-        }
-      } catch (final SQLException e) {
-        throw new SchemaCrawlerSQLException(
-            String.format("Could not retrieve procedure parameters for procedure <%s>", procedure),
-            e);
+      if (routine.getRoutineType() == RoutineType.procedure) {
+        procedures.add((MutableProcedure) routine);
       }
     }
+
+    new MetadataFanOut<MutableProcedure>(
+            "retrieveProcedureParametersFromMetadata",
+            getRetrieverConnection(),
+            catalog,
+            (metaData, procedure) -> {
+              LOGGER.log(Level.FINE, "Retrieving procedure parameters for " + procedure);
+              return metaData.getProcedureColumns(
+                  procedure.getSchema().getCatalogName(),
+                  procedure.getSchema().getName(),
+                  procedure.getName(),
+                  null);
+            },
+            (procedure, results) -> {
+              while (results.next()) {
+                createProcedureParameter(results, allRoutines, parameterFilter);
+              }
+            },
+            (procedure, e) -> {
+              throw new SchemaCrawlerSQLException(
+                  String.format(
+                      "Could not retrieve procedure parameters for procedure <%s>", procedure),
+                  e);
+            })
+        .retrieve(procedures);
   }
 }
@@ -106,6 +106,7 @@ final class ResultsRetriever {
           execute("column label", () -> resultsMetaData.getColumnLabel(columnIndex));
 
       final MutableResultsColumn column = new MutableResultsColumn(table, columnName, columnLabel);
+      column.setOrdinalPosition(columnIndex);
 
       try {
         final String databaseSpecificTypeName = resultsMetaData.getColumnTypeName(columnIndex);
@@ -140,7 +141,6 @@ final class ResultsRetriever {
         final boolean isNullable =
             resultsMetaData.isNullable(columnIndex) == ResultSetMetaData.columnNullable;
 
-        column.setOrdinalPosition(columnIndex);
         column.setDisplaySize(resultsMetaData.getColumnDisplaySize(columnIndex));
         column.setAutoIncrement(resultsMetaData.isAutoIncrement(columnIndex));
         column.setCaseSensitive(resultsMetaData.isCaseSensitive(columnIndex));
@@ -29,6 +29,16 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.crawl.AdaptiveRetrievalStrategies.databaseKey;
+import static schemacrawler.crawl.AdaptiveRetrievalStrategies.getAdaptiveRetrievalStrategies;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.adaptive;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_all;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy;
 import static us.fatehi.utility.DatabaseUtility.checkConnection;
 import static us.fatehi.utility.Utility.isBlank;
 
@@ -37,6 +47,14 @@ import java.sql.DatabaseMetaData;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 import schemacrawler.SchemaCrawlerLogger;
@@ -60,7 +78,20 @@ final class RetrieverConnection {
   private static final SchemaCrawlerLogger LOGGER =
       SchemaCrawlerLogger.getLogger(RetrieverConnection.class.getName());
 
+  // Types of metadata that have a separate metadata_all retrieval, with
+  // one metadata call for all tables in each schema
+  private static final Set<SchemaInfoMetadataRetrievalStrategy> metadataAllRetrievalTypes =
+      EnumSet.of(
+          foreignKeysRetrievalStrategy,
+          indexesRetrievalStrategy,
+          primaryKeysRetrievalStrategy,
+          tableColumnsRetrievalStrategy);
+
+  private final Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>
+      adaptiveRetrievalStrategies;
   private final Connection connection;
+  private final RetrieverConnectionPool connectionPool;
+  private final String databaseKey;
   private final JavaSqlTypes javaSqlTypes;
   private final DatabaseMetaData metaData;
   private final SchemaRetrievalOptions schemaRetrievalOptions;
@@ -79,11 +110,48 @@ final class RetrieverConnection {
     LOGGER.log(Level.CONFIG, new StringFormat("Supported table types are <%s>", tableTypes));
 
     javaSqlTypes = new JavaSqlTypes();
+
+    databaseKey = databaseKey(metaData.getURL());
+    adaptiveRetrievalStrategies = new ConcurrentHashMap<>();
+    connectionPool = null;
+  }
+
+  private RetrieverConnection(
+      final Connection connection,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final RetrieverConnection retrieverConnection,
+      final RetrieverConnectionPool connectionPool)
+      throws SQLException {
+    this.connection = checkConnection(connection);
+    metaData = connection.getMetaData();
+    this.schemaRetrievalOptions =
+        requireNonNull(schemaRetrievalOptions, "No database specific overrides provided");
+    tableTypes = retrieverConnection.tableTypes;
+    javaSqlTypes = retrieverConnection.javaSqlTypes;
+    databaseKey = retrieverConnection.databaseKey;
+    adaptiveRetrievalStrategies = retrieverConnection.adaptiveRetrievalStrategies;
+    this.connectionPool = connectionPool;
   }
 
+  /**
+   * Gets the metadata retrieval strategy to use. The adaptive strategy is resolved once for each
+   * type of metadata, and the resolved strategy is used for the rest of the crawl.
+   *
+   * @param schemaInfoMetadataRetrievalStrategy Type of metadata being retrieved
+   * @return Metadata retrieval strategy
+   */
   public MetadataRetrievalStrategy get(
       final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy) {
-    return schemaRetrievalOptions.get(schemaInfoMetadataRetrievalStrategy);
+    final MetadataRetrievalStrategy metadataRetrievalStrategy =
+        schemaRetrievalOptions.get(schemaInfoMetadataRetrievalStrategy);
+    if (metadataRetrievalStrategy != adaptive) {
+      return metadataRetrievalStrategy;
+    }
+    return adaptiveRetrievalStrategies.computeIfAbsent(
+        schemaInfoMetadataRetrievalStrategy,
+        retrievalType ->
+            getAdaptiveRetrievalStrategies()
+                .choose(databaseKey, retrievalType, adaptiveCandidates(retrievalType)));
   }
 
   public Driver getDriver() throws SQLException {
@@ -112,10 +180,87 @@ final class RetrieverConnection {
     return jdbcDriver;
   }
 
+  /**
+   * Creates a statement for data dictionary queries, using the fetch size from the schema retrieval
+   * options. Drivers that do not support a fetch size hint still get a usable statement.
+   *
+   * @return Statement
+   * @throws SQLException On an exception creating the statement
+   */
+  Statement createStatement() throws SQLException {
+    final Statement statement = connection.createStatement();
+    final int fetchSize = schemaRetrievalOptions.getFetchSize();
+    if (fetchSize > 0) {
+      try {
+        statement.setFetchSize(fetchSize);
+      } catch (final SQLException e) {
+        LOGGER.log(
+            Level.WARNING, new StringFormat("Could not set fetch size to <%d>", fetchSize), e);
+      }
+    }
+    return statement;
+  }
+
+  /**
+   * Wraps another live database connection to the same database, reusing the options and database
+   * capabilities already determined for this connection.
+   *
+   * @param connection Another connection to the same database
+   * @return Retriever connection for the other connection
+   */
+  RetrieverConnection forConnection(final Connection connection) throws SQLException {
+    return forConnection(connection, schemaRetrievalOptions);
+  }
+
+  /**
+   * Wraps another live database connection to the same database, reusing the database capabilities
+   * already determined for this connection, but with different schema retrieval options.
+   *
+   * @param connection Another connection to the same database
+   * @param schemaRetrievalOptions Database-specific schema retrieval overrides
+   * @return Retriever connection for the other connection
+   */
+  RetrieverConnection forConnection(
+      final Connection connection, final SchemaRetrievalOptions schemaRetrievalOptions)
+      throws SQLException {
+    return new RetrieverConnection(connection, schemaRetrievalOptions, this, connectionPool);
+  }
+
+  /**
+   * Wraps the same live database connection, with a pool of additional connections that can be used
+   * to make metadata calls concurrently.
+   *
+   * @param connectionPool Pool of additional connections to the same database, or null
+   * @return Retriever connection with the connection pool
+   */
+  RetrieverConnection withConnectionPool(final RetrieverConnectionPool connectionPool)
+      throws SQLException {
+    return new RetrieverConnection(connection, schemaRetrievalOptions, this, connectionPool);
+  }
+
+  /**
+   * Gets the strategies that were chosen for metadata that is retrieved adaptively.
+   *
+   * @return Chosen strategies, by type of metadata
+   */
+  Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>
+      getChosenAdaptiveRetrievalStrategies() {
+    return Collections.unmodifiableMap(adaptiveRetrievalStrategies);
+  }
+
   Connection getConnection() {
     return connection;
   }
 
+  /**
+   * Gets the pool of additional connections that can be used to make metadata calls concurrently.
+   *
+   * @return Connection pool, or null if metadata calls cannot be made concurrently
+   */
+  RetrieverConnectionPool getConnectionPool() {
+    return connectionPool;
+  }
+
   EnumDataTypeHelper getEnumDataTypeHelper() {
     return schemaRetrievalOptions.getEnumDataTypeHelper();
   }
@@ -133,6 +278,10 @@ final class RetrieverConnection {
     return javaSqlTypes;
   }
 
+  String getDatabaseKey() {
+    return databaseKey;
+  }
+
   DatabaseMetaData getMetaData() {
     return metaData;
   }
@@ -152,4 +301,26 @@ final class RetrieverConnection {
   boolean isSupportsSchemas() {
     return schemaRetrievalOptions.isSupportsSchemas();
   }
+
+  /**
+   * Gets the strategies that the adaptive strategy can choose from, for a type of metadata. The
+   * data dictionary strategy is a candidate if a query is provided, and the metadata_all strategy
+   * is a candidate if it retrieves metadata differently from the metadata strategy.
+   *
+   * @param schemaInfoMetadataRetrievalStrategy Type of metadata being retrieved
+   * @return Candidate strategies, in order of preference
+   */
+  List<MetadataRetrievalStrategy> adaptiveCandidates(
+      final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy) {
+    final List<MetadataRetrievalStrategy> candidates = new ArrayList<>();
+    if (getInformationSchemaViews()
+        .hasQuery(schemaInfoMetadataRetrievalStrategy.getDataDictionaryKey())) {
+      candidates.add(data_dictionary_all);
+    }
+    if (metadataAllRetrievalTypes.contains(schemaInfoMetadataRetrievalStrategy)) {
+      candidates.add(metadata_all);
+    }
+    candidates.add(metadata);
+    return candidates;
+  }
 }
@@ -0,0 +1,127 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import schemacrawler.SchemaCrawlerLogger;
+
+/**
+ * A bounded pool of additional database connections, that are used to make metadata calls
+ * concurrently. Connections are only obtained when they are needed, are reused once they are
+ * returned, and are all closed when the pool is closed.
+ */
+final class RetrieverConnectionPool implements AutoCloseable {
+
+  private static final SchemaCrawlerLogger LOGGER =
+      SchemaCrawlerLogger.getLogger(RetrieverConnectionPool.class.getName());
+
+  private final Supplier<Connection> connectionSupplier;
+  private final int maxConnections;
+  private final List<Connection> connections;
+  private final Deque<Connection> idleConnections;
+  private boolean isClosed;
+
+  RetrieverConnectionPool(final Supplier<Connection> connectionSupplier, final int maxConnections) {
+    this.connectionSupplier = requireNonNull(connectionSupplier, "No connection supplier provided");
+    this.maxConnections = maxConnections;
+    connections = new ArrayList<>();
+    idleConnections = new ArrayDeque<>();
+  }
+
+  /** Closes all connections that were obtained for the pool. */
+  @Override
+  public synchronized void close() {
+    isClosed = true;
+    for (final Connection connection : connections) {
+      try {
+        connection.close();
+      } catch (final SQLException e) {
+        LOGGER.log(Level.WARNING, "Could not close pooled connection", e);
+      }
+    }
+    connections.clear();
+    idleConnections.clear();
+  }
+
+  /**
+   * Borrows a connection, if one is available, or can be obtained without going over the maximum
+   * number of connections. Does not wait for a connection to be returned.
+   *
+   * @return Connection, or null if none is available
+   */
+  synchronized Connection borrow() {
+    if (isClosed) {
+      return null;
+    }
+    if (!idleConnections.isEmpty()) {
+      return idleConnections.pop();
+    }
+    if (connections.size() >= maxConnections) {
+      return null;
+    }
+    final Connection connection;
+    try {
+      connection = connectionSupplier.get();
+    } catch (final RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Could not obtain a connection for the pool", e);
+      return null;
+    }
+    if (connection == null) {
+      return null;
+    }
+    connections.add(connection);
+    return connection;
+  }
+
+  int getMaxConnections() {
+    return maxConnections;
+  }
+
+  /**
+   * Returns a borrowed connection, so that it can be reused.
+   *
+   * @param connection Borrowed connection
+   */
+  synchronized void giveBack(final Connection connection) {
+    // Connections are already closed if the pool has been closed
+    if (connection == null || isClosed) {
+      return;
+    }
+    idleConnections.push(connection);
+  }
+}
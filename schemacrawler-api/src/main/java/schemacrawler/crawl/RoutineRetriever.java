@@ -35,7 +35,6 @@ import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.fu
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.proceduresRetrievalStrategy;
 import static us.fatehi.utility.Utility.isBlank;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
@@ -94,6 +93,8 @@ final class RoutineRetriever extends AbstractRetriever {
         retrieveFunctionsFromDataDictionary(schemas, functionFilter);
         break;
 
+      case metadata_all:
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving functions");
         retrieveFunctionsFromMetadata(schemas, functionFilter);
@@ -123,6 +124,8 @@ final class RoutineRetriever extends AbstractRetriever {
         retrieveProceduresFromDataDictionary(schemas, procedureFilter);
         break;
 
+      case metadata_all:
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving procedures");
         retrieveProceduresFromMetadata(schemas, procedureFilter);
@@ -164,7 +167,7 @@ final class RoutineRetriever extends AbstractRetriever {
     if (functionFilter.test(function)) {
       function.setReturnType(functionType);
       function.setRemarks(remarks);
-      function.addAttributes(results.getAttributes());
+      addAttributes(function, results);
 
       catalog.addRoutine(function);
     }
@@ -200,7 +203,7 @@ final class RoutineRetriever extends AbstractRetriever {
     if (procedureFilter.test(procedure)) {
       procedure.setReturnType(procedureType);
       procedure.setRemarks(remarks);
-      procedure.addAttributes(results.getAttributes());
+      addAttributes(procedure, results);
 
       catalog.addRoutine(procedure);
     }
@@ -216,8 +219,7 @@ final class RoutineRetriever extends AbstractRetriever {
       throw new SchemaCrawlerSQLException("No functions SQL provided", null);
     }
     final Query functionsSql = informationSchemaViews.getQuery(FUNCTIONS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(functionsSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveFunctionsFromDataDictionary");
@@ -266,8 +268,7 @@ final class RoutineRetriever extends AbstractRetriever {
       throw new SchemaCrawlerSQLException("No procedures SQL provided", null);
     }
     final Query proceduresSql = informationSchemaViews.getQuery(PROCEDURES);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(proceduresSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveProceduresFromDataDictionary");
@@ -29,6 +29,8 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.crawl.AdaptiveRetrievalStrategies.getAdaptiveRetrievalStrategies;
+import static schemacrawler.filter.FilterFactory.tableFilter;
 import static schemacrawler.filter.ReducerFactory.getRoutineReducer;
 import static schemacrawler.filter.ReducerFactory.getSchemaReducer;
 import static schemacrawler.filter.ReducerFactory.getSequenceReducer;
@@ -41,6 +43,18 @@ import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleFor
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSequenceInclusion;
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSynonymInclusion;
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForTableInclusion;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_all;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.functionParametersRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.functionsRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.procedureParametersRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.proceduresRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tablesRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.typeInfoRetrievalStrategy;
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalColumnAttributes;
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalColumnMetadata;
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalDatabaseInfo;
@@ -72,25 +86,38 @@ import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveViewTableU
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 import schemacrawler.SchemaCrawlerLogger;
 import schemacrawler.schema.Catalog;
+import schemacrawler.schema.ColumnDataType;
 import schemacrawler.schema.Routine;
 import schemacrawler.schema.RoutineType;
 import schemacrawler.schema.Schema;
 import schemacrawler.schema.Sequence;
 import schemacrawler.schema.Synonym;
 import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.FilterOptions;
+import schemacrawler.schemacrawler.GrepOptions;
 import schemacrawler.schemacrawler.LimitOptions;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaCrawlerSQLException;
 import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
 import schemacrawler.schemacrawler.SchemaReference;
 import schemacrawler.schemacrawler.SchemaRetrievalOptions;
 import us.fatehi.utility.StopWatch;
+import us.fatehi.utility.scheduler.TaskDefinition;
+import us.fatehi.utility.scheduler.TaskDefinition.TaskRunnable;
+import us.fatehi.utility.scheduler.TaskRunner;
 import us.fatehi.utility.string.StringFormat;
 
 /**
@@ -100,13 +127,50 @@ import us.fatehi.utility.string.StringFormat;
  */
 public final class SchemaCrawler {
 
+  @FunctionalInterface
+  private interface RetrieverTask<R> {
+    void run(R retriever) throws Exception;
+  }
+
+  @FunctionalInterface
+  private interface SchemaPartitionTask {
+    void run(
+        RetrieverConnection retrieverConnection,
+        MutableCatalog partialCatalog,
+        NamedObjectList<SchemaReference> schemas)
+        throws Exception;
+  }
+
   private static final SchemaCrawlerLogger LOGGER =
       SchemaCrawlerLogger.getLogger(SchemaCrawler.class.getName());
 
+  // Crawl tasks that retrieve each type of metadata, which are timed
+  // to choose an adaptive metadata retrieval strategy
+  private static final Map<SchemaInfoMetadataRetrievalStrategy, String> adaptiveRetrievalTaskNames =
+      new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+
+  static {
+    adaptiveRetrievalTaskNames.put(foreignKeysRetrievalStrategy, "retrieveForeignKeys");
+    adaptiveRetrievalTaskNames.put(
+        functionParametersRetrievalStrategy, "retrieveRoutineParameters");
+    adaptiveRetrievalTaskNames.put(functionsRetrievalStrategy, "retrieveRoutines");
+    adaptiveRetrievalTaskNames.put(indexesRetrievalStrategy, "retrieveIndexes");
+    adaptiveRetrievalTaskNames.put(primaryKeysRetrievalStrategy, "retrievePrimaryKeys");
+    adaptiveRetrievalTaskNames.put(
+        procedureParametersRetrievalStrategy, "retrieveRoutineParameters");
+    adaptiveRetrievalTaskNames.put(proceduresRetrievalStrategy, "retrieveRoutines");
+    adaptiveRetrievalTaskNames.put(tableColumnsRetrievalStrategy, "retrieveColumns");
+    adaptiveRetrievalTaskNames.put(tablesRetrievalStrategy, "retrieveTables");
+    adaptiveRetrievalTaskNames.put(typeInfoRetrievalStrategy, "retrieveSystemColumnDataTypes");
+  }
+
   private final Connection connection;
+  private final Supplier<Connection> connectionSupplier;
   private final SchemaCrawlerOptions options;
   private final SchemaRetrievalOptions schemaRetrievalOptions;
+  private Catalog baselineCatalog;
   private MutableCatalog catalog;
+  private CrawlMetrics crawlMetrics;
   private RetrieverConnection retrieverConnection;
 
   /**
@@ -120,11 +184,35 @@ public final class SchemaCrawler {
       final Connection connection,
       final SchemaRetrievalOptions schemaRetrievalOptions,
       final SchemaCrawlerOptions options) {
+    this(connection, null, schemaRetrievalOptions, options);
+  }
+
+  /**
+   * Constructs a SchemaCrawler object, from a connection, with a way to obtain additional
+   * connections to the same database. Independent parts of the crawl are run concurrently, each on
+   * its own connection, using up to the maximum number of threads specified in the load options.
+   * Connections obtained from the supplier are closed once they have been used. If table details
+   * are loaded lazily, the supplier is also used to retrieve table details after the crawl has
+   * completed, so it needs to remain usable for as long as the catalog is in use.
+   *
+   * @param connection An database connection.
+   * @param connectionSupplier Supplier of additional connections to the same database, or null to
+   *     crawl using only the main connection
+   * @param schemaRetrievalOptions Database-specific schema retrieval overrides
+   * @param options SchemaCrawler options
+   */
+  public SchemaCrawler(
+      final Connection connection,
+      final Supplier<Connection> connectionSupplier,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final SchemaCrawlerOptions options) {
     this.connection = requireNonNull(connection, "No connection specified");
+    this.connectionSupplier = connectionSupplier;
     this.schemaRetrievalOptions =
         requireNonNull(
             schemaRetrievalOptions, "No database-specific schema retrieval overrides provided");
     this.options = requireNonNull(options, "No SchemaCrawler options provided");
+    crawlMetrics = new CrawlMetrics();
   }
 
   /**
@@ -134,9 +222,31 @@ public final class SchemaCrawler {
    * @throws SchemaCrawlerException On an exception
    */
   public Catalog crawl() throws SchemaCrawlerException {
+    return crawl(null);
+  }
+
+  /**
+   * Crawls the database, to obtain database metadata, reusing tables from a previously crawled
+   * catalog if they have not changed. Changes are detected using a database-specific table changes
+   * query, and if there is no such query, table details are always crawled. Unchanged tables are
+   * copied, so the previously crawled catalog is not changed, and can be frozen. Tables that have
+   * changed, and tables related to them by foreign keys or view table usage, are crawled again.
+   *
+   * @param baselineCatalog Previously crawled catalog, with the same options, or null
+   * @return Database metadata
+   * @throws SchemaCrawlerException On an exception
+   */
+  public Catalog crawl(final Catalog baselineCatalog) throws SchemaCrawlerException {
+    this.baselineCatalog = baselineCatalog;
     catalog = new MutableCatalog("catalog");
+    crawlMetrics = new CrawlMetrics();
+    retrieverConnection = null;
+    final RetrieverConnectionPool connectionPool = newConnectionPool();
+    final CrawlStringPool previousStringPool = new CrawlStringPool().enter();
     try {
-      retrieverConnection = new RetrieverConnection(connection, schemaRetrievalOptions);
+      retrieverConnection =
+          new RetrieverConnection(connection, schemaRetrievalOptions)
+              .withConnectionPool(connectionPool);
 
       crawlDatabaseInfo();
       LOGGER.log(Level.INFO, String.format("%n%s", catalog.getCrawlInfo()));
@@ -151,9 +261,38 @@ public final class SchemaCrawler {
       return catalog;
     } catch (final SQLException e) {
       throw new SchemaCrawlerException("Database access exception", e);
+    } finally {
+      recordAdaptiveRetrievalTimings();
+      if (connectionPool != null) {
+        connectionPool.close();
+      }
+      CrawlStringPool.exit(previousStringPool);
     }
   }
 
+  /**
+   * Gets metrics for each phase and task of the most recent crawl, such as the time taken, and the
+   * number of JDBC calls made. Metrics are not recorded for table details that are loaded lazily.
+   *
+   * @return Crawl metrics
+   */
+  public CrawlMetrics getCrawlMetrics() {
+    return crawlMetrics;
+  }
+
+  private void addTask(
+      final TaskRunner taskRunner,
+      final String taskName,
+      final TaskRunnable runnable,
+      final String... dependencies) {
+    taskRunner.add(
+        new TaskDefinition(
+            taskName,
+            crawlMetrics.track(
+                taskRunner.getId(), taskName, CrawlStringPool.inCurrentPool(runnable)),
+            dependencies));
+  }
+
   private void crawlColumnDataTypes() throws SchemaCrawlerException {
     try {
       LOGGER.log(Level.INFO, "Crawling column data types");
@@ -161,12 +300,11 @@ public final class SchemaCrawler {
       final StopWatch stopWatch = new StopWatch("crawlColumnDataTypes");
 
       final SchemaInfoLevel infoLevel = options.getLoadOptions().getSchemaInfoLevel();
-      final DatabaseInfoRetriever retriever =
-          new DatabaseInfoRetriever(retrieverConnection, catalog, options);
       final DataTypeRetriever dataTypeRetriever =
           new DataTypeRetriever(retrieverConnection, catalog, options);
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveSystemColumnDataTypes",
           () -> {
             if (infoLevel.is(retrieveColumnDataTypes)) {
@@ -180,14 +318,22 @@ public final class SchemaCrawler {
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveUserDefinedColumnDataTypes",
           () -> {
             if (infoLevel.is(retrieveUserDefinedColumnDataTypes)) {
               LOGGER.log(Level.INFO, "Retrieving user column data types");
-              for (final Schema schema : retriever.getAllSchemas()) {
-                dataTypeRetriever.retrieveUserDefinedColumnDataTypes(schema);
-              }
+              crawlBySchema(
+                  "retrieveUserDefinedColumnDataTypes",
+                  true,
+                  (taskConnection, partialCatalog, schemas) -> {
+                    final DataTypeRetriever partialDataTypeRetriever =
+                        new DataTypeRetriever(taskConnection, partialCatalog, options);
+                    for (final Schema schema : schemas) {
+                      partialDataTypeRetriever.retrieveUserDefinedColumnDataTypes(schema);
+                    }
+                  });
             } else {
               LOGGER.log(
                   Level.INFO,
@@ -221,14 +367,16 @@ public final class SchemaCrawler {
 
       LOGGER.log(Level.INFO, "Retrieving database information");
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveDatabaseInfo",
           () -> {
             retriever.retrieveDatabaseInfo();
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveAdditionalDatabaseInfo",
           () -> {
             if (infoLevel.is(retrieveAdditionalDatabaseInfo)) {
@@ -241,7 +389,8 @@ public final class SchemaCrawler {
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveServerInfo",
           () -> {
             if (infoLevel.is(retrieveServerInfo)) {
@@ -253,7 +402,8 @@ public final class SchemaCrawler {
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveDatabaseUsers",
           () -> {
             if (infoLevel.is(retrieveDatabaseUsers)) {
@@ -265,14 +415,16 @@ public final class SchemaCrawler {
           });
 
       LOGGER.log(Level.INFO, "Retrieving JDBC driver information");
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveJdbcDriverInfo",
           () -> {
             retriever.retrieveJdbcDriverInfo();
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveAdditionalJdbcDriverInfo",
           () -> {
             if (infoLevel.is(retrieveAdditionalJdbcDriverInfo)) {
@@ -286,7 +438,8 @@ public final class SchemaCrawler {
           });
 
       LOGGER.log(Level.INFO, "Retrieving SchemaCrawler crawl information");
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveCrawlInfo",
           () -> {
             retriever.retrieveCrawlInfo();
@@ -316,12 +469,10 @@ public final class SchemaCrawler {
 
     LOGGER.log(Level.INFO, "Crawling routines");
 
-    final RoutineRetriever retriever;
     final RoutineExtRetriever retrieverExtra;
     final ProcedureParameterRetriever procedureParameterRetriever;
     final FunctionParameterRetriever functionParameterRetriever;
     try {
-      retriever = new RoutineRetriever(retrieverConnection, catalog, options);
       retrieverExtra = new RoutineExtRetriever(retrieverConnection, catalog, options);
       procedureParameterRetriever =
           new ProcedureParameterRetriever(retrieverConnection, catalog, options);
@@ -330,18 +481,30 @@ public final class SchemaCrawler {
 
       final Collection<RoutineType> routineTypes = limitOptions.getRoutineTypes();
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveRoutines",
           () -> {
-            final NamedObjectList<SchemaReference> schemas = retriever.getAllSchemas();
-            if (routineTypes.contains(RoutineType.procedure)) {
-              LOGGER.log(Level.INFO, "Retrieving procedure names");
-              retriever.retrieveProcedures(schemas, limitOptions.get(ruleForRoutineInclusion));
-            }
-            if (routineTypes.contains(RoutineType.function)) {
-              LOGGER.log(Level.INFO, "Retrieving function names");
-              retriever.retrieveFunctions(schemas, limitOptions.get(ruleForRoutineInclusion));
-            }
+            final boolean isPartitionable =
+                isMetadataRetrieval(proceduresRetrievalStrategy)
+                    && isMetadataRetrieval(functionsRetrievalStrategy);
+            crawlBySchema(
+                "retrieveRoutines",
+                isPartitionable,
+                (taskConnection, partialCatalog, schemas) -> {
+                  final RoutineRetriever partialRetriever =
+                      new RoutineRetriever(taskConnection, partialCatalog, options);
+                  if (routineTypes.contains(RoutineType.procedure)) {
+                    LOGGER.log(Level.INFO, "Retrieving procedure names");
+                    partialRetriever.retrieveProcedures(
+                        schemas, limitOptions.get(ruleForRoutineInclusion));
+                  }
+                  if (routineTypes.contains(RoutineType.function)) {
+                    LOGGER.log(Level.INFO, "Retrieving function names");
+                    partialRetriever.retrieveFunctions(
+                        schemas, limitOptions.get(ruleForRoutineInclusion));
+                  }
+                });
             return null;
           });
 
@@ -351,7 +514,8 @@ public final class SchemaCrawler {
         return;
       }
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveRoutineParameters",
           () -> {
             LOGGER.log(Level.INFO, "Retrieving routine columns");
@@ -366,11 +530,14 @@ public final class SchemaCrawler {
                 functionParameterRetriever.retrieveFunctionParameters(
                     allRoutines, limitOptions.get(ruleForRoutineParameterInclusion));
               }
+              // Routines are sorted by their parameters
+              allRoutines.sortOrderChanged();
             }
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "filterAndSortRoutines",
           () -> {
             // Filter the list of routines based on grep criteria
@@ -378,7 +545,8 @@ public final class SchemaCrawler {
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveRoutineInformation",
           () -> {
             if (infoLevel.is(retrieveRoutineInformation)) {
@@ -405,14 +573,16 @@ public final class SchemaCrawler {
     try {
       final SchemaRetriever retriever = new SchemaRetriever(retrieverConnection, catalog, options);
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveSchemas",
           () -> {
             retriever.retrieveSchemas(options.getLimitOptions().get(ruleForSchemaInclusion));
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "filterAndSortSchemas",
           () -> {
             catalog.reduce(Schema.class, getSchemaReducer(options));
@@ -453,14 +623,16 @@ public final class SchemaCrawler {
     try {
       retrieverExtra = new SequenceRetriever(retrieverConnection, catalog, options);
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveSequenceInformation",
           () -> {
             retrieverExtra.retrieveSequenceInformation(limitOptions.get(ruleForSequenceInclusion));
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "filterAndSortSequences",
           () -> {
             catalog.reduce(Sequence.class, getSequenceReducer(options));
@@ -494,14 +666,16 @@ public final class SchemaCrawler {
     final SynonymRetriever retrieverExtra;
     try {
       retrieverExtra = new SynonymRetriever(retrieverConnection, catalog, options);
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveSynonymInformation",
           () -> {
             retrieverExtra.retrieveSynonymInformation(limitOptions.get(ruleForSynonymInclusion));
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "filterAndSortSynonms",
           () -> {
             catalog.reduce(Synonym.class, getSynonymReducer(options));
@@ -532,54 +706,79 @@ public final class SchemaCrawler {
     LOGGER.log(Level.INFO, "Crawling tables");
 
     try {
-      final TableRetriever retriever = new TableRetriever(retrieverConnection, catalog, options);
       final TableColumnRetriever columnRetriever =
           new TableColumnRetriever(retrieverConnection, catalog, options);
       final ForeignKeyRetriever fkRetriever =
           new ForeignKeyRetriever(retrieverConnection, catalog, options);
-      final TableConstraintRetriever constraintRetriever =
-          new TableConstraintRetriever(retrieverConnection, catalog, options);
-      final TableExtRetriever retrieverExtra =
-          new TableExtRetriever(retrieverConnection, catalog, options);
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveTables",
           () -> {
             LOGGER.log(Level.INFO, "Retrieving table names");
-            final NamedObjectList<SchemaReference> schemas = retriever.getAllSchemas();
-            retriever.retrieveTables(
-                schemas,
-                limitOptions.getTableNamePattern(),
-                limitOptions.getTableTypes(),
-                limitOptions.get(ruleForTableInclusion));
+            crawlBySchema(
+                "retrieveTables",
+                isMetadataRetrieval(tablesRetrievalStrategy),
+                (taskConnection, partialCatalog, schemas) -> {
+                  final TableRetriever partialRetriever =
+                      new TableRetriever(taskConnection, partialCatalog, options);
+                  partialRetriever.retrieveTables(
+                      schemas,
+                      limitOptions.getTableNamePattern(),
+                      limitOptions.getTableTypes(),
+                      limitOptions.get(ruleForTableInclusion));
+                });
             return null;
           });
 
       final NamedObjectList<MutableTable> allTables = catalog.getAllTables();
       LOGGER.log(Level.INFO, new StringFormat("Retrieved %d tables", allTables.size()));
-      if (allTables.isEmpty()) {
+
+      // Unchanged tables are copied from the baseline catalog, and only
+      // the details of the remaining tables are crawled
+      final TableChangesRetriever tableChangesRetriever =
+          new TableChangesRetriever(retrieverConnection, catalog, options, schemaRetrievalOptions);
+      final NamedObjectList<MutableTable> tablesToCrawl =
+          tableChangesRetriever.reuseUnchangedTables(baselineCatalog);
+      if (tablesToCrawl.isEmpty()) {
+        // Reused tables are filtered and sorted, as if they had been crawled
+        filterAndSortTables(allTables, tablesToCrawl);
         return;
       }
 
-      stopWatch.time(
+      if (isLazyTableDetails()) {
+        LOGGER.log(Level.INFO, "Table details will be retrieved when they are first accessed");
+        catalog.reduce(Table.class, getTableReducer(tableFilter(options)));
+        final TableDetailsLoader tableDetailsLoader =
+            new TableDetailsLoader(
+                retrieverConnection, connectionSupplier, schemaRetrievalOptions, catalog, options);
+        for (final MutableTable table : tablesToCrawl) {
+          table.setTableDetailsLoader(tableDetailsLoader);
+        }
+        return;
+      }
+
+      crawlMetrics.time(
+          stopWatch,
           "retrieveColumns",
           () -> {
             LOGGER.log(Level.INFO, "Retrieving table columns");
             if (infoLevel.is(retrieveTableColumns)
                 && !limitOptions.isExcludeAll(ruleForColumnInclusion)) {
               columnRetriever.retrieveTableColumns(
-                  allTables, limitOptions.get(ruleForColumnInclusion));
+                  tablesToCrawl, limitOptions.get(ruleForColumnInclusion));
             }
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "retrieveForeignKeys",
           () -> {
             LOGGER.log(Level.INFO, "Retrieving foreign keys");
             if (infoLevel.is(retrieveForeignKeys)) {
               if (infoLevel.is(retrieveTableColumns)) {
-                fkRetriever.retrieveForeignKeys(allTables);
+                fkRetriever.retrieveForeignKeys(tablesToCrawl);
               }
             } else {
               LOGGER.log(
@@ -589,154 +788,396 @@ public final class SchemaCrawler {
             return null;
           });
 
-      stopWatch.time(
+      crawlMetrics.time(
+          stopWatch,
           "filterAndSortTables",
           () -> {
-            // Filter the list of tables based on grep criteria, and
-            // parent-child relationships
-            catalog.reduce(Table.class, getTableReducer(options));
-
-            // Sort the remaining tables
-            final TablesGraph tablesGraph = new TablesGraph(allTables);
-            tablesGraph.setTablesSortIndexes();
-
+            filterAndSortTables(allTables, tablesToCrawl);
             return null;
           });
 
-      stopWatch.time(
-          "retrievePrimaryKeys",
-          () -> {
-            LOGGER.log(Level.INFO, "Retrieving primary keys");
-            if (infoLevel.is(retrieveTableColumns)) {
-              final PrimaryKeyRetriever primaryKeyRetriever =
-                  new PrimaryKeyRetriever(retrieverConnection, catalog, options);
-              primaryKeyRetriever.retrievePrimaryKeys(allTables);
-            }
-            return null;
-          });
+      LOGGER.log(Level.INFO, stopWatch.stringify());
+
+      // Once tables, columns and foreign keys are loaded, the remaining
+      // phases only depend on a few of each other, and can be run
+      // concurrently on separate connections
+      final TaskRunner taskRunner = newTaskRunner("crawlTableDetails");
 
-      stopWatch.time(
+      addTask(
+          taskRunner,
+          "retrievePrimaryKeys",
+          onConnection(
+              taskConnection -> {
+                LOGGER.log(Level.INFO, "Retrieving primary keys");
+                if (infoLevel.is(retrieveTableColumns)) {
+                  final PrimaryKeyRetriever primaryKeyRetriever =
+                      new PrimaryKeyRetriever(taskConnection, catalog, options);
+                  primaryKeyRetriever.retrievePrimaryKeys(tablesToCrawl);
+                }
+              }));
+
+      addTask(
+          taskRunner,
           "retrieveIndexes",
-          () -> {
-            LOGGER.log(Level.INFO, "Retrieving indexes");
-            if (infoLevel.is(retrieveTableColumns)) {
-              if (infoLevel.is(retrieveIndexes)) {
-                final IndexRetriever indexRetriever =
-                    new IndexRetriever(retrieverConnection, catalog, options);
-                indexRetriever.retrieveIndexes(allTables);
-              }
-            }
-            return null;
-          });
+          onConnection(
+              taskConnection -> {
+                LOGGER.log(Level.INFO, "Retrieving indexes");
+                if (infoLevel.is(retrieveTableColumns)) {
+                  if (infoLevel.is(retrieveIndexes)) {
+                    final IndexRetriever indexRetriever =
+                        new IndexRetriever(taskConnection, catalog, options);
+                    indexRetriever.retrieveIndexes(tablesToCrawl);
+                  }
+                }
+              }));
+
+      // Table constraint definitions are matched to table constraints
+      // retrieved by the same retriever, so both are retrieved together
+      addTask(
+          taskRunner,
+          "retrieveTableConstraintInformation",
+          onConnection(
+              taskConnection -> {
+                final TableConstraintRetriever constraintRetriever =
+                    new TableConstraintRetriever(taskConnection, catalog, options);
+                if (infoLevel.is(retrieveTableConstraintInformation)) {
+                  constraintRetriever.retrieveTableConstraintInformation();
+                }
+                constraintRetriever.matchTableConstraints(tablesToCrawl);
+                if (infoLevel.is(retrieveTableConstraintDefinitions)) {
+                  constraintRetriever.retrieveTableConstraintDefinitions();
+                }
+              }),
+          "retrievePrimaryKeys");
 
       LOGGER.log(Level.INFO, "Retrieving additional table information");
-      stopWatch.time(
-          "retrieveTableConstraintInformation",
-          () -> {
-            if (infoLevel.is(retrieveTableConstraintInformation)) {
-              constraintRetriever.retrieveTableConstraintInformation();
-            }
-            constraintRetriever.matchTableConstraints(allTables);
-            return null;
-          });
-      stopWatch.time(
-          "isRetrieveTableConstraintDefinitions",
-          () -> {
-            if (infoLevel.is(retrieveTableConstraintDefinitions)) {
-              constraintRetriever.retrieveTableConstraintDefinitions();
-            }
-            return null;
-          });
-      stopWatch.time(
+      addTask(
+          taskRunner,
           "retrieveTriggerInformation",
-          () -> {
-            if (infoLevel.is(retrieveTriggerInformation)) {
-              retrieverExtra.retrieveTriggerInformation();
-            }
-            return null;
-          });
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveTriggerInformation)) {
+                  retrieverExtra.retrieveTriggerInformation();
+                }
+              }));
+      addTask(
+          taskRunner,
           "retrieveViewInformation",
-          () -> {
-            if (infoLevel.is(retrieveViewInformation)) {
-              retrieverExtra.retrieveViewInformation();
-            }
-            return null;
-          });
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveViewInformation)) {
+                  retrieverExtra.retrieveViewInformation();
+                }
+              }));
+      addTask(
+          taskRunner,
           "retrieveViewTableUsage",
-          () -> {
-            if (infoLevel.is(retrieveViewTableUsage)) {
-              retrieverExtra.retrieveViewTableUsage();
-            }
-            return null;
-          });
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveViewTableUsage)) {
+                  retrieverExtra.retrieveViewTableUsage();
+                }
+              }));
+      // Table definitions are appended to view definitions
+      addTask(
+          taskRunner,
           "retrieveTableDefinitions",
-          () -> {
-            if (infoLevel.is(retrieveTableDefinitionsInformation)) {
-              retrieverExtra.retrieveTableDefinitions();
-            }
-            return null;
-          });
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveTableDefinitionsInformation)) {
+                  retrieverExtra.retrieveTableDefinitions();
+                }
+              }),
+          "retrieveViewInformation");
+      addTask(
+          taskRunner,
           "retrieveIndexInformation",
-          () -> {
-            if (infoLevel.is(retrieveIndexInformation)) {
-              retrieverExtra.retrieveIndexInformation();
-            }
-            return null;
-          });
-
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveIndexInformation)) {
+                  retrieverExtra.retrieveIndexInformation();
+                }
+              }),
+          "retrieveIndexes");
+
+      // Table attributes are also added by view information and table
+      // definitions
+      addTask(
+          taskRunner,
           "retrieveAdditionalTableAttributes",
-          () -> {
-            if (infoLevel.is(retrieveAdditionalTableAttributes)) {
-              retrieverExtra.retrieveAdditionalTableAttributes();
-            }
-            return null;
-          });
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveAdditionalTableAttributes)) {
+                  retrieverExtra.retrieveAdditionalTableAttributes();
+                }
+              }),
+          "retrieveTableDefinitions");
+      addTask(
+          taskRunner,
           "retrieveTablePrivileges",
-          () -> {
-            if (infoLevel.is(retrieveTablePrivileges)) {
-              retrieverExtra.retrieveTablePrivileges();
-            }
-            return null;
-          });
-
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveTablePrivileges)) {
+                  retrieverExtra.retrieveTablePrivileges();
+                }
+              }));
+
+      addTask(
+          taskRunner,
           "retrieveAdditionalColumnAttributes",
-          () -> {
-            if (infoLevel.is(retrieveAdditionalColumnAttributes)) {
-              retrieverExtra.retrieveAdditionalColumnAttributes();
-            }
-            return null;
-          });
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveAdditionalColumnAttributes)) {
+                  retrieverExtra.retrieveAdditionalColumnAttributes();
+                }
+              }));
+      addTask(
+          taskRunner,
           "retrieveAdditionalColumnMetadata",
-          () -> {
-            if (infoLevel.is(retrieveAdditionalColumnMetadata)) {
-              retrieverExtra.retrieveAdditionalColumnMetadata();
-            }
-            return null;
-          });
-      stopWatch.time(
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveAdditionalColumnMetadata)) {
+                  retrieverExtra.retrieveAdditionalColumnMetadata();
+                }
+              }));
+      // Column privileges that cannot be matched to a column are added
+      // as table privileges
+      addTask(
+          taskRunner,
           "retrieveTableColumnPrivileges",
-          () -> {
-            if (infoLevel.is(retrieveTableColumnPrivileges)) {
-              retrieverExtra.retrieveTableColumnPrivileges();
-            }
-            return null;
-          });
+          onTableExtRetriever(
+              retrieverExtra -> {
+                if (infoLevel.is(retrieveTableColumnPrivileges)) {
+                  retrieverExtra.retrieveTableColumnPrivileges();
+                }
+              }),
+          "retrieveTablePrivileges");
 
-      LOGGER.log(Level.INFO, stopWatch.stringify());
+      taskRunner.run();
+
+      LOGGER.log(Level.INFO, taskRunner.report());
     } catch (final SchemaCrawlerSQLException e) {
       throw new SchemaCrawlerException(e.getMessage(), e.getCause());
     } catch (final SchemaCrawlerException e) {
       throw e;
     } catch (final Exception e) {
       throw new SchemaCrawlerException("Exception retrieving table information", e);
+    } finally {
+      catalog.clearReusedTables();
     }
   }
+
+  private void filterAndSortTables(
+      final NamedObjectList<MutableTable> allTables,
+      final NamedObjectList<MutableTable> tablesToCrawl) {
+    // Filter the list of tables based on grep criteria, and
+    // parent-child relationships
+    catalog.reduce(Table.class, getTableReducer(options));
+
+    // Sort the remaining tables
+    final TablesGraph tablesGraph = new TablesGraph(allTables);
+    tablesGraph.setTablesSortIndexes();
+    allTables.sortOrderChanged();
+
+    // Only crawl details of tables that remain
+    tablesToCrawl.filter(allTables::contains);
+    tablesToCrawl.sortOrderChanged();
+  }
+
+  /**
+   * Crawls database objects schema by schema. When crawling concurrently, schemas are split across
+   * threads, and each thread crawls its share of schemas on its own connection, into a partial
+   * catalog. Partial catalogs are merged into the catalog once all threads have completed.
+   * Otherwise, all schemas are crawled directly into the catalog on the main connection.
+   *
+   * @param id Name of the crawl step
+   * @param isPartitionable Whether the retrieval makes separate calls for each schema, so that it
+   *     benefits from being split across threads
+   * @param task Crawl step to run for a set of schemas
+   */
+  private void crawlBySchema(
+      final String id, final boolean isPartitionable, final SchemaPartitionTask task)
+      throws Exception {
+    final NamedObjectList<SchemaReference> schemas = catalog.getAllSchemas();
+    final int maxThreads = getMaxThreads();
+    if (!isPartitionable || maxThreads <= 1 || schemas.size() <= 1) {
+      task.run(retrieverConnection, catalog, schemas);
+      return;
+    }
+
+    // Split schemas in their natural sort order, so that partial
+    // catalogs are always built and merged the same way
+    final int partitionCount = Math.min(maxThreads, schemas.size());
+    final List<NamedObjectList<SchemaReference>> partitions = new ArrayList<>();
+    final List<MutableCatalog> partialCatalogs = new ArrayList<>();
+    for (int i = 0; i < partitionCount; i++) {
+      partitions.add(new NamedObjectList<>());
+      partialCatalogs.add(newPartialCatalog());
+    }
+    int schemaIndex = 0;
+    for (final SchemaReference schema : schemas) {
+      final int partitionIndex = schemaIndex % partitionCount;
+      partitions.get(partitionIndex).add(schema);
+      partialCatalogs.get(partitionIndex).addSchema(schema);
+      schemaIndex = schemaIndex + 1;
+    }
+
+    final TaskRunner taskRunner = newTaskRunner(id);
+    for (int i = 0; i < partitionCount; i++) {
+      final NamedObjectList<SchemaReference> partition = partitions.get(i);
+      final MutableCatalog partialCatalog = partialCatalogs.get(i);
+      taskRunner.add(
+          new TaskDefinition(
+              String.format("%s-%d", id, i + 1),
+              CrawlTaskMetrics.inCurrentTask(
+                  CrawlStringPool.inCurrentPool(
+                      onConnection(
+                          taskConnection ->
+                              task.run(taskConnection, partialCatalog, partition))))));
+    }
+    taskRunner.run();
+    LOGGER.log(Level.INFO, taskRunner.report());
+
+    for (final MutableCatalog partialCatalog : partialCatalogs) {
+      catalog.merge(partialCatalog);
+    }
+  }
+
+  private int getMaxThreads() {
+    if (connectionSupplier == null) {
+      return 1;
+    } else {
+      return options.getLoadOptions().getMaxThreads();
+    }
+  }
+
+  /**
+   * Table details can be loaded lazily only if there is a way to obtain connections once the crawl
+   * has completed, and if tables are not filtered using their details, such as columns, definitions
+   * or foreign keys.
+   */
+  private boolean isLazyTableDetails() {
+    if (!options.getLoadOptions().isLazyTableDetails()) {
+      return false;
+    }
+    if (connectionSupplier == null) {
+      LOGGER.log(
+          Level.WARNING,
+          "Retrieving all table details, since there is no way to obtain connections to retrieve them later");
+      return false;
+    }
+    final GrepOptions grepOptions = options.getGrepOptions();
+    final FilterOptions filterOptions = options.getFilterOptions();
+    if (grepOptions.isGrepTables()
+        || grepOptions.isGrepColumns()
+        || grepOptions.isGrepDefinitions()
+        || filterOptions.getChildTableFilterDepth() > 0
+        || filterOptions.getParentTableFilterDepth() > 0) {
+      LOGGER.log(
+          Level.INFO, "Retrieving all table details, since they are needed to filter tables");
+      return false;
+    }
+    return true;
+  }
+
+  private boolean isMetadataRetrieval(
+      final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy) {
+    final MetadataRetrievalStrategy metadataRetrievalStrategy =
+        retrieverConnection.get(schemaInfoMetadataRetrievalStrategy);
+    return metadataRetrievalStrategy == metadata || metadataRetrievalStrategy == metadata_all;
+  }
+
+  /**
+   * Creates a pool of additional connections for concurrent metadata calls, only if there is a way
+   * to obtain connections, and more than one connection is allowed.
+   *
+   * @return Connection pool, or null if metadata calls are made one after another
+   */
+  private RetrieverConnectionPool newConnectionPool() {
+    final int maxMetadataConnections = options.getLoadOptions().getMaxMetadataConnections();
+    if (connectionSupplier == null || maxMetadataConnections <= 1) {
+      return null;
+    }
+    // The crawl connection is also used, in addition to pooled connections
+    return new RetrieverConnectionPool(connectionSupplier, maxMetadataConnections - 1);
+  }
+
+  /**
+   * Creates a catalog to crawl a subset of schemas into. System column data types are shared with
+   * the partial catalog, since they are needed to resolve user defined column data types.
+   *
+   * @return Empty partial catalog
+   */
+  private MutableCatalog newPartialCatalog() {
+    final MutableCatalog partialCatalog = new MutableCatalog(catalog.getName());
+    for (final ColumnDataType columnDataType : catalog.getSystemColumnDataTypes()) {
+      partialCatalog.addColumnDataType((MutableColumnDataType) columnDataType);
+    }
+    return partialCatalog;
+  }
+
+  /**
+   * Records the time taken to retrieve metadata that was retrieved adaptively, so that later crawls
+   * of the same database can use the fastest metadata retrieval strategy.
+   */
+  private void recordAdaptiveRetrievalTimings() {
+    if (retrieverConnection == null) {
+      return;
+    }
+    for (final Map.Entry<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> entry :
+        retrieverConnection.getChosenAdaptiveRetrievalStrategies().entrySet()) {
+      final SchemaInfoMetadataRetrievalStrategy retrievalType = entry.getKey();
+      final List<CrawlTaskMetrics> taskMetrics =
+          crawlMetrics.lookupTaskMetrics(adaptiveRetrievalTaskNames.get(retrievalType));
+      if (taskMetrics.isEmpty()) {
+        // Metadata was not retrieved in this crawl, for example, when
+        // table details are loaded lazily
+        continue;
+      }
+      // Timings are compared per object created by the retrievers, so
+      // that crawls of different sizes can be compared, without loading
+      // any table details that have not been loaded yet
+      long elapsedMillis = 0;
+      long objectCount = 0;
+      boolean isFailed = false;
+      for (final CrawlTaskMetrics task : taskMetrics) {
+        elapsedMillis = elapsedMillis + task.getElapsedMillis();
+        objectCount = objectCount + task.getObjectCount();
+        isFailed = isFailed || task.getFailureCount() > 0;
+      }
+      getAdaptiveRetrievalStrategies()
+          .record(
+              retrieverConnection.getDatabaseKey(),
+              retrievalType,
+              entry.getValue(),
+              elapsedMillis,
+              objectCount,
+              isFailed);
+    }
+  }
+
+  private TaskRunner newTaskRunner(final String id) {
+    return new TaskRunner(id, getMaxThreads());
+  }
+
+  /**
+   * Runs a task with a retriever connection. When crawling with a single connection, the task uses
+   * the main connection. Otherwise, a new connection is obtained for the task, and closed once the
+   * task completes.
+   */
+  private TaskRunnable onConnection(final RetrieverTask<RetrieverConnection> task) {
+    if (getMaxThreads() <= 1) {
+      return () -> task.run(retrieverConnection);
+    }
+    return () -> {
+      try (final Connection taskConnection = connectionSupplier.get()) {
+        task.run(retrieverConnection.forConnection(taskConnection));
+      }
+    };
+  }
+
+  private TaskRunnable onTableExtRetriever(final RetrieverTask<TableExtRetriever> task) {
+    return onConnection(
+        taskConnection -> task.run(new TableExtRetriever(taskConnection, catalog, options)));
+  }
 }
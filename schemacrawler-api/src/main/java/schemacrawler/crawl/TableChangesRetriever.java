@@ -0,0 +1,397 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLE_CHANGES;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+
+import schemacrawler.SchemaCrawlerLogger;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.ColumnDataType;
+import schemacrawler.schema.ColumnReference;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.NamedObjectKey;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.FilterOptions;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.Query;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerSQLException;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * A retriever that uses a database-specific query to detect which tables have changed since a
+ * previous crawl. The query should return one row per table, with "TABLE_CATALOG", "TABLE_SCHEMA"
+ * and "TABLE_NAME", and any other columns, such as the time of the last DDL change, that change
+ * when the table or its columns, indexes, keys or triggers change.
+ *
+ * <p>Unchanged tables are copied from the previous catalog, so the previous catalog is never
+ * changed by the crawl. Tables that refer to each other, by foreign keys or by view table usage,
+ * are only reused together, so a table is crawled again if any table that it refers to, or that
+ * refers to it, has changed.
+ *
+ * <p>Tables that were excluded from the previous catalog by grep are excluded again without being
+ * crawled, if they have not changed, and if every table that refers to them is reused.
+ */
+final class TableChangesRetriever extends AbstractRetriever {
+
+  private static final SchemaCrawlerLogger LOGGER =
+      SchemaCrawlerLogger.getLogger(TableChangesRetriever.class.getName());
+
+  static final String OPTIONS_FINGERPRINT = "schemacrawler.crawl.options_fingerprint";
+  static final String TABLE_FINGERPRINTS = "schemacrawler.crawl.table_fingerprints";
+
+  /**
+   * Copies objects using serialization, which keeps references between the copied objects, such as
+   * foreign keys between tables.
+   *
+   * @param objects Objects to copy
+   * @return Copied objects
+   * @throws SchemaCrawlerException If the objects could not be copied
+   */
+  private static <T> List<T> copy(final T[] objects) throws SchemaCrawlerException {
+    try {
+      final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      try (final ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+        out.writeObject(objects);
+      }
+      try (final ObjectInputStream in =
+          new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+        @SuppressWarnings("unchecked")
+        final T[] copiedObjects = (T[]) objects.getClass().cast(in.readObject());
+        return Arrays.asList(copiedObjects);
+      }
+    } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+      throw new SchemaCrawlerException("Could not copy objects from baseline catalog", e);
+    }
+  }
+
+  /** Tables that a table refers to, or is referred to by, in the same crawl. */
+  private static Collection<Table> relatedTables(final MutableTable table) {
+    final List<Table> relatedTables = new ArrayList<>();
+    for (final ForeignKey foreignKey : table.getForeignKeys()) {
+      for (final ColumnReference columnReference : foreignKey) {
+        relatedTables.add(columnReference.getPrimaryKeyColumn().getParent());
+        relatedTables.add(columnReference.getForeignKeyColumn().getParent());
+      }
+    }
+    if (table instanceof MutableView) {
+      relatedTables.addAll(((MutableView) table).getTableUsage());
+    }
+    return relatedTables;
+  }
+
+  private final SchemaCrawlerOptions options;
+  private final SchemaRetrievalOptions schemaRetrievalOptions;
+
+  TableChangesRetriever(
+      final RetrieverConnection retrieverConnection,
+      final MutableCatalog catalog,
+      final SchemaCrawlerOptions options,
+      final SchemaRetrievalOptions schemaRetrievalOptions) {
+    super(retrieverConnection, catalog, options);
+    this.options = options;
+    this.schemaRetrievalOptions = schemaRetrievalOptions;
+  }
+
+  /**
+   * Reuses tables from a previously crawled catalog, if they have not changed since it was crawled.
+   * Fingerprints of the options and of each table are recorded as attributes of the catalog, so
+   * that the catalog can in turn be used as the baseline for a later crawl. Tables are never reused
+   * when table details are loaded lazily.
+   *
+   * @param baselineCatalog Previously crawled catalog, or null
+   * @return Tables whose details need to be crawled
+   */
+  NamedObjectList<MutableTable> reuseUnchangedTables(final Catalog baselineCatalog)
+      throws SQLException, SchemaCrawlerException {
+    final NamedObjectList<MutableTable> allTables = catalog.getAllTables();
+    final NamedObjectList<MutableTable> crawlTables = new NamedObjectList<>();
+    for (final MutableTable table : allTables) {
+      crawlTables.add(table);
+    }
+
+    final Optional<Map<String, String>> tableFingerprints = retrieveTableFingerprints(allTables);
+    if (!tableFingerprints.isPresent()) {
+      return crawlTables;
+    }
+    final String optionsFingerprint =
+        new CrawlFingerprint()
+            .addOptions(options)
+            .addRetrievalOptions(schemaRetrievalOptions)
+            .fingerprint();
+    catalog.setAttribute(OPTIONS_FINGERPRINT, optionsFingerprint);
+    catalog.setAttribute(TABLE_FINGERPRINTS, tableFingerprints.get());
+
+    if (baselineCatalog == null) {
+      return crawlTables;
+    }
+    if (!(baselineCatalog instanceof MutableCatalog)
+        || options.getLoadOptions().isLazyTableDetails()) {
+      LOGGER.log(Level.INFO, "Cannot reuse tables from baseline catalog");
+      return crawlTables;
+    }
+    if (!optionsFingerprint.equals(baselineCatalog.getAttribute(OPTIONS_FINGERPRINT))) {
+      LOGGER.log(Level.INFO, "Options have changed, so not reusing tables from baseline catalog");
+      return crawlTables;
+    }
+    final Map<String, String> baselineTableFingerprints =
+        baselineCatalog.getAttribute(TABLE_FINGERPRINTS, Collections.emptyMap());
+
+    final Map<String, String> currentTableFingerprints = tableFingerprints.get();
+    final Set<String> unchangedTableNames = new HashSet<>();
+    for (final Map.Entry<String, String> baselineTableFingerprint :
+        baselineTableFingerprints.entrySet()) {
+      final String tableName = baselineTableFingerprint.getKey();
+      if (baselineTableFingerprint.getValue().equals(currentTableFingerprints.get(tableName))) {
+        unchangedTableNames.add(tableName);
+      }
+    }
+
+    // Tables that were retrieved for the baseline catalog, but are not in
+    // it, were excluded by grep. They are excluded again if they have not
+    // changed, unless related tables are included along with grepped tables.
+    final Collection<MutableTable> baselineTables =
+        ((MutableCatalog) baselineCatalog).getAllTables().values();
+    final Set<String> baselineTableNames = new HashSet<>();
+    for (final MutableTable baselineTable : baselineTables) {
+      baselineTableNames.add(baselineTable.getFullName());
+    }
+    final Set<String> excludedTableNames = new HashSet<>();
+    if (isExcludedTablesReusable()) {
+      for (final String tableName : unchangedTableNames) {
+        if (!baselineTableNames.contains(tableName)) {
+          excludedTableNames.add(tableName);
+        }
+      }
+    }
+
+    // Related tables, in both directions for foreign keys, and from views
+    // to the tables that they use, and the reverse, which are the tables
+    // that are crawled again when a table is crawled again. An excluded
+    // table is related to every table that refers to it, since it is
+    // needed if any of them is crawled.
+    final Map<Table, Collection<Table>> relatedTables = new IdentityHashMap<>();
+    final Map<Table, Collection<Table>> dependentTables = new IdentityHashMap<>();
+    final Set<Table> unchangedTables = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (final MutableTable baselineTable : baselineTables) {
+      if (unchangedTableNames.contains(baselineTable.getFullName())) {
+        unchangedTables.add(baselineTable);
+      }
+      final Collection<Table> tableRelatedTables = relatedTables(baselineTable);
+      relatedTables
+          .computeIfAbsent(baselineTable, table -> new ArrayList<>())
+          .addAll(tableRelatedTables);
+      for (final Table relatedTable : tableRelatedTables) {
+        dependentTables
+            .computeIfAbsent(relatedTable, table -> new ArrayList<>())
+            .add(baselineTable);
+        if (relatedTable instanceof MutableTable
+            && !baselineTableNames.contains(relatedTable.getFullName())) {
+          relatedTables
+              .computeIfAbsent(relatedTable, table -> new ArrayList<>())
+              .add(baselineTable);
+          dependentTables
+              .computeIfAbsent(baselineTable, table -> new ArrayList<>())
+              .add(relatedTable);
+          if (excludedTableNames.contains(relatedTable.getFullName())) {
+            unchangedTables.add(relatedTable);
+          }
+        }
+      }
+    }
+
+    // Start with all unchanged tables, and then remove tables that are
+    // related to changed tables, and in turn tables that are related to them
+    final Deque<Table> changedTables = new ArrayDeque<>();
+    for (final Table unchangedTable : unchangedTables) {
+      for (final Table relatedTable :
+          relatedTables.getOrDefault(unchangedTable, Collections.emptyList())) {
+        // Partial tables are outside the crawl, and never change
+        if (relatedTable instanceof MutableTable && !unchangedTables.contains(relatedTable)) {
+          changedTables.add(unchangedTable);
+          break;
+        }
+      }
+    }
+    while (!changedTables.isEmpty()) {
+      final Table changedTable = changedTables.remove();
+      if (unchangedTables.remove(changedTable)) {
+        for (final Table dependentTable :
+            dependentTables.getOrDefault(changedTable, Collections.emptyList())) {
+          if (unchangedTables.contains(dependentTable)) {
+            changedTables.add(dependentTable);
+          }
+        }
+      }
+    }
+
+    final List<MutableTable> reusedTables = new ArrayList<>();
+    for (final MutableTable baselineTable : baselineTables) {
+      if (unchangedTables.contains(baselineTable)) {
+        reusedTables.add(baselineTable);
+      }
+    }
+    for (final Table relatedTable : relatedTables.keySet()) {
+      if (!unchangedTables.contains(relatedTable)) {
+        excludedTableNames.remove(relatedTable.getFullName());
+      }
+    }
+
+    // User-defined column data types of the columns of excluded tables
+    // are not retrieved, since the tables are not crawled
+    if (!excludedTableNames.isEmpty()) {
+      final List<MutableColumnDataType> baselineColumnDataTypes = new ArrayList<>();
+      for (final ColumnDataType columnDataType : baselineCatalog.getColumnDataTypes()) {
+        if (columnDataType instanceof MutableColumnDataType
+            && !catalog
+                .lookupColumnDataType(columnDataType.getSchema(), columnDataType.getName())
+                .isPresent()) {
+          baselineColumnDataTypes.add((MutableColumnDataType) columnDataType);
+        }
+      }
+      for (final MutableColumnDataType columnDataType :
+          copy(baselineColumnDataTypes.toArray(new MutableColumnDataType[0]))) {
+        catalog.addColumnDataType(columnDataType);
+      }
+    }
+
+    final List<MutableTable> copiedTables =
+        copy(reusedTables.toArray(new MutableTable[reusedTables.size()]));
+    catalog.reuseTables(copiedTables);
+    for (final MutableTable copiedTable : copiedTables) {
+      crawlTables.remove(copiedTable);
+    }
+    for (final MutableTable table : allTables.values()) {
+      if (excludedTableNames.contains(table.getFullName())) {
+        allTables.remove(table);
+        crawlTables.remove(table);
+      }
+    }
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Reusing %d unchanged tables from baseline catalog, excluding %d unchanged tables that were excluded from it, and crawling %d tables",
+            copiedTables.size(), excludedTableNames.size(), crawlTables.size()));
+    return crawlTables;
+  }
+
+  /**
+   * Tables that were excluded by grep are excluded again for the same options, if they have not
+   * changed. This is not the case when tables related to grepped tables are also included, since
+   * then whether a table is excluded depends on other tables.
+   *
+   * @return Whether unchanged excluded tables can be excluded without being crawled
+   */
+  private boolean isExcludedTablesReusable() {
+    final FilterOptions filterOptions = options.getFilterOptions();
+    return filterOptions.getChildTableFilterDepth() <= 0
+        && filterOptions.getParentTableFilterDepth() <= 0;
+  }
+
+  /**
+   * Computes a fingerprint of each table that has been retrieved, together with the results of the
+   * table changes query for that table.
+   *
+   * @param allTables Tables that have been retrieved, before any filtering
+   * @return Fingerprints by table full name, or empty if there is no table changes query for the
+   *     database
+   */
+  private Optional<Map<String, String>> retrieveTableFingerprints(
+      final NamedObjectList<MutableTable> allTables) throws SQLException {
+    final InformationSchemaViews informationSchemaViews =
+        getRetrieverConnection().getInformationSchemaViews();
+    if (!informationSchemaViews.hasQuery(EXT_TABLE_CHANGES)) {
+      LOGGER.log(Level.INFO, "No table changes SQL provided");
+      return Optional.empty();
+    }
+
+    final Map<MutableTable, SortedSet<String>> tableChanges = new HashMap<>();
+    final Query tableChangesSql = informationSchemaViews.getQuery(EXT_TABLE_CHANGES);
+    try (final Statement statement = createStatement();
+        final MetadataResultSet results =
+            new MetadataResultSet(tableChangesSql, statement, getSchemaInclusionRule())) {
+      results.setDescription("retrieveTableChanges");
+      while (results.next()) {
+        final String catalogName = normalizeCatalogName(results.getString("TABLE_CATALOG"));
+        final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEMA"));
+        final String tableName = results.getString("TABLE_NAME");
+        final Optional<MutableTable> tableOptional =
+            allTables.lookup(new NamedObjectKey(catalogName, schemaName, tableName));
+        if (tableOptional.isPresent()) {
+          tableChanges
+              .computeIfAbsent(tableOptional.get(), table -> new TreeSet<>())
+              .add(new TreeMap<>(results.getAttributes()).toString());
+        }
+      }
+    } catch (final SQLException e) {
+      throw new SchemaCrawlerSQLException(
+          "Could not retrieve table changes from SQL:\n" + tableChangesSql, e);
+    }
+
+    final Map<String, String> tableFingerprints = new TreeMap<>();
+    for (final MutableTable table : allTables) {
+      final CrawlFingerprint fingerprint =
+          new CrawlFingerprint()
+              .add("table", table.getFullName())
+              .add("type", table.getTableType())
+              .add("remarks", table.getRemarks());
+      for (final String change : tableChanges.getOrDefault(table, Collections.emptySortedSet())) {
+        fingerprint.add("change", change);
+      }
+      tableFingerprints.put(table.getFullName(), fingerprint.fingerprint());
+    }
+    return Optional.of(tableFingerprints);
+  }
+}
@@ -35,7 +35,6 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.TABLE_COLUMNS;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy;
 import static us.fatehi.utility.Utility.isBlank;
 
-import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -51,6 +50,7 @@ import schemacrawler.filter.InclusionRuleFilter;
 import schemacrawler.inclusionrule.InclusionRule;
 import schemacrawler.schema.Column;
 import schemacrawler.schema.NamedObjectKey;
+import schemacrawler.schema.Schema;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.Query;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
@@ -101,6 +101,12 @@ final class TableColumnRetriever extends AbstractRetriever {
         retrieveTableColumnsFromMetadata(allTables, columnFilter, hiddenTableColumnsLookupKeys);
         break;
 
+      case metadata_all:
+        LOGGER.log(Level.INFO, "Retrieving table columns, for all tables in each schema");
+        retrieveTableColumnsFromMetadataForAllTables(
+            allTables, columnFilter, hiddenTableColumnsLookupKeys);
+        break;
+
       default:
         LOGGER.log(Level.INFO, "Not retrieving table columns");
         break;
@@ -182,7 +188,7 @@ final class TableColumnRetriever extends AbstractRetriever {
         column.setDefaultValue(defaultValue);
       }
 
-      column.addAttributes(results.getAttributes());
+      addAttributes(column, results);
 
       LOGGER.log(
           Level.FINER,
@@ -215,8 +221,7 @@ final class TableColumnRetriever extends AbstractRetriever {
       return hiddenTableColumnsLookupKeys;
     }
     final Query hiddenColumnsSql = informationSchemaViews.getQuery(EXT_HIDDEN_TABLE_COLUMNS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(hiddenColumnsSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveHiddenColumns");
@@ -254,8 +259,7 @@ final class TableColumnRetriever extends AbstractRetriever {
       throw new SchemaCrawlerSQLException("No table columns SQL provided", null);
     }
     final Query tableColumnsSql = informationSchemaViews.getQuery(TABLE_COLUMNS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(tableColumnsSql, statement, getSchemaInclusionRule())) {
       results.setDescription("retrieveTableColumnsFromDataDictionary");
@@ -291,4 +295,24 @@ final class TableColumnRetriever extends AbstractRetriever {
       }
     }
   }
+
+  private void retrieveTableColumnsFromMetadataForAllTables(
+      final NamedObjectList<MutableTable> allTables,
+      final InclusionRuleFilter<Column> columnFilter,
+      final Set<List<String>> hiddenTableColumnsLookupKeys)
+      throws SchemaCrawlerSQLException {
+    for (final Schema schema : getTableSchemas(allTables)) {
+      LOGGER.log(Level.FINE, "Retrieving table columns for schema " + schema);
+      try (final MetadataResultSet results =
+          new MetadataResultSet(
+              getMetaData().getColumns(schema.getCatalogName(), schema.getName(), null, null))) {
+        while (results.next()) {
+          createTableColumn(results, allTables, columnFilter, hiddenTableColumnsLookupKeys);
+        }
+      } catch (final SQLException e) {
+        throw new SchemaCrawlerSQLException(
+            String.format("Could not retrieve table columns for schema <%s>", schema), e);
+      }
+    }
+  }
 }
@@ -33,7 +33,6 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.CHECK_CONSTRAINTS
 import static schemacrawler.schemacrawler.InformationSchemaKey.CONSTRAINT_COLUMN_USAGE;
 import static schemacrawler.schemacrawler.InformationSchemaKey.TABLE_CONSTRAINTS;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
@@ -96,8 +95,6 @@ final class TableConstraintRetriever extends AbstractRetriever {
     final InformationSchemaViews informationSchemaViews =
         getRetrieverConnection().getInformationSchemaViews();
 
-    final Connection connection = getDatabaseConnection();
-
     if (!informationSchemaViews.hasQuery(CHECK_CONSTRAINTS)) {
       LOGGER.log(Level.FINE, "Extended table constraints SQL statement was not provided");
       return;
@@ -106,7 +103,7 @@ final class TableConstraintRetriever extends AbstractRetriever {
         informationSchemaViews.getQuery(CHECK_CONSTRAINTS);
 
     // Get check constraint definitions
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(
                 extTableConstraintInformationSql, statement, getSchemaInclusionRule())) {
@@ -129,7 +126,7 @@ final class TableConstraintRetriever extends AbstractRetriever {
         }
         tableConstraint.appendDefinition(definition);
 
-        tableConstraint.addAttributes(results.getAttributes());
+        addAttributes(tableConstraint, results);
       }
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve check constraints", e);
@@ -146,17 +143,14 @@ final class TableConstraintRetriever extends AbstractRetriever {
     final InformationSchemaViews informationSchemaViews =
         getRetrieverConnection().getInformationSchemaViews();
 
-    final Connection connection = getDatabaseConnection();
-
-    createTableConstraints(connection, tableConstraintsMap, informationSchemaViews);
+    createTableConstraints(tableConstraintsMap, informationSchemaViews);
 
     if (!tableConstraintsMap.isEmpty()) {
-      retrieveTableConstraintsColumns(connection, tableConstraintsMap, informationSchemaViews);
+      retrieveTableConstraintsColumns(tableConstraintsMap, informationSchemaViews);
     }
   }
 
   private void createTableConstraints(
-      final Connection connection,
       final Map<List<String>, MutableTableConstraint> tableConstraintsMap,
       final InformationSchemaViews informationSchemaViews) {
     if (!informationSchemaViews.hasQuery(TABLE_CONSTRAINTS)) {
@@ -165,7 +159,7 @@ final class TableConstraintRetriever extends AbstractRetriever {
     }
 
     final Query tableConstraintsInformationSql = informationSchemaViews.getQuery(TABLE_CONSTRAINTS);
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(
                 tableConstraintsInformationSql, statement, getSchemaInclusionRule())) {
@@ -199,7 +193,7 @@ final class TableConstraintRetriever extends AbstractRetriever {
         tableConstraint.setDeferrable(deferrable);
         tableConstraint.setInitiallyDeferred(initiallyDeferred);
 
-        tableConstraint.addAttributes(results.getAttributes());
+        addAttributes(tableConstraint, results);
 
         // Add constraint to table
         table.addTableConstraint(tableConstraint);
@@ -257,7 +251,6 @@ final class TableConstraintRetriever extends AbstractRetriever {
   }
 
   private void retrieveTableConstraintsColumns(
-      final Connection connection,
       final Map<List<String>, MutableTableConstraint> tableConstraintsMap,
       final InformationSchemaViews informationSchemaViews) {
     if (!informationSchemaViews.hasQuery(CONSTRAINT_COLUMN_USAGE)) {
@@ -267,7 +260,7 @@ final class TableConstraintRetriever extends AbstractRetriever {
     final Query tableConstraintsColumnsInformationSql =
         informationSchemaViews.getQuery(CONSTRAINT_COLUMN_USAGE);
 
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(
                 tableConstraintsColumnsInformationSql, statement, getSchemaInclusionRule())) {
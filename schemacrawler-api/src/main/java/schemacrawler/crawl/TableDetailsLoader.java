@@ -0,0 +1,330 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForColumnInclusion;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalColumnAttributes;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalColumnMetadata;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalTableAttributes;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveForeignKeys;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveIndexInformation;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveIndexes;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTableColumnPrivileges;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTableColumns;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTableConstraintDefinitions;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTableConstraintInformation;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTableDefinitionsInformation;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTablePrivileges;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTriggerInformation;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveViewInformation;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveViewTableUsage;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import schemacrawler.SchemaCrawlerLogger;
+import schemacrawler.schemacrawler.LimitOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Retrieves table details when they are first accessed, for catalogs that are crawled with lazy
+ * loading of table details. Columns are retrieved first, and primary keys, foreign keys and indexes
+ * next, one table at a time, using metadata calls for just that table. Table information that is
+ * obtained from the data dictionary for all tables at once, such as triggers, definitions,
+ * privileges and table constraints, is retrieved for all tables, the first time that it is needed
+ * for any table.
+ *
+ * <p>Each load uses a new connection from the connection supplier, which is closed once the load
+ * completes. Loads are serialized, so that tables which refer to each other can be loaded safely
+ * from multiple threads. Once a table is loaded, the table no longer calls the loader, and once
+ * table information is loaded for all tables, the loader is cleared from every table.
+ *
+ * <p>Loading foreign keys for a table looks up columns in the tables that they refer to. If the
+ * columns of a referenced table are not yet loaded, they are loaded during that lookup, on the same
+ * thread, while the lock is held. This nested load takes a second connection from the connection
+ * supplier while the first one is still open, so the supplier needs to be able to provide at least
+ * two connections at a time.
+ */
+final class TableDetailsLoader {
+
+  @FunctionalInterface
+  private interface LoadTask {
+    void run(RetrieverConnection retrieverConnection) throws Exception;
+  }
+
+  private static final SchemaCrawlerLogger LOGGER =
+      SchemaCrawlerLogger.getLogger(TableDetailsLoader.class.getName());
+
+  private final MutableCatalog catalog;
+  private final Supplier<Connection> connectionSupplier;
+  private final SchemaCrawlerOptions options;
+  private final RetrieverConnection retrieverConnection;
+  private final SchemaRetrievalOptions metadataRetrievalOptions;
+  private final Set<MutableTable> columnsLoaded;
+  private final Set<MutableTable> keysLoaded;
+  private boolean isTableInformationLoaded;
+
+  TableDetailsLoader(
+      final RetrieverConnection retrieverConnection,
+      final Supplier<Connection> connectionSupplier,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final MutableCatalog catalog,
+      final SchemaCrawlerOptions options) {
+    this.retrieverConnection = requireNonNull(retrieverConnection, "No connection provided");
+    requireNonNull(
+        schemaRetrievalOptions, "No database-specific schema retrieval overrides provided");
+    this.connectionSupplier = requireNonNull(connectionSupplier, "No connection supplier provided");
+    this.catalog = requireNonNull(catalog, "No catalog provided");
+    this.options = requireNonNull(options, "No SchemaCrawler options provided");
+
+    // Data dictionary queries retrieve details for all tables, so use
+    // metadata calls for the one table that is being loaded
+    metadataRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder(schemaRetrievalOptions)
+            .with(tableColumnsRetrievalStrategy, metadata)
+            .with(primaryKeysRetrievalStrategy, metadata)
+            .with(foreignKeysRetrievalStrategy, metadata)
+            .with(indexesRetrievalStrategy, metadata)
+            .toOptions();
+
+    columnsLoaded = new HashSet<>();
+    keysLoaded = new HashSet<>();
+  }
+
+  /**
+   * Retrieves columns for a table, if they have not already been retrieved.
+   *
+   * @param table Table to load
+   */
+  synchronized void loadColumns(final MutableTable table) {
+    loadColumns(table, Collections.singleton(table));
+  }
+
+  /**
+   * Retrieves columns, primary keys, foreign keys and indexes for a table, if they have not already
+   * been retrieved.
+   *
+   * @param table Table to load
+   */
+  synchronized void loadKeys(final MutableTable table) {
+    loadKeys(table, Collections.singleton(table));
+  }
+
+  /**
+   * Retrieves table information that is obtained for all tables at once, if it has not already been
+   * retrieved. All table columns and keys are retrieved first, since table information refers to
+   * them.
+   *
+   * @param table Table that needs the table information
+   */
+  synchronized void loadTableInformation(final MutableTable table) {
+    if (isTableInformationLoaded) {
+      return;
+    }
+    isTableInformationLoaded = true;
+
+    final NamedObjectList<MutableTable> allTables = catalog.getAllTables();
+    try {
+      loadKeys(table, allTables.values());
+      loadAllTableInformation(table, allTables);
+    } finally {
+      // All table details are retrieved, so tables do not need the loader any more
+      for (final MutableTable loadedTable : allTables) {
+        loadedTable.setTableDetailsLoader(null);
+      }
+    }
+  }
+
+  /**
+   * Runs a load on a new connection. Tables are marked as loaded before the load is run, so that
+   * retrievers can look up the tables that they are loading. Tables are not loaded again if the
+   * load fails.
+   */
+  private void load(
+      final String description,
+      final MutableTable table,
+      final NamedObjectList<MutableTable> tables,
+      final LoadTask task) {
+    LOGGER.log(
+        Level.FINE, new StringFormat("Loading %s for %d tables", description, tables.size()));
+    try (final Connection connection = connectionSupplier.get()) {
+      task.run(retrieverConnection.forConnection(connection, metadataRetrievalOptions));
+    } catch (final Exception e) {
+      throw new NotLoadedException(table, e);
+    }
+  }
+
+  private void loadAllTableInformation(
+      final MutableTable table, final NamedObjectList<MutableTable> allTables) {
+    final SchemaInfoLevel infoLevel = options.getLoadOptions().getSchemaInfoLevel();
+    load(
+        "table information",
+        table,
+        allTables,
+        taskConnection -> {
+          final TableConstraintRetriever constraintRetriever =
+              new TableConstraintRetriever(taskConnection, catalog, options);
+          if (infoLevel.is(retrieveTableConstraintInformation)) {
+            constraintRetriever.retrieveTableConstraintInformation();
+          }
+          constraintRetriever.matchTableConstraints(allTables);
+          if (infoLevel.is(retrieveTableConstraintDefinitions)) {
+            constraintRetriever.retrieveTableConstraintDefinitions();
+          }
+
+          final TableExtRetriever retrieverExtra =
+              new TableExtRetriever(taskConnection, catalog, options);
+          if (infoLevel.is(retrieveTriggerInformation)) {
+            retrieverExtra.retrieveTriggerInformation();
+          }
+          if (infoLevel.is(retrieveViewInformation)) {
+            retrieverExtra.retrieveViewInformation();
+          }
+          if (infoLevel.is(retrieveViewTableUsage)) {
+            retrieverExtra.retrieveViewTableUsage();
+          }
+          if (infoLevel.is(retrieveTableDefinitionsInformation)) {
+            retrieverExtra.retrieveTableDefinitions();
+          }
+          if (infoLevel.is(retrieveIndexInformation)) {
+            retrieverExtra.retrieveIndexInformation();
+          }
+          if (infoLevel.is(retrieveAdditionalTableAttributes)) {
+            retrieverExtra.retrieveAdditionalTableAttributes();
+          }
+          if (infoLevel.is(retrieveTablePrivileges)) {
+            retrieverExtra.retrieveTablePrivileges();
+          }
+          if (infoLevel.is(retrieveAdditionalColumnAttributes)) {
+            retrieverExtra.retrieveAdditionalColumnAttributes();
+          }
+          if (infoLevel.is(retrieveAdditionalColumnMetadata)) {
+            retrieverExtra.retrieveAdditionalColumnMetadata();
+          }
+          if (infoLevel.is(retrieveTableColumnPrivileges)) {
+            retrieverExtra.retrieveTableColumnPrivileges();
+          }
+        });
+  }
+
+  private void loadColumns(final MutableTable table, final Collection<MutableTable> tables) {
+    final NamedObjectList<MutableTable> loadTables = new NamedObjectList<>();
+    for (final MutableTable loadTable : tables) {
+      if (columnsLoaded.add(loadTable)) {
+        loadTables.add(loadTable);
+      }
+    }
+    if (loadTables.isEmpty()) {
+      return;
+    }
+
+    final SchemaInfoLevel infoLevel = options.getLoadOptions().getSchemaInfoLevel();
+    final LimitOptions limitOptions = options.getLimitOptions();
+    try {
+      if (!infoLevel.is(retrieveTableColumns)
+          || limitOptions.isExcludeAll(ruleForColumnInclusion)) {
+        return;
+      }
+      load(
+          "columns",
+          table,
+          loadTables,
+          taskConnection -> {
+            final TableColumnRetriever columnRetriever =
+                new TableColumnRetriever(taskConnection, catalog, options);
+            columnRetriever.retrieveTableColumns(
+                loadTables, limitOptions.get(ruleForColumnInclusion));
+          });
+    } finally {
+      for (final MutableTable loadedTable : loadTables) {
+        loadedTable.setColumnsLoaded();
+      }
+    }
+  }
+
+  private void loadKeys(final MutableTable table, final Collection<MutableTable> tables) {
+    loadColumns(table, tables);
+
+    final NamedObjectList<MutableTable> loadTables = new NamedObjectList<>();
+    for (final MutableTable loadTable : tables) {
+      if (keysLoaded.add(loadTable)) {
+        loadTables.add(loadTable);
+      }
+    }
+    if (loadTables.isEmpty()) {
+      return;
+    }
+
+    final SchemaInfoLevel infoLevel = options.getLoadOptions().getSchemaInfoLevel();
+    try {
+      if (!infoLevel.is(retrieveTableColumns)) {
+        return;
+      }
+      load(
+          "keys",
+          table,
+          loadTables,
+          taskConnection -> {
+            final PrimaryKeyRetriever primaryKeyRetriever =
+                new PrimaryKeyRetriever(taskConnection, catalog, options);
+            primaryKeyRetriever.retrievePrimaryKeys(loadTables);
+
+            if (infoLevel.is(retrieveForeignKeys)) {
+              final ForeignKeyRetriever fkRetriever =
+                  new ForeignKeyRetriever(taskConnection, catalog, options);
+              fkRetriever.retrieveForeignKeys(loadTables);
+            }
+
+            if (infoLevel.is(retrieveIndexes)) {
+              final IndexRetriever indexRetriever =
+                  new IndexRetriever(taskConnection, catalog, options);
+              indexRetriever.retrieveIndexes(loadTables);
+            }
+          });
+    } finally {
+      for (final MutableTable loadedTable : loadTables) {
+        loadedTable.setKeysLoaded();
+      }
+    }
+  }
+}
@@ -36,7 +36,6 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.TRIGGERS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.VIEWS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.VIEW_TABLE_USAGE;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Optional;
@@ -90,8 +89,7 @@ final class TableExtRetriever extends AbstractRetriever {
     }
     final Query columnAttributesSql = informationSchemaViews.getQuery(ADDITIONAL_COLUMN_ATTRIBUTES);
 
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(columnAttributesSql, statement, getSchemaInclusionRule())) {
 
@@ -136,6 +134,9 @@ final class TableExtRetriever extends AbstractRetriever {
 
     final NamedObjectList<MutableTable> tables = catalog.getAllTables();
     for (final MutableTable table : tables) {
+      if (catalog.isReusedTable(table)) {
+        continue;
+      }
       final NamedObjectList<MutableColumn> columns = table.getAllColumns();
       for (MutableColumn column : columns) {
         MutableColumnDataType columnDataType = (MutableColumnDataType) column.getColumnDataType();
@@ -181,8 +182,7 @@ final class TableExtRetriever extends AbstractRetriever {
     }
     final Query tableAttributesSql = informationSchemaViews.getQuery(ADDITIONAL_TABLE_ATTRIBUTES);
 
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(tableAttributesSql, statement, getSchemaInclusionRule())) {
 
@@ -228,8 +228,7 @@ final class TableExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving additional index information");
 
     final Query extIndexesInformationSql = informationSchemaViews.getQuery(EXT_INDEXES);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(extIndexesInformationSql, statement, getSchemaInclusionRule())) {
 
@@ -268,7 +267,7 @@ final class TableExtRetriever extends AbstractRetriever {
         index.appendDefinition(definition);
         index.setRemarks(remarks);
 
-        index.addAttributes(results.getAttributes());
+        addAttributes(index, results);
       }
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve index information", e);
@@ -302,8 +301,7 @@ final class TableExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving table definitions");
 
     final Query tableDefinitionsInformationSql = informationSchemaViews.getQuery(EXT_TABLES);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(
                 tableDefinitionsInformationSql, statement, getSchemaInclusionRule())) {
@@ -329,7 +327,7 @@ final class TableExtRetriever extends AbstractRetriever {
 
         table.appendDefinition(definition);
 
-        table.addAttributes(results.getAttributes());
+        addAttributes(table, results);
       }
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve table definitions", e);
@@ -362,8 +360,7 @@ final class TableExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving trigger definitions");
 
     final Query triggerInformationSql = informationSchemaViews.getQuery(TRIGGERS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(triggerInformationSql, statement, getSchemaInclusionRule())) {
 
@@ -410,7 +407,7 @@ final class TableExtRetriever extends AbstractRetriever {
         trigger.setActionOrientation(actionOrientation);
         trigger.setConditionTiming(conditionTiming);
 
-        trigger.addAttributes(results.getAttributes());
+        addAttributes(trigger, results);
         // Add trigger to the table
         table.addTrigger(trigger);
       }
@@ -438,8 +435,7 @@ final class TableExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving additional view information");
 
     final Query viewInformationSql = informationSchemaViews.getQuery(VIEWS);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(viewInformationSql, statement, getSchemaInclusionRule())) {
 
@@ -467,7 +463,7 @@ final class TableExtRetriever extends AbstractRetriever {
         view.setCheckOption(checkOption);
         view.setUpdatable(updatable);
 
-        view.addAttributes(results.getAttributes());
+        addAttributes(view, results);
       }
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve views", e);
@@ -493,8 +489,7 @@ final class TableExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving view table usage");
 
     final Query viewTableUsageSql = informationSchemaViews.getQuery(VIEW_TABLE_USAGE);
-    final Connection connection = getDatabaseConnection();
-    try (final Statement statement = connection.createStatement();
+    try (final Statement statement = createStatement();
         final MetadataResultSet results =
             new MetadataResultSet(viewTableUsageSql, statement, getSchemaInclusionRule())) {
 
@@ -519,7 +514,7 @@ final class TableExtRetriever extends AbstractRetriever {
         final String tableName = results.getString("TABLE_NAME");
 
         final Optional<MutableTable> tableOptional =
-            lookupTable(tableCatalogName, tableSchemaName, tableName);
+            lookupReferencedTable(tableCatalogName, tableSchemaName, tableName);
         if (!tableOptional.isPresent()) {
           LOGGER.log(
               Level.FINE,
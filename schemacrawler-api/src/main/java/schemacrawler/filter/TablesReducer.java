@@ -29,8 +29,11 @@ package schemacrawler.filter;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -46,6 +49,49 @@ import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 
 final class TablesReducer implements Reducer<Table> {
 
+  /**
+   * Parent and child tables of each table, worked out from its foreign keys only once, however many
+   * times the table is visited.
+   */
+  private static final class RelatedTables {
+
+    private final Map<Table, Set<Table>> childTables = new HashMap<>();
+    private final Map<Table, Set<Table>> parentTables = new HashMap<>();
+
+    Set<Table> get(final Table table, final TableRelationshipType tableRelationshipType) {
+      if (!parentTables.containsKey(table)) {
+        mapRelatedTables(table);
+      }
+      switch (tableRelationshipType) {
+        case parent:
+          return parentTables.get(table);
+        case child:
+          return childTables.get(table);
+        default:
+          return new HashSet<>();
+      }
+    }
+
+    private void mapRelatedTables(final Table table) {
+      final Set<Table> parents = new HashSet<>();
+      final Set<Table> children = new HashSet<>();
+      for (final ForeignKey foreignKey : table.getForeignKeys()) {
+        for (final ColumnReference columnReference : foreignKey) {
+          final Table parentTable = columnReference.getPrimaryKeyColumn().getParent();
+          final Table childTable = columnReference.getForeignKeyColumn().getParent();
+          if (table.equals(childTable)) {
+            parents.add(parentTable);
+          }
+          if (table.equals(parentTable)) {
+            children.add(childTable);
+          }
+        }
+      }
+      parentTables.put(table, parents);
+      childTables.put(table, children);
+    }
+  }
+
   private final SchemaCrawlerOptions options;
   private final Predicate<Table> tableFilter;
 
@@ -75,12 +121,15 @@ final class TablesReducer implements Reducer<Table> {
 
     // Add in referenced tables
     final FilterOptions filterOptions = options.getFilterOptions();
+    final RelatedTables relatedTables = new RelatedTables();
     final int childTableFilterDepth = filterOptions.getChildTableFilterDepth();
     final Collection<Table> childTables =
-        includeRelatedTables(TableRelationshipType.child, childTableFilterDepth, reducedTables);
+        includeRelatedTables(
+            TableRelationshipType.child, childTableFilterDepth, reducedTables, relatedTables);
     final int parentTableFilterDepth = filterOptions.getParentTableFilterDepth();
     final Collection<Table> parentTables =
-        includeRelatedTables(TableRelationshipType.parent, parentTableFilterDepth, reducedTables);
+        includeRelatedTables(
+            TableRelationshipType.parent, parentTableFilterDepth, reducedTables, relatedTables);
 
     final Set<Table> keepTables = new HashSet<>();
     keepTables.addAll(reducedTables);
@@ -100,18 +149,23 @@ final class TablesReducer implements Reducer<Table> {
   private Collection<Table> includeRelatedTables(
       final TableRelationshipType tableRelationshipType,
       final int depth,
-      final Set<Table> greppedTables) {
+      final Set<Table> greppedTables,
+      final RelatedTables relatedTables) {
     final Set<Table> includedTables = new HashSet<>();
     includedTables.addAll(greppedTables);
 
-    for (int i = 0; i < depth; i++) {
-      for (final Table table : new HashSet<>(includedTables)) {
-        for (final Table relatedTable : table.getRelatedTables(tableRelationshipType)) {
-          if (!isTablePartial(relatedTable)) {
-            includedTables.add(relatedTable);
+    // Breadth-first search, expanding only the tables that were newly included at each depth
+    Collection<Table> tablesAtDepth = greppedTables;
+    for (int i = 0; i < depth && !tablesAtDepth.isEmpty(); i++) {
+      final Collection<Table> tablesAtNextDepth = new ArrayList<>();
+      for (final Table table : tablesAtDepth) {
+        for (final Table relatedTable : relatedTables.get(table, tableRelationshipType)) {
+          if (!isTablePartial(relatedTable) && includedTables.add(relatedTable)) {
+            tablesAtNextDepth.add(relatedTable);
           }
         }
       }
+      tablesAtDepth = tablesAtNextDepth;
     }
 
     return includedTables;
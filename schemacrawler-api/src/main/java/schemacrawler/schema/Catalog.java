@@ -36,7 +36,8 @@ import java.util.Optional;
  *
  * @author Sualeh Fatehi
  */
-public interface Catalog extends NamedObject, AttributedObject, DescribedObject, Reducible {
+public interface Catalog
+    extends NamedObject, AttributedObject, DescribedObject, Reducible, Freezable {
 
   /**
    * Gets the column data types
@@ -0,0 +1,49 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.schema;
+
+/**
+ * An object that can be frozen, so that it can no longer be changed. A frozen object can be shared
+ * between threads without synchronization.
+ */
+public interface Freezable {
+
+  /**
+   * Freezes the object. Any further attempt to change the object throws an {@link
+   * UnsupportedOperationException}. Freezing an object that is already frozen has no effect.
+   */
+  void freeze();
+
+  /**
+   * Checks whether the object has been frozen.
+   *
+   * @return Whether the object is frozen
+   */
+  boolean isFrozen();
+}
@@ -30,11 +30,17 @@ package schemacrawler.schema;
 import java.io.Serializable;
 import java.util.Arrays;
 
+/**
+ * Key for looking up named objects. Keys are immutable, and cache their hash code, since the same
+ * keys are used for many lookups.
+ */
 public final class NamedObjectKey implements Serializable {
 
   private static final long serialVersionUID = -5008609072012459037L;
 
   private final String[] key;
+  // Cached hash code, which is computed again when the key is deserialized
+  private final transient int hash;
 
   public NamedObjectKey(final String... key) {
     if (key == null || key.length == 0) {
@@ -42,6 +48,18 @@ public final class NamedObjectKey implements Serializable {
     } else {
       this.key = Arrays.copyOf(key, key.length);
     }
+    hash = computeHashCode();
+  }
+
+  /**
+   * Creates a key from parts that are not shared, so they do not need to be copied.
+   *
+   * @param key Key parts, which are not copied
+   * @param hash Hash code of the key parts
+   */
+  private NamedObjectKey(final String[] key, final int hash) {
+    this.key = key;
+    this.hash = hash;
   }
 
   @Override
@@ -58,7 +76,7 @@ public final class NamedObjectKey implements Serializable {
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(key);
+    return hash;
   }
 
   @Override
@@ -70,6 +88,16 @@ public final class NamedObjectKey implements Serializable {
     final int currentLength = key.length;
     final String[] newKey = Arrays.copyOf(key, currentLength + 1);
     newKey[currentLength] = name;
-    return new NamedObjectKey(newKey);
+    // Extend the hash code in the same way as Arrays.hashCode, without going over the parts again
+    final int newHash = 31 * hash + (name == null ? 0 : name.hashCode());
+    return new NamedObjectKey(newKey, newHash);
+  }
+
+  private int computeHashCode() {
+    return Arrays.hashCode(key);
+  }
+
+  private Object readResolve() {
+    return new NamedObjectKey(key, computeHashCode());
   }
 }
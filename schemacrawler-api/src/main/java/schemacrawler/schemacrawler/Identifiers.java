@@ -33,11 +33,13 @@ import static us.fatehi.utility.Utility.isBlank;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.logging.Level;
@@ -59,8 +61,36 @@ public final class Identifiers {
 
   public static class Builder {
 
+    /**
+     * Reserved words and the identifier quote string obtained from a database connection. The
+     * connection is weakly referenced, so that it can be closed and discarded.
+     */
+    private static final class ConnectionIdentifiers {
+
+      private final WeakReference<Connection> connection;
+      private final Set<String> reservedWords;
+      private final String identifierQuoteString;
+
+      ConnectionIdentifiers(final Connection connection, final DatabaseMetaData metaData)
+          throws SQLException {
+        this.connection = new WeakReference<>(connection);
+        final Set<String> reservedWords = new HashSet<>(sql2003ReservedWords);
+        reservedWords.addAll(lookupReservedWords(metaData));
+        this.reservedWords = Collections.unmodifiableSet(reservedWords);
+        identifierQuoteString = metaData.getIdentifierQuoteString();
+      }
+    }
+
+    private static final Set<String> sql2003ReservedWords =
+        Collections.unmodifiableSet(loadSql2003ReservedWords());
+    // Identifiers for recently used connections, which are looked up by identity, since
+    // connection proxies do not always support equals and hashCode
+    private static final ConnectionIdentifiers[] recentConnectionIdentifiers =
+        new ConnectionIdentifiers[8];
+    private static int nextConnectionIdentifiers;
+
     /** Load a list of SQL 2003 reserved words, and normalize them by converting to uppercase. */
-    private static Collection<String> loadSql2003ReservedWords() {
+    private static Set<String> loadSql2003ReservedWords() {
       final Set<String> reservedWords = new HashSet<>();
       try (final BufferedReader reader =
           new BufferedReader(
@@ -82,8 +112,33 @@ public final class Identifiers {
       return toUpperCase(reservedWords);
     }
 
+    /**
+     * Looks up reserved words and the identifier quote string for a connection. These are obtained
+     * from database metadata only once for each connection.
+     */
+    private static ConnectionIdentifiers lookupConnectionIdentifiers(final Connection connection)
+        throws SQLException {
+      synchronized (recentConnectionIdentifiers) {
+        for (final ConnectionIdentifiers cachedIdentifiers : recentConnectionIdentifiers) {
+          if (cachedIdentifiers != null && cachedIdentifiers.connection.get() == connection) {
+            return cachedIdentifiers;
+          }
+        }
+      }
+
+      final DatabaseMetaData metaData =
+          requireNonNull(connection.getMetaData(), "No database metadata obtained");
+      final ConnectionIdentifiers identifiers = new ConnectionIdentifiers(connection, metaData);
+      synchronized (recentConnectionIdentifiers) {
+        recentConnectionIdentifiers[nextConnectionIdentifiers] = identifiers;
+        nextConnectionIdentifiers =
+            (nextConnectionIdentifiers + 1) % recentConnectionIdentifiers.length;
+      }
+      return identifiers;
+    }
+
     /** Lookup a list of reserved words for a database system, using database metadata. */
-    private static Collection<String> lookupReservedWords(final DatabaseMetaData metaData) {
+    private static Set<String> lookupReservedWords(final DatabaseMetaData metaData) {
       String sqlKeywords = "";
       try {
         sqlKeywords = metaData.getSQLKeywords();
@@ -94,8 +149,8 @@ public final class Identifiers {
       return toUpperCase(Arrays.asList(sqlKeywords.split(",")));
     }
 
-    private static Collection<String> toUpperCase(final Iterable<String> words) {
-      final Collection<String> upperCaseWords = new HashSet<>();
+    private static Set<String> toUpperCase(final Iterable<String> words) {
+      final Set<String> upperCaseWords = new HashSet<>();
       if (words != null) {
         for (final String word : words) {
           if (!isBlank(word)) {
@@ -106,12 +161,13 @@ public final class Identifiers {
       return upperCaseWords;
     }
 
-    private final Collection<String> reservedWords;
+    // Reserved words are shared, and not changed once they are created
+    private Set<String> reservedWords;
     private String identifierQuoteString;
     private IdentifierQuotingStrategy identifierQuotingStrategy;
 
     private Builder() {
-      reservedWords = loadSql2003ReservedWords();
+      reservedWords = sql2003ReservedWords;
       identifierQuotingStrategy =
           IdentifierQuotingStrategy.quote_if_special_characters_and_reserved_words;
     }
@@ -130,13 +186,18 @@ public final class Identifiers {
      */
     public Builder withConnection(final Connection connection) throws SQLException {
       requireNonNull(connection, "No connection provided");
-      final DatabaseMetaData metaData =
-          requireNonNull(connection.getMetaData(), "No database metadata obtained");
+      final ConnectionIdentifiers connectionIdentifiers = lookupConnectionIdentifiers(connection);
 
-      reservedWords.addAll(lookupReservedWords(metaData));
+      if (reservedWords == sql2003ReservedWords) {
+        reservedWords = connectionIdentifiers.reservedWords;
+      } else {
+        final Set<String> allReservedWords = new HashSet<>(reservedWords);
+        allReservedWords.addAll(connectionIdentifiers.reservedWords);
+        reservedWords = Collections.unmodifiableSet(allReservedWords);
+      }
 
       if (!isIdentifierQuoteStringSet()) {
-        final String metaDataIdentifierQuoteString = metaData.getIdentifierQuoteString();
+        final String metaDataIdentifierQuoteString = connectionIdentifiers.identifierQuoteString;
         if (metaDataIdentifierQuoteString != null) {
           identifierQuoteString = metaDataIdentifierQuoteString;
         }
@@ -229,7 +290,7 @@ public final class Identifiers {
 
   private final String identifierQuoteString;
   private final IdentifierQuotingStrategy identifierQuotingStrategy;
-  private final Collection<String> reservedWords;
+  private final Set<String> reservedWords;
 
   private Identifiers(final Builder builder) {
     if (builder.isIdentifierQuoteStringSet()) {
@@ -42,6 +42,7 @@ public enum InformationSchemaKey {
   EXT_INDEXES(METADATA_EXTENSION),
   EXT_SYNONYMS(METADATA_EXTENSION),
   EXT_TABLES(METADATA_EXTENSION),
+  EXT_TABLE_CHANGES(METADATA_EXTENSION),
   FOREIGN_KEYS(DATABASE_METADATA),
   FUNCTIONS(DATABASE_METADATA),
   FUNCTION_COLUMNS(DATABASE_METADATA),
@@ -29,14 +29,68 @@ package schemacrawler.schemacrawler;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
 import us.fatehi.utility.ObjectToString;
 
 public final class LoadOptions implements Options {
 
   private final SchemaInfoLevel schemaInfoLevel;
+  private final int maxThreads;
+  private final int maxMetadataConnections;
+  private final boolean isLazyTableDetails;
+  private final boolean isCaptureUnmappedAttributes;
+  private final Set<String> unmappedAttributesAllowlist;
 
-  LoadOptions(final SchemaInfoLevel schemaInfoLevel) {
+  LoadOptions(
+      final SchemaInfoLevel schemaInfoLevel,
+      final int maxThreads,
+      final int maxMetadataConnections,
+      final boolean isLazyTableDetails,
+      final boolean isCaptureUnmappedAttributes,
+      final Collection<String> unmappedAttributesAllowlist) {
     this.schemaInfoLevel = requireNonNull(schemaInfoLevel, "No schema info level provided");
+    this.maxThreads = maxThreads;
+    this.maxMetadataConnections = maxMetadataConnections;
+    this.isLazyTableDetails = isLazyTableDetails;
+    this.isCaptureUnmappedAttributes = isCaptureUnmappedAttributes;
+
+    requireNonNull(unmappedAttributesAllowlist, "No unmapped attributes allowlist provided");
+    final Set<String> allowlist = new HashSet<>();
+    for (final String attributeName : unmappedAttributesAllowlist) {
+      if (attributeName != null) {
+        allowlist.add(attributeName.toUpperCase(Locale.ENGLISH));
+      }
+    }
+    this.unmappedAttributesAllowlist = Collections.unmodifiableSet(allowlist);
+  }
+
+  /**
+   * Gets the maximum number of database connections that can be used to make metadata calls for
+   * individual tables and routines concurrently, when metadata cannot be retrieved for all of them
+   * at once. A value of 1 means that these calls are made one after another. Concurrent metadata
+   * calls are only possible if SchemaCrawler is provided with a way to obtain additional database
+   * connections.
+   *
+   * @return Maximum number of connections for concurrent metadata calls
+   */
+  public int getMaxMetadataConnections() {
+    return maxMetadataConnections;
+  }
+
+  /**
+   * Gets the maximum number of threads, and so the maximum number of database connections, that can
+   * be used to crawl concurrently. Concurrent crawling is only possible if SchemaCrawler is
+   * provided with a way to obtain additional database connections.
+   *
+   * @return Maximum number of threads.
+   */
+  public int getMaxThreads() {
+    return maxThreads;
   }
 
   /**
@@ -48,6 +102,39 @@ public final class LoadOptions implements Options {
     return schemaInfoLevel;
   }
 
+  /**
+   * Gets the names of metadata columns that are captured as attributes, when they are not mapped to
+   * properties of the database object. Names are in upper case. An empty allowlist means that all
+   * unmapped columns are captured.
+   *
+   * @return Names of unmapped columns to capture as attributes
+   */
+  public Set<String> getUnmappedAttributesAllowlist() {
+    return unmappedAttributesAllowlist;
+  }
+
+  /**
+   * Whether metadata columns that are not mapped to properties of database objects are captured as
+   * attributes. When switched off, no additional attributes are read while crawling table columns,
+   * keys, indexes, routines and other database objects.
+   *
+   * @return Whether unmapped columns are captured as attributes
+   */
+  public boolean isCaptureUnmappedAttributes() {
+    return isCaptureUnmappedAttributes;
+  }
+
+  /**
+   * Whether table details, such as columns, keys, indexes and triggers, are retrieved only when
+   * they are first accessed, rather than when the database is crawled. Lazy loading is only
+   * possible if SchemaCrawler is provided with a way to obtain additional database connections.
+   *
+   * @return Whether table details are loaded lazily
+   */
+  public boolean isLazyTableDetails() {
+    return isLazyTableDetails;
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
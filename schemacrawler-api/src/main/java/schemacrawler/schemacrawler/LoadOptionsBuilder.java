@@ -28,8 +28,13 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.schemacrawler;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuilder, LoadOptions> {
 
+  private static final int DEFAULT_MAX_THREADS = 5;
+
   public static LoadOptionsBuilder builder() {
     return new LoadOptionsBuilder();
   }
@@ -39,10 +44,20 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
   }
 
   private SchemaInfoLevel schemaInfoLevel;
+  private int maxThreads;
+  private int maxMetadataConnections;
+  private boolean isLazyTableDetails;
+  private boolean isCaptureUnmappedAttributes;
+  private Collection<String> unmappedAttributesAllowlist;
 
   /** Default options. */
   private LoadOptionsBuilder() {
     schemaInfoLevel = SchemaInfoLevelBuilder.standard();
+    maxThreads = DEFAULT_MAX_THREADS;
+    maxMetadataConnections = 1;
+    isLazyTableDetails = false;
+    isCaptureUnmappedAttributes = true;
+    unmappedAttributesAllowlist = new ArrayList<>();
   }
 
   @Override
@@ -52,13 +67,87 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
     }
 
     schemaInfoLevel = options.getSchemaInfoLevel();
+    maxThreads = options.getMaxThreads();
+    maxMetadataConnections = options.getMaxMetadataConnections();
+    isLazyTableDetails = options.isLazyTableDetails();
+    isCaptureUnmappedAttributes = options.isCaptureUnmappedAttributes();
+    unmappedAttributesAllowlist = new ArrayList<>(options.getUnmappedAttributesAllowlist());
 
     return this;
   }
 
   @Override
   public LoadOptions toOptions() {
-    return new LoadOptions(schemaInfoLevel);
+    return new LoadOptions(
+        schemaInfoLevel,
+        maxThreads,
+        maxMetadataConnections,
+        isLazyTableDetails,
+        isCaptureUnmappedAttributes,
+        unmappedAttributesAllowlist);
+  }
+
+  /**
+   * Whether metadata columns that are not mapped to properties of database objects are captured as
+   * attributes. Switching this off saves memory, and time, on large crawls.
+   *
+   * @param isCaptureUnmappedAttributes Whether to capture unmapped columns as attributes
+   * @return Builder
+   */
+  public LoadOptionsBuilder withCaptureUnmappedAttributes(
+      final boolean isCaptureUnmappedAttributes) {
+    this.isCaptureUnmappedAttributes = isCaptureUnmappedAttributes;
+    return this;
+  }
+
+  /**
+   * Retrieves table details, such as columns, keys, indexes and triggers, only when they are first
+   * accessed, rather than when the database is crawled. This speeds up crawls of large databases,
+   * when only a few tables are used. Table details are still retrieved during the crawl if they are
+   * needed to filter tables, or if SchemaCrawler is not provided with a way to obtain additional
+   * database connections.
+   *
+   * @param isLazyTableDetails Whether to load table details lazily
+   * @return Builder
+   */
+  public LoadOptionsBuilder withLazyTableDetails(final boolean isLazyTableDetails) {
+    this.isLazyTableDetails = isLazyTableDetails;
+    return this;
+  }
+
+  /**
+   * Allows metadata calls for individual tables and routines to be made concurrently, on up to the
+   * given number of database connections. This speeds up crawls of remote databases, where each
+   * call waits on the network, when metadata cannot be retrieved for all tables at once.
+   *
+   * @param maxMetadataConnections Maximum number of connections for concurrent metadata calls
+   * @return Builder
+   */
+  public LoadOptionsBuilder withMaxMetadataConnections(final int maxMetadataConnections) {
+    if (maxMetadataConnections > 0) {
+      this.maxMetadataConnections = maxMetadataConnections;
+    } else {
+      this.maxMetadataConnections = 1;
+    }
+    return this;
+  }
+
+  /**
+   * Allows independent phases of a crawl, such as retrieving columns, foreign keys and indexes, to
+   * run concurrently, on up to the given number of threads. Each thread uses its own database
+   * connection, so concurrent crawling is only possible if SchemaCrawler is provided with a way to
+   * obtain additional database connections.
+   *
+   * @param maxThreads Maximum number of threads for concurrent crawling
+   * @return Builder
+   */
+  public LoadOptionsBuilder withMaxThreads(final int maxThreads) {
+    if (maxThreads > 0) {
+      this.maxThreads = maxThreads;
+    } else {
+      this.maxThreads = 1;
+    }
+    return this;
   }
 
   public LoadOptionsBuilder withInfoLevel(final InfoLevel infoLevel) {
@@ -82,4 +171,22 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
     }
     return this;
   }
+
+  /**
+   * Captures only the named metadata columns as attributes, when they are not mapped to properties
+   * of database objects. Column names are not case-sensitive. A null or empty allowlist captures
+   * all unmapped columns.
+   *
+   * @param unmappedAttributesAllowlist Names of unmapped columns to capture as attributes
+   * @return Builder
+   */
+  public LoadOptionsBuilder withUnmappedAttributesAllowlist(
+      final Collection<String> unmappedAttributesAllowlist) {
+    if (unmappedAttributesAllowlist == null) {
+      this.unmappedAttributesAllowlist = new ArrayList<>();
+    } else {
+      this.unmappedAttributesAllowlist = new ArrayList<>(unmappedAttributesAllowlist);
+    }
+    return this;
+  }
 }
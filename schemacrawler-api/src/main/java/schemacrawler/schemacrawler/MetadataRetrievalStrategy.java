@@ -33,7 +33,14 @@ public enum MetadataRetrievalStrategy {
   // use JDBC metadata calls to retrieve information one database object at a time;
   // each JDBC driver decides how to honor these requests
   metadata,
+  // use JDBC metadata calls to retrieve information for all database objects in a
+  // schema together, falling back to one database object at a time if the JDBC
+  // driver does not allow a wildcard for table names
+  metadata_all,
   // use the INFORMATION_SCHEMA or database-specific data dictionary queries to
   // retrieve information for all database objects together
-  data_dictionary_all
+  data_dictionary_all,
+  // try each of the other strategies on successive crawls of the same database,
+  // and then use the one that took the least time for each object retrieved
+  adaptive
 }
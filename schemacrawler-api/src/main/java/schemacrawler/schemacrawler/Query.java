@@ -44,6 +44,7 @@ public final class Query implements Serializable {
 
   private final String name;
   private final String query;
+  private final int fetchSize;
 
   /**
    * Definition of a query, including a name, and parameterized or regular SQL.
@@ -52,8 +53,30 @@ public final class Query implements Serializable {
    * @param query Query SQL.
    */
   public Query(final String name, final String query) {
+    this(name, query, 0);
+  }
+
+  /**
+   * Definition of a query, including a name, parameterized or regular SQL, and a fetch size hint
+   * that overrides the one in the schema retrieval options.
+   *
+   * @param name Query name.
+   * @param query Query SQL.
+   * @param fetchSize Fetch size hint, or zero to use the default.
+   */
+  public Query(final String name, final String query, final int fetchSize) {
     this.name = requireNotBlank(name, "No query name provided");
     this.query = requireNotBlank(query, "No query SQL provided");
+    this.fetchSize = Math.max(fetchSize, 0);
+  }
+
+  /**
+   * Gets the fetch size hint for the query. Zero means that the default should be used.
+   *
+   * @return Fetch size hint
+   */
+  public int getFetchSize() {
+    return fetchSize;
   }
 
   /**
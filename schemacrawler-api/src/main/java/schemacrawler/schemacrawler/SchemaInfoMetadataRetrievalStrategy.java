@@ -28,23 +28,46 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.schemacrawler;
 
+import static schemacrawler.schemacrawler.InformationSchemaKey.FOREIGN_KEYS;
+import static schemacrawler.schemacrawler.InformationSchemaKey.FUNCTIONS;
+import static schemacrawler.schemacrawler.InformationSchemaKey.FUNCTION_COLUMNS;
+import static schemacrawler.schemacrawler.InformationSchemaKey.INDEXES;
+import static schemacrawler.schemacrawler.InformationSchemaKey.PRIMARY_KEYS;
+import static schemacrawler.schemacrawler.InformationSchemaKey.PROCEDURES;
+import static schemacrawler.schemacrawler.InformationSchemaKey.PROCEDURE_COLUMNS;
+import static schemacrawler.schemacrawler.InformationSchemaKey.TABLES;
+import static schemacrawler.schemacrawler.InformationSchemaKey.TABLE_COLUMNS;
+import static schemacrawler.schemacrawler.InformationSchemaKey.TYPE_INFO;
+
 public enum SchemaInfoMetadataRetrievalStrategy {
-  foreignKeysRetrievalStrategy("foreignkeys"),
-  functionParametersRetrievalStrategy("functionparameters"),
-  functionsRetrievalStrategy("functions"),
-  indexesRetrievalStrategy("indexes"),
-  primaryKeysRetrievalStrategy("primarykeys"),
-  proceduresRetrievalStrategy("procedures"),
-  procedureParametersRetrievalStrategy("procedureparameters"),
-  tableColumnsRetrievalStrategy("tablecolumns"),
-  tablesRetrievalStrategy("tables"),
-  typeInfoRetrievalStrategy("typeinfo"),
+  foreignKeysRetrievalStrategy("foreignkeys", FOREIGN_KEYS),
+  functionParametersRetrievalStrategy("functionparameters", FUNCTION_COLUMNS),
+  functionsRetrievalStrategy("functions", FUNCTIONS),
+  indexesRetrievalStrategy("indexes", INDEXES),
+  primaryKeysRetrievalStrategy("primarykeys", PRIMARY_KEYS),
+  proceduresRetrievalStrategy("procedures", PROCEDURES),
+  procedureParametersRetrievalStrategy("procedureparameters", PROCEDURE_COLUMNS),
+  tableColumnsRetrievalStrategy("tablecolumns", TABLE_COLUMNS),
+  tablesRetrievalStrategy("tables", TABLES),
+  typeInfoRetrievalStrategy("typeinfo", TYPE_INFO),
   ;
 
   private final String key;
+  private final InformationSchemaKey dataDictionaryKey;
 
-  SchemaInfoMetadataRetrievalStrategy(final String key) {
+  SchemaInfoMetadataRetrievalStrategy(
+      final String key, final InformationSchemaKey dataDictionaryKey) {
     this.key = key;
+    this.dataDictionaryKey = dataDictionaryKey;
+  }
+
+  /**
+   * Data dictionary query that is used for the data_dictionary_all retrieval strategy.
+   *
+   * @return Data dictionary query key
+   */
+  public InformationSchemaKey getDataDictionaryKey() {
+    return dataDictionaryKey;
   }
 
   public String getKey() {
@@ -54,6 +54,7 @@ public final class SchemaRetrievalOptions implements Options {
   private final boolean supportsSchemas;
   private final TypeMap typeMap;
   private final EnumDataTypeHelper enumDataTypeHelper;
+  private final int fetchSize;
   EnumMap<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>
       metadataRetrievalStrategyMap;
 
@@ -68,6 +69,7 @@ public final class SchemaRetrievalOptions implements Options {
     identifiers = bldr.identifiers;
     typeMap = bldr.overridesTypeMap.orElse(new TypeMap());
     enumDataTypeHelper = bldr.enumDataTypeHelper;
+    fetchSize = bldr.fetchSize;
     metadataRetrievalStrategyMap = new EnumMap<>(bldr.metadataRetrievalStrategyMap);
   }
 
@@ -86,6 +88,16 @@ public final class SchemaRetrievalOptions implements Options {
     return enumDataTypeHelper;
   }
 
+  /**
+   * Fetch size hint for data dictionary queries, unless the query overrides it. A value of zero
+   * leaves the JDBC driver default in place.
+   *
+   * @return Fetch size hint
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
   public String getIdentifierQuoteString() {
     if (!hasOverrideForIdentifierQuoteString()) {
       return "";
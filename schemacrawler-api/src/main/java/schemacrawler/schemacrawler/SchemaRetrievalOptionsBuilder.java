@@ -44,6 +44,8 @@ import schemacrawler.utility.TypeMap;
 public final class SchemaRetrievalOptionsBuilder
     implements OptionsBuilder<SchemaRetrievalOptionsBuilder, SchemaRetrievalOptions> {
 
+  private static final int DEFAULT_FETCH_SIZE = 1000;
+
   public static SchemaRetrievalOptionsBuilder builder() {
     return new SchemaRetrievalOptionsBuilder();
   }
@@ -66,6 +68,7 @@ public final class SchemaRetrievalOptionsBuilder
   boolean supportsCatalogs;
   boolean supportsSchemas;
   EnumDataTypeHelper enumDataTypeHelper;
+  int fetchSize;
   Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> metadataRetrievalStrategyMap;
 
   private SchemaRetrievalOptionsBuilder() {
@@ -79,6 +82,7 @@ public final class SchemaRetrievalOptionsBuilder
     identifiers = Identifiers.STANDARD;
     overridesTypeMap = Optional.empty();
     enumDataTypeHelper = NO_OP_ENUM_DATA_TYPE_HELPER;
+    fetchSize = DEFAULT_FETCH_SIZE;
 
     metadataRetrievalStrategyMap = new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
     for (final SchemaInfoMetadataRetrievalStrategy key :
@@ -133,6 +137,7 @@ public final class SchemaRetrievalOptionsBuilder
     identifiers = options.getIdentifiers();
     overridesTypeMap = Optional.empty();
     metadataRetrievalStrategyMap = options.getMetadataRetrievalStrategyMap();
+    fetchSize = options.getFetchSize();
 
     return this;
   }
@@ -203,6 +208,18 @@ public final class SchemaRetrievalOptionsBuilder
     return this;
   }
 
+  /**
+   * Sets the fetch size hint for data dictionary queries. Large data dictionaries benefit from a
+   * large fetch size, since every fetch is a round trip to the database server. A value of zero or
+   * less leaves the JDBC driver default in place.
+   *
+   * @param fetchSize Fetch size hint
+   */
+  public SchemaRetrievalOptionsBuilder withFetchSize(final int fetchSize) {
+    this.fetchSize = Math.max(fetchSize, 0);
+    return this;
+  }
+
   /**
    * Overrides the JDBC driver provided information about the identifier quote string.
    *
@@ -0,0 +1,213 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static schemacrawler.crawl.AdaptiveRetrievalStrategies.databaseKey;
+import static schemacrawler.crawl.AdaptiveRetrievalStrategies.getAdaptiveRetrievalStrategies;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.adaptive;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_all;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tablesRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.typeInfoRetrievalStrategy;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import us.fatehi.utility.IOUtility;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class AdaptiveRetrievalStrategiesTest {
+
+  private static final List<MetadataRetrievalStrategy> candidates =
+      asList(data_dictionary_all, metadata_all, metadata);
+
+  @BeforeEach
+  @AfterEach
+  public void clearTimings() {
+    getAdaptiveRetrievalStrategies().clear();
+  }
+
+  @Test
+  @DisplayName("Try each strategy, then use the fastest")
+  public void chooseFastest() throws Exception {
+    final AdaptiveRetrievalStrategies strategies = getAdaptiveRetrievalStrategies();
+    final String databaseKey = databaseKey("jdbc:test:db");
+
+    assertThat(
+        strategies.choose(databaseKey, tableColumnsRetrievalStrategy, candidates),
+        is(data_dictionary_all));
+    strategies.record(databaseKey, tableColumnsRetrievalStrategy, data_dictionary_all, 0, 10, true);
+    assertThat(
+        strategies.choose(databaseKey, tableColumnsRetrievalStrategy, candidates),
+        is(metadata_all));
+    strategies.record(databaseKey, tableColumnsRetrievalStrategy, metadata_all, 50, 10, false);
+    assertThat(
+        strategies.choose(databaseKey, tableColumnsRetrievalStrategy, candidates), is(metadata));
+    strategies.record(databaseKey, tableColumnsRetrievalStrategy, metadata, 200, 10, false);
+
+    // Failed strategy is not used again, even though it was fastest
+    assertThat(
+        strategies.choose(databaseKey, tableColumnsRetrievalStrategy, candidates),
+        is(metadata_all));
+    // Timings for one database do not affect another database
+    assertThat(
+        strategies.choose(
+            databaseKey("jdbc:test:otherdb"), tableColumnsRetrievalStrategy, candidates),
+        is(data_dictionary_all));
+  }
+
+  @Test
+  @DisplayName("Offer metadata_all only where it retrieves metadata for all tables at once")
+  public void candidates(final Connection connection) throws Exception {
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(
+            connection, SchemaRetrievalOptionsBuilder.newSchemaRetrievalOptions());
+
+    assertThat(
+        retrieverConnection.adaptiveCandidates(tableColumnsRetrievalStrategy),
+        contains(metadata_all, metadata));
+    assertThat(retrieverConnection.adaptiveCandidates(tablesRetrievalStrategy), contains(metadata));
+    assertThat(
+        retrieverConnection.adaptiveCandidates(typeInfoRetrievalStrategy), contains(metadata));
+  }
+
+  @Test
+  @DisplayName("Save and load timings, without database URLs")
+  public void saveAndLoad() throws Exception {
+    final AdaptiveRetrievalStrategies strategies = getAdaptiveRetrievalStrategies();
+    final String databaseKey = databaseKey("jdbc:test:db;password=secret");
+    strategies.record(databaseKey, tableColumnsRetrievalStrategy, metadata, 20, 10, false);
+    strategies.record(databaseKey, tableColumnsRetrievalStrategy, metadata_all, 10, 10, false);
+    strategies.record(databaseKey, tableColumnsRetrievalStrategy, data_dictionary_all, 0, 10, true);
+
+    final StringWriter writer = new StringWriter();
+    strategies.save(writer);
+    final String saved = writer.toString();
+    assertThat(saved, containsString(databaseKey + ".tablecolumns.metadata_all=1.0"));
+    assertThat(saved, not(containsString("secret")));
+    assertThat(databaseKey.length(), is(64));
+
+    strategies.clear();
+    assertThat(
+        strategies.choose(databaseKey, tableColumnsRetrievalStrategy, candidates),
+        is(data_dictionary_all));
+
+    strategies.load(new StringReader(saved));
+    assertThat(
+        strategies.choose(databaseKey, tableColumnsRetrievalStrategy, candidates),
+        is(metadata_all));
+  }
+
+  @Test
+  @DisplayName("Crawl with an adaptive table columns retrieval strategy")
+  public void adaptiveCrawl(final Connection connection) throws Exception {
+    final InformationSchemaViews informationSchemaViews =
+        InformationSchemaViewsBuilder.builder()
+            .withSql(
+                InformationSchemaKey.TABLE_COLUMNS,
+                IOUtility.readResourceFully("/TABLE_COLUMNS.sql"))
+            .toOptions();
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(tableColumnsRetrievalStrategy, adaptive)
+            .withInformationSchemaViews(informationSchemaViews)
+            .toOptions();
+    final SchemaCrawlerOptions options =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLimitOptions(
+                LimitOptionsBuilder.builder()
+                    .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"))
+                    .toOptions())
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withSchemaInfoLevel(SchemaInfoLevelBuilder.standard())
+                    .toOptions());
+    final String databaseKey = databaseKey(connection.getMetaData().getURL());
+
+    // Each strategy is tried in turn, and all of them retrieve the same columns
+    int expectedColumnCount = -1;
+    for (final MetadataRetrievalStrategy candidate : candidates) {
+      final Catalog catalog =
+          new SchemaCrawler(connection, schemaRetrievalOptions, options).crawl();
+      final int columnCount = countColumns(catalog);
+      if (expectedColumnCount == -1) {
+        expectedColumnCount = columnCount;
+      }
+      assertThat(candidate.name(), columnCount, is(expectedColumnCount));
+
+      final StringWriter writer = new StringWriter();
+      getAdaptiveRetrievalStrategies().save(writer);
+      assertThat(
+          writer.toString(),
+          containsString(String.format("%s.tablecolumns.%s=", databaseKey, candidate)));
+    }
+
+    // Once all strategies are timed, the fastest one is used
+    final Catalog catalog = new SchemaCrawler(connection, schemaRetrievalOptions, options).crawl();
+    assertThat(countColumns(catalog), is(expectedColumnCount));
+  }
+
+  private int countColumns(final Catalog catalog) {
+    int columnCount = 0;
+    for (final Table table : catalog.getTables()) {
+      columnCount = columnCount + table.getColumns().size();
+    }
+    return columnCount;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schemacrawler.GrepOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
+
+public class CrawlFingerprintTest {
+
+  private static String fingerprint(
+      final SchemaCrawlerOptions options, final SchemaRetrievalOptions schemaRetrievalOptions) {
+    return new CrawlFingerprint()
+        .addOptions(options)
+        .addRetrievalOptions(schemaRetrievalOptions)
+        .fingerprint();
+  }
+
+  private static SchemaCrawlerOptions grepOptions(final String pattern) {
+    return SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+        .withGrepOptions(
+            GrepOptionsBuilder.builder()
+                .includeGreppedColumns(Pattern.compile(pattern))
+                .toOptions());
+  }
+
+  @Test
+  public void changedOptions() {
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.newSchemaRetrievalOptions();
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+    final String fingerprint = fingerprint(options, schemaRetrievalOptions);
+
+    assertThat(fingerprint(grepOptions(".*ID"), schemaRetrievalOptions), is(not(fingerprint)));
+    assertThat(
+        fingerprint(
+            options.withLoadOptions(
+                LoadOptionsBuilder.builder().withLazyTableDetails(true).toOptions()),
+            schemaRetrievalOptions),
+        is(not(fingerprint)));
+    assertThat(
+        fingerprint(
+            options,
+            SchemaRetrievalOptionsBuilder.builder()
+                .with(
+                    SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy,
+                    MetadataRetrievalStrategy.data_dictionary_all)
+                .toOptions()),
+        is(not(fingerprint)));
+  }
+
+  @Test
+  public void sameOptions() {
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.newSchemaRetrievalOptions();
+
+    // Options that are built separately, with the same settings, have the
+    // same fingerprint, even though their string representations differ
+    assertThat(
+        fingerprint(grepOptions(".*ID"), schemaRetrievalOptions),
+        is(fingerprint(grepOptions(".*ID"), schemaRetrievalOptions)));
+
+    // Settings that do not change the crawled catalog are ignored
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+    assertThat(
+        fingerprint(
+            options.withLoadOptions(LoadOptionsBuilder.builder().withMaxThreads(4).toOptions()),
+            schemaRetrievalOptions),
+        is(fingerprint(options, schemaRetrievalOptions)));
+  }
+}
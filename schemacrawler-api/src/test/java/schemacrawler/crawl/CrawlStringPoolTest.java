@@ -0,0 +1,133 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Column;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.test.utility.TestUtility;
+import us.fatehi.utility.scheduler.TaskDefinition.TaskRunnable;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class CrawlStringPoolTest {
+
+  @Test
+  public void intern() {
+    final String value = new String("TABLE_NAME");
+
+    // No current pool
+    assertThat(CrawlStringPool.intern(value), is(sameInstance(value)));
+
+    final CrawlStringPool stringPool = new CrawlStringPool();
+    final CrawlStringPool previousStringPool = stringPool.enter();
+    try {
+      assertThat(CrawlStringPool.intern(value), is(sameInstance(value)));
+      assertThat(CrawlStringPool.intern(new String("TABLE_NAME")), is(sameInstance(value)));
+      assertThat(stringPool.size(), is(1));
+    } finally {
+      CrawlStringPool.exit(previousStringPool);
+    }
+
+    // Pool is no longer current
+    assertThat(CrawlStringPool.intern(new String("TABLE_NAME")), is(not(sameInstance(value))));
+  }
+
+  @Test
+  public void inCurrentPool() throws Exception {
+    final String value = new String("COLUMN_NAME");
+    final String[] pooledValue = new String[1];
+
+    final CrawlStringPool previousStringPool = new CrawlStringPool().enter();
+    try {
+      CrawlStringPool.intern(value);
+      // Pool is captured on this thread, and used on another thread
+      final TaskRunnable task =
+          CrawlStringPool.inCurrentPool(
+              () -> pooledValue[0] = CrawlStringPool.intern(new String("COLUMN_NAME")));
+      final Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  task.run();
+                } catch (final Exception e) {
+                  throw new RuntimeException(e);
+                }
+              });
+      thread.start();
+      thread.join();
+    } finally {
+      CrawlStringPool.exit(previousStringPool);
+    }
+
+    assertThat(pooledValue[0], is(sameInstance(value)));
+  }
+
+  @Test
+  public void crawledNamesArePooled(final Connection connection) throws Exception {
+    final SchemaCrawlerOptions options =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLimitOptions(
+                LimitOptionsBuilder.builder()
+                    .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"))
+                    .toOptions());
+    final Catalog catalog =
+        new SchemaCrawler(connection, TestUtility.newSchemaRetrievalOptions(), options).crawl();
+
+    final Map<String, String> names = new HashMap<>();
+    int repeatedNameCount = 0;
+    for (final Table table : catalog.getTables()) {
+      for (final Column column : table.getColumns()) {
+        final String name = column.getName();
+        final String pooledName = names.putIfAbsent(name, name);
+        if (pooledName != null) {
+          assertThat(column.getFullName(), name, is(sameInstance(pooledName)));
+          repeatedNameCount = repeatedNameCount + 1;
+        }
+      }
+    }
+    assertThat(repeatedNameCount, is(greaterThan(0)));
+  }
+}
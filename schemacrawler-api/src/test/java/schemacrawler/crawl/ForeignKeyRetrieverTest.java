@@ -34,6 +34,8 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_all;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy;
 import static schemacrawler.test.utility.DatabaseTestUtility.getCatalog;
 import static schemacrawler.test.utility.FileHasContent.classpathResource;
@@ -65,6 +67,7 @@ import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
 import schemacrawler.schemacrawler.LimitOptionsBuilder;
 import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
@@ -156,6 +159,31 @@ public class ForeignKeyRetrieverTest {
     verifyRetrieveForeignKeys(catalog);
   }
 
+  @Test
+  @DisplayName("Retrieve foreign keys from metadata, for all tables")
+  public void fkFromMetadataForAllTables(final Connection connection) throws Exception {
+    for (final MetadataRetrievalStrategy strategy : Arrays.asList(metadata, metadata_all)) {
+      final SchemaRetrievalOptions schemaRetrievalOptions =
+          SchemaRetrievalOptionsBuilder.builder()
+              .with(foreignKeysRetrievalStrategy, strategy)
+              .toOptions();
+      final RetrieverConnection retrieverConnection =
+          new RetrieverConnection(connection, schemaRetrievalOptions);
+
+      // All tables of all table types are selected, so exported keys are not retrieved
+      final SchemaCrawlerOptions options =
+          SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+              .withLimitOptions(
+                  LimitOptionsBuilder.builder().tableTypes((String) null).toOptions());
+
+      final ForeignKeyRetriever foreignKeyRetriever =
+          new ForeignKeyRetriever(retrieverConnection, catalog, options);
+      foreignKeyRetriever.retrieveForeignKeys(catalog.getAllTables());
+
+      verifyRetrieveForeignKeys(catalog);
+    }
+  }
+
   @BeforeAll
   public void loadBaseCatalog(final Connection connection) throws SchemaCrawlerException {
     final LimitOptionsBuilder limitOptionsBuilder =
@@ -31,20 +31,28 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayWithSize;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
 import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 
 import org.junit.jupiter.api.DisplayName;
@@ -52,8 +60,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import schemacrawler.schema.ColumnDataType;
 import schemacrawler.schema.ResultsColumns;
+import schemacrawler.schemacrawler.Query;
 import schemacrawler.test.utility.TestContextParameterResolver;
 import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
 import schemacrawler.utility.BinaryData;
@@ -145,6 +157,76 @@ public class MetadataResultSetTest {
     }
   }
 
+  @Test
+  @DisplayName("Execute query with a fetch size, and read values by column name")
+  public void queryValues(final Connection connection) throws Exception {
+
+    final Query query =
+        new Query(
+            "Query with fetch size",
+            "SELECT 'A' AS COLUMN1, 2 AS COLUMN2, 'C' AS COLUMN3 FROM (VALUES(0))",
+            500);
+    assertThat(query.getFetchSize(), is(500));
+
+    try (final Statement statement = connection.createStatement();
+        final MetadataResultSet results = new MetadataResultSet(query, statement, null)) {
+      assertThat(statement.getFetchSize(), is(500));
+
+      int rows = 0;
+      while (results.next()) {
+        rows++;
+        assertThat(results.getString("column1"), is("A"));
+        assertThat(results.getInt("COLUMN2", 0), is(2));
+        assertThat(results.getString("COLUMN4"), is(nullValue()));
+
+        final Map<String, Object> attributes = results.getAttributes();
+        assertThat(attributes, not(hasKey("COLUMN1")));
+        assertThat(attributes, not(hasKey("COLUMN2")));
+        assertThat(attributes.get("COLUMN3"), is("C"));
+      }
+      assertThat(rows, is(1));
+    }
+  }
+
+  @Test
+  @DisplayName("Record flight recorder events for queries")
+  public void flightRecorderEvents(final Connection connection) throws Exception {
+
+    final Query query =
+        new Query("Query for flight recorder", "SELECT 1 AS COLUMN1 FROM (VALUES(0),(1),(2))");
+
+    final Path recordingFile = Files.createTempFile("schemacrawler", ".jfr");
+    try (final Recording recording = new Recording()) {
+      recording.enable("schemacrawler.MetadataQuery");
+      recording.start();
+
+      try (final Statement statement = connection.createStatement();
+          final MetadataResultSet results = new MetadataResultSet(query, statement, null)) {
+        while (results.next()) {
+          results.getInt("COLUMN1", 0);
+        }
+      }
+
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    final List<RecordedEvent> events = new ArrayList<>();
+    for (final RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+      if (event.getEventType().getName().equals("schemacrawler.MetadataQuery")) {
+        events.add(event);
+      }
+    }
+    Files.delete(recordingFile);
+
+    assertThat(events, hasSize(1));
+    final RecordedEvent event = events.get(0);
+    assertThat(event.getString("queryName"), is("Query for flight recorder"));
+    assertThat(event.getString("sql"), containsString("FROM (VALUES(0),(1),(2))"));
+    assertThat(event.getLong("rowCount"), is(3L));
+    assertThat(event.getDuration("timeToFirstRow"), is(greaterThan(Duration.ZERO)));
+  }
+
   @Test
   @DisplayName("Retrieve large object values from results")
   public void largeObjectValues(final Connection connection) throws Exception {
@@ -28,18 +28,211 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import schemacrawler.schema.DataTypeType;
+import schemacrawler.schema.NamedObject;
+import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.Schema;
 import schemacrawler.schema.Table;
 import schemacrawler.schema.TableType;
+import schemacrawler.schemacrawler.SchemaReference;
 
 public class NamedObjectTest {
 
   public static final TableType TABLE = new TableType("TABLE");
 
+  @Test
+  public void attributes() {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final MutableTable table = new MutableTable(schema, "TABLE1");
+
+    assertThat(table.getAttributes().isEmpty(), is(true));
+    assertThat(table.getAttribute("NOT_SET", "default"), is("default"));
+    assertThat(table.hasAttribute("NOT_SET"), is(false));
+
+    // Small number of attributes, and then more attributes
+    final Map<String, Object> expectedAttributes = new HashMap<>();
+    for (int i = 1; i <= 6; i++) {
+      final String name = "ATTRIBUTE_" + i;
+      table.setAttribute(name, i);
+      expectedAttributes.put(name, i);
+      assertThat(table.getAttributes(), is(expectedAttributes));
+      // Attributes are returned in the same order as from a hash map
+      assertThat(
+          new ArrayList<>(table.getAttributes().keySet()),
+          is(new ArrayList<>(expectedAttributes.keySet())));
+    }
+    assertThat(table.getAttributes(), is(sameInstance(table.getAttributes())));
+    table.setAttribute("ATTRIBUTE_1", "replaced");
+    assertThat(table.getAttribute("ATTRIBUTE_1"), is("replaced"));
+
+    for (int i = 6; i >= 1; i--) {
+      table.removeAttribute("ATTRIBUTE_" + i);
+      assertThat(table.hasAttribute("ATTRIBUTE_" + i), is(false));
+    }
+    assertThat(table.getAttributes().isEmpty(), is(true));
+
+    // Attributes with null values, from metadata
+    final Map<String, Object> metadataAttributes = new HashMap<>();
+    metadataAttributes.put("REMARKS", null);
+    metadataAttributes.put("TABLE_CAT", "CATALOG");
+    table.addAttributes(metadataAttributes);
+    assertThat(table.hasAttribute("REMARKS"), is(true));
+    assertThat(table.getAttribute("REMARKS", "default"), is(nullValue()));
+    assertThat(table.getAttributes(), hasEntry("TABLE_CAT", "CATALOG"));
+
+    // Attribute names are shared between database objects
+    final MutableTable otherTable = new MutableTable(schema, "TABLE2");
+    otherTable.setAttribute(new String("TABLE_CAT"), "CATALOG");
+    final String name =
+        table.getAttributes().keySet().stream().filter("TABLE_CAT"::equals).findFirst().get();
+    final String otherName = otherTable.getAttributes().keySet().iterator().next();
+    assertThat(otherName, is(sameInstance(name)));
+    assertThat(otherTable.getAttributes(), is(not(table.getAttributes())));
+  }
+
+  @Test
+  public void namedObjectKeys() {
+    final NamedObjectKey tableKey = new NamedObjectKey("CATALOG", "PUBLIC", "TABLE1");
+    final NamedObjectKey columnKey = tableKey.with("COLUMN1");
+    final NamedObjectKey expectedColumnKey =
+        new NamedObjectKey("CATALOG", "PUBLIC", "TABLE1", "COLUMN1");
+    assertThat(columnKey, is(expectedColumnKey));
+    assertThat(columnKey.hashCode(), is(expectedColumnKey.hashCode()));
+
+    final NamedObjectKey nullPartKey = new NamedObjectKey(null, "PUBLIC").with(null);
+    assertThat(nullPartKey, is(new NamedObjectKey(null, "PUBLIC", null)));
+    assertThat(nullPartKey.hashCode(), is(new NamedObjectKey(null, "PUBLIC", null).hashCode()));
+  }
+
+  @Test
+  public void resolvedColumnDataTypes() {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final SchemaReference systemSchema = new SchemaReference();
+
+    assertThat(catalog.resolveColumnDataType(schema, "VARCHAR").isPresent(), is(false));
+
+    final MutableColumnDataType systemDataType =
+        new MutableColumnDataType(systemSchema, "VARCHAR", DataTypeType.system);
+    catalog.addColumnDataType(systemDataType);
+    assertThat(
+        catalog.resolveColumnDataType(schema, "VARCHAR").get(), is(sameInstance(systemDataType)));
+    assertThat(
+        catalog.resolveColumnDataType(schema, "VARCHAR").get(), is(sameInstance(systemDataType)));
+
+    // A data type in the schema is resolved before a system data type
+    final MutableColumnDataType userDataType =
+        new MutableColumnDataType(schema, "VARCHAR", DataTypeType.user_defined);
+    catalog.addColumnDataType(userDataType);
+    assertThat(
+        catalog.resolveColumnDataType(schema, "VARCHAR").get(), is(sameInstance(userDataType)));
+    assertThat(
+        catalog.resolveColumnDataType(systemSchema, "VARCHAR").get(),
+        is(sameInstance(systemDataType)));
+  }
+
+  @Test
+  public void sortedValues() {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final MutableTable table1 = new MutableTable(schema, "TABLE1");
+    final MutableTable table2 = new MutableTable(schema, "TABLE2");
+    final MutableTable table3 = new MutableTable(schema, "TABLE3");
+
+    final NamedObjectList<MutableTable> tables = new NamedObjectList<>();
+    tables.add(table3);
+    tables.add(table1);
+    assertThat(tables.values(), contains(table1, table3));
+
+    tables.add(table2);
+    assertThat(tables.values(), contains(table1, table2, table3));
+
+    // Sort order changes after tables are added to the list
+    table1.setSortIndex(2);
+    table2.setSortIndex(1);
+    assertThat(tables.values(), contains(table1, table2, table3));
+    tables.sortOrderChanged();
+    assertThat(tables.values(), contains(table3, table2, table1));
+
+    tables.remove(table2);
+    assertThat(tables.values(), contains(table3, table1));
+  }
+
+  @Test
+  public void tablesBySchema() {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema1 = catalog.addSchema("CATALOG", "SCHEMA1");
+    final Schema schema2 = catalog.addSchema("CATALOG", "SCHEMA2");
+    final MutableTable table1 = new MutableTable(schema1, "TABLE1");
+    final MutableTable table2 = new MutableTable(schema2, "TABLE2");
+    final MutableTable table3 = new MutableTable(schema1, "TABLE3");
+
+    catalog.addTable(table3);
+    catalog.addTable(table2);
+    assertThat(catalog.getTables(schema1), contains(table3));
+    assertThat(catalog.getTables(schema2), contains(table2));
+
+    catalog.addTable(table1);
+    assertThat(catalog.getTables(schema1), contains(table1, table3));
+
+    catalog.getAllTables().filter(table -> table != table3);
+    assertThat(catalog.getTables(schema1), contains(table1));
+    assertThat(catalog.getTables(catalog.addSchema("CATALOG", "SCHEMA3")), is(empty()));
+  }
+
+  @Test
+  public void tablesBySchemaWithoutSorting() {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final AtomicInteger comparisons = new AtomicInteger();
+    for (int i = 1; i <= 10; i++) {
+      catalog.addTable(
+          new MutableTable(schema, "TABLE" + i) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public int compareTo(final NamedObject obj) {
+              comparisons.incrementAndGet();
+              return super.compareTo(obj);
+            }
+          });
+    }
+
+    assertThat(catalog.getTables(schema).size(), is(10));
+    assertThat(comparisons.get(), is(greaterThan(0)));
+
+    // Lookups reuse the sorted snapshot, without comparing tables again
+    comparisons.set(0);
+    for (int i = 0; i < 100; i++) {
+      catalog.getTables(schema);
+      catalog.getTables();
+    }
+    assertThat(comparisons.get(), is(0));
+
+    // A change in sort order sorts the tables again
+    catalog.getAllTables().lookup(schema, "TABLE1").get().setSortIndex(1);
+    catalog.getAllTables().sortOrderChanged();
+    catalog.getTables(schema);
+    assertThat(comparisons.get(), is(greaterThan(0)));
+  }
+
   @Test
   public void tableNames() {
     final String[] schemaNames = new String[] {"DBO", "PUBLIC"};
@@ -28,7 +28,9 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
 import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -212,6 +214,48 @@ public class TableColumnRetrieverTest {
     }
   }
 
+  @Test
+  @DisplayName("Retrieve table columns, with or without unmapped attributes")
+  public void tableColumnsUnmappedAttributes(final Connection connection) throws Exception {
+    final LimitOptionsBuilder limitOptionsBuilder =
+        LimitOptionsBuilder.builder()
+            .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"));
+
+    final SchemaCrawlerOptions allowlistOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLimitOptions(limitOptionsBuilder.toOptions())
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withUnmappedAttributesAllowlist(Arrays.asList("is_nullable"))
+                    .toOptions());
+    final Catalog allowlistCatalog =
+        getCatalog(
+            connection,
+            SchemaRetrievalOptionsBuilder.newSchemaRetrievalOptions(),
+            allowlistOptions);
+    for (final Table table : allowlistCatalog.getTables()) {
+      for (final Column column : table.getColumns()) {
+        assertThat(column.getAttributes().keySet(), contains("IS_NULLABLE"));
+      }
+    }
+
+    final SchemaCrawlerOptions noCaptureOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLimitOptions(limitOptionsBuilder.toOptions())
+            .withLoadOptions(
+                LoadOptionsBuilder.builder().withCaptureUnmappedAttributes(false).toOptions());
+    final Catalog noCaptureCatalog =
+        getCatalog(
+            connection,
+            SchemaRetrievalOptionsBuilder.newSchemaRetrievalOptions(),
+            noCaptureOptions);
+    for (final Table table : noCaptureCatalog.getTables()) {
+      for (final Column column : table.getColumns()) {
+        assertThat(column.getAttributes(), is(anEmptyMap()));
+      }
+    }
+  }
+
   @Test
   @DisplayName("Retrieve table columns from data dictionary")
   public void tableColumnsFromDataDictionary(final Connection connection) throws Exception {
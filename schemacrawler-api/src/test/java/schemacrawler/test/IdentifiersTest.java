@@ -30,6 +30,13 @@ package schemacrawler.test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 
 import org.junit.jupiter.api.Test;
 
@@ -51,6 +58,30 @@ public class IdentifiersTest {
     }
   }
 
+  @Test
+  public void connectionIdentifiers() throws Exception {
+    final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    when(metaData.getSQLKeywords()).thenReturn("qwer,Asdf");
+    when(metaData.getIdentifierQuoteString()).thenReturn("`");
+    final Connection connection = mock(Connection.class);
+    when(connection.getMetaData()).thenReturn(metaData);
+
+    for (int i = 0; i < 3; i++) {
+      final Identifiers connectionIdentifiers =
+          Identifiers.identifiers().withConnection(connection).build();
+      assertThat(connectionIdentifiers.isReservedWord("QWER"), is(true));
+      assertThat(connectionIdentifiers.isReservedWord("asdf"), is(true));
+      assertThat(connectionIdentifiers.isReservedWord("UPDATE"), is(true));
+      assertThat(connectionIdentifiers.getIdentifierQuoteString(), is("`"));
+    }
+    // Database metadata is obtained only once for a connection
+    verify(metaData, times(1)).getSQLKeywords();
+    verify(metaData, times(1)).getIdentifierQuoteString();
+
+    // Reserved words from the connection are not added to other identifiers
+    assertThat(identifiers.isReservedWord("QWER"), is(false));
+  }
+
   @Test
   public void empty() {
     final String[] words =
@@ -0,0 +1,215 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static schemacrawler.test.SchemaCrawlerConcurrentTest.describe;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.test.utility.TestUtility;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class MetadataAllRetrievalStrategyTest {
+
+  private static Connection countingGetColumns(
+      final Connection connection, final AtomicInteger getColumnsCount) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            MetadataAllRetrievalStrategyTest.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              try {
+                final Object returnValue = method.invoke(connection, args);
+                if (returnValue instanceof DatabaseMetaData) {
+                  return countingGetColumns((DatabaseMetaData) returnValue, getColumnsCount);
+                }
+                return returnValue;
+              } catch (final InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  private static DatabaseMetaData countingGetColumns(
+      final DatabaseMetaData metaData, final AtomicInteger getColumnsCount) {
+    return (DatabaseMetaData)
+        Proxy.newProxyInstance(
+            MetadataAllRetrievalStrategyTest.class.getClassLoader(),
+            new Class<?>[] {DatabaseMetaData.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getColumns")) {
+                getColumnsCount.incrementAndGet();
+              }
+              try {
+                return method.invoke(metaData, args);
+              } catch (final InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  private static Connection noRowsForAllTables(final Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            MetadataAllRetrievalStrategyTest.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              try {
+                final Object returnValue = method.invoke(connection, args);
+                if (returnValue instanceof DatabaseMetaData) {
+                  return noRowsForAllTables((DatabaseMetaData) returnValue);
+                }
+                return returnValue;
+              } catch (final InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  /**
+   * Behaves like JDBC drivers that return no rows, instead of throwing an exception, when no table
+   * name is provided.
+   */
+  private static DatabaseMetaData noRowsForAllTables(final DatabaseMetaData metaData) {
+    final List<String> tableMethods =
+        Arrays.asList("getPrimaryKeys", "getIndexInfo", "getImportedKeys", "getExportedKeys");
+    return (DatabaseMetaData)
+        Proxy.newProxyInstance(
+            MetadataAllRetrievalStrategyTest.class.getClassLoader(),
+            new Class<?>[] {DatabaseMetaData.class},
+            (proxy, method, args) -> {
+              if (tableMethods.contains(method.getName()) && args[2] == null) {
+                args[2] = "NO_SUCH_TABLE";
+              }
+              try {
+                return method.invoke(metaData, args);
+              } catch (final InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  private static SchemaCrawlerOptions schemaCrawlerOptions() {
+    final LimitOptionsBuilder limitOptionsBuilder =
+        LimitOptionsBuilder.builder()
+            .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"));
+    final LoadOptionsBuilder loadOptionsBuilder =
+        LoadOptionsBuilder.builder().withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+    return SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+        .withLimitOptions(limitOptionsBuilder.toOptions())
+        .withLoadOptions(loadOptionsBuilder.toOptions());
+  }
+
+  private static SchemaRetrievalOptions schemaRetrievalOptions(
+      final MetadataRetrievalStrategy metadataRetrievalStrategy) throws Exception {
+    final SchemaRetrievalOptionsBuilder schemaRetrievalOptionsBuilder =
+        SchemaRetrievalOptionsBuilder.builder(TestUtility.newSchemaRetrievalOptions());
+    for (final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy :
+        new SchemaInfoMetadataRetrievalStrategy[] {
+          SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy,
+          SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy,
+          SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy,
+          SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy
+        }) {
+      schemaRetrievalOptionsBuilder.with(
+          schemaInfoMetadataRetrievalStrategy, metadataRetrievalStrategy);
+    }
+    return schemaRetrievalOptionsBuilder.toOptions();
+  }
+
+  @Test
+  public void metadataAllMatchesMetadata(final Connection connection) throws Exception {
+
+    final AtomicInteger metadataGetColumnsCount = new AtomicInteger();
+    final Catalog metadataCatalog =
+        new SchemaCrawler(
+                countingGetColumns(connection, metadataGetColumnsCount),
+                schemaRetrievalOptions(MetadataRetrievalStrategy.metadata),
+                schemaCrawlerOptions())
+            .crawl();
+
+    final AtomicInteger metadataAllGetColumnsCount = new AtomicInteger();
+    final Catalog metadataAllCatalog =
+        new SchemaCrawler(
+                countingGetColumns(connection, metadataAllGetColumnsCount),
+                schemaRetrievalOptions(MetadataRetrievalStrategy.metadata_all),
+                schemaCrawlerOptions())
+            .crawl();
+
+    assertThat(metadataAllGetColumnsCount.get(), is(greaterThan(0)));
+    assertThat(metadataAllGetColumnsCount.get(), is(lessThan(metadataGetColumnsCount.get())));
+    assertThat(describe(metadataAllCatalog), is(equalTo(describe(metadataCatalog))));
+  }
+
+  @Test
+  public void metadataAllWithNoRowsForAllTables(final Connection connection) throws Exception {
+
+    final Catalog metadataCatalog =
+        new SchemaCrawler(
+                connection,
+                schemaRetrievalOptions(MetadataRetrievalStrategy.metadata),
+                schemaCrawlerOptions())
+            .crawl();
+
+    final Catalog metadataAllCatalog =
+        new SchemaCrawler(
+                noRowsForAllTables(connection),
+                schemaRetrievalOptions(MetadataRetrievalStrategy.metadata_all),
+                schemaCrawlerOptions())
+            .crawl();
+
+    assertThat(describe(metadataAllCatalog), is(equalTo(describe(metadataCatalog))));
+  }
+}
@@ -0,0 +1,231 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.GrepOptions;
+import schemacrawler.schemacrawler.GrepOptionsBuilder;
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.test.utility.TestUtility;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class SchemaCrawlerBaselineTest {
+
+  private static Catalog crawl(
+      final Connection connection,
+      final SchemaInfoLevel schemaInfoLevel,
+      final Catalog baselineCatalog)
+      throws Exception {
+    return crawl(connection, schemaInfoLevel, "''", baselineCatalog);
+  }
+
+  private static Catalog crawl(
+      final Connection connection,
+      final SchemaInfoLevel schemaInfoLevel,
+      final String lastChanged,
+      final Catalog baselineCatalog)
+      throws Exception {
+    return crawl(
+        connection,
+        schemaInfoLevel,
+        lastChanged,
+        GrepOptionsBuilder.builder().toOptions(),
+        baselineCatalog);
+  }
+
+  private static Catalog crawl(
+      final Connection connection,
+      final SchemaInfoLevel schemaInfoLevel,
+      final String lastChanged,
+      final GrepOptions grepOptions,
+      final Catalog baselineCatalog)
+      throws Exception {
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+    final InformationSchemaViews informationSchemaViews =
+        InformationSchemaViewsBuilder.builder(schemaRetrievalOptions.getInformationSchemaViews())
+            .withSql(
+                InformationSchemaKey.EXT_TABLE_CHANGES,
+                "SELECT TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, TABLE_TYPE, "
+                    + lastChanged
+                    + " AS LAST_CHANGED FROM INFORMATION_SCHEMA.TABLES")
+            .toOptions();
+    final SchemaRetrievalOptions schemaRetrievalOptionsWithChanges =
+        SchemaRetrievalOptionsBuilder.builder(schemaRetrievalOptions)
+            .withInformationSchemaViews(informationSchemaViews)
+            .toOptions();
+
+    final LoadOptionsBuilder loadOptionsBuilder =
+        LoadOptionsBuilder.builder().withSchemaInfoLevel(schemaInfoLevel);
+    final SchemaCrawlerOptions schemaCrawlerOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLoadOptions(loadOptionsBuilder.toOptions())
+            .withGrepOptions(grepOptions);
+
+    return new SchemaCrawler(connection, schemaRetrievalOptionsWithChanges, schemaCrawlerOptions)
+        .crawl(baselineCatalog);
+  }
+
+  private static Table table(final Catalog catalog, final String tableName) {
+    for (final Table table : catalog.getTables()) {
+      if (table.getFullName().equals(tableName)) {
+        return table;
+      }
+    }
+    throw new AssertionError("Table not found: " + tableName);
+  }
+
+  private static List<Table> tables(final Catalog catalog) {
+    return new ArrayList<>(catalog.getTables());
+  }
+
+  @Test
+  public void changedOptions(final Connection connection) throws Exception {
+    final Catalog baselineCatalog = crawl(connection, SchemaInfoLevelBuilder.standard(), null);
+    final Catalog catalog = crawl(connection, SchemaInfoLevelBuilder.maximum(), baselineCatalog);
+
+    final List<Table> baselineTables = tables(baselineCatalog);
+    final List<Table> tables = tables(catalog);
+    assertThat(tables.size(), is(baselineTables.size()));
+    for (int i = 0; i < tables.size(); i++) {
+      assertThat(tables.get(i), is(not(sameInstance(baselineTables.get(i)))));
+    }
+  }
+
+  @Test
+  public void changedTable(final Connection connection) throws Exception {
+    // One table changes every time that table changes are queried
+    final String lastChanged =
+        "CASE WHEN TABLE_NAME = 'AUTHORS' THEN CAST(RAND() AS VARCHAR(40)) ELSE '' END";
+    final Catalog baselineCatalog =
+        crawl(connection, SchemaInfoLevelBuilder.maximum(), lastChanged, null);
+    final List<String> baselineDescription = SchemaCrawlerConcurrentTest.describe(baselineCatalog);
+    // Mark tables, so that copied tables can be told apart
+    for (final Table table : baselineCatalog.getTables()) {
+      table.setRemarks("baseline");
+    }
+
+    final Catalog catalog =
+        crawl(connection, SchemaInfoLevelBuilder.maximum(), lastChanged, baselineCatalog);
+
+    assertThat(SchemaCrawlerConcurrentTest.describe(catalog), is(baselineDescription));
+    assertThat(SchemaCrawlerConcurrentTest.describe(baselineCatalog), is(baselineDescription));
+
+    // The changed table, and tables related to it, are crawled again,
+    // but other tables are copied
+    final Table authors = table(catalog, "PUBLIC.BOOKS.AUTHORS");
+    assertThat(authors.getRemarks(), is(not("baseline")));
+    assertThat(table(catalog, "PUBLIC.BOOKS.BOOKAUTHORS").getRemarks(), is(not("baseline")));
+    final List<Table> copiedTables = new ArrayList<>();
+    for (final Table table : catalog.getTables()) {
+      if (table.getRemarks().equals("baseline")) {
+        copiedTables.add(table);
+      }
+    }
+    assertThat(copiedTables, is(not(empty())));
+  }
+
+  @Test
+  public void frozenBaselineCatalog(final Connection connection) throws Exception {
+    final Catalog baselineCatalog = crawl(connection, SchemaInfoLevelBuilder.maximum(), null);
+    baselineCatalog.freeze();
+    final List<String> baselineDescription = SchemaCrawlerConcurrentTest.describe(baselineCatalog);
+
+    final Catalog catalog = crawl(connection, SchemaInfoLevelBuilder.maximum(), baselineCatalog);
+
+    assertThat(catalog.isFrozen(), is(false));
+    assertThat(SchemaCrawlerConcurrentTest.describe(catalog), is(baselineDescription));
+  }
+
+  @Test
+  public void grepExcludedTables(final Connection connection) throws Exception {
+    final GrepOptions grepOptions =
+        GrepOptionsBuilder.builder()
+            .includeGreppedTables(Pattern.compile(".*\\.BOOKS\\.AUTHORS"))
+            .toOptions();
+    final Catalog baselineCatalog =
+        crawl(connection, SchemaInfoLevelBuilder.maximum(), "''", grepOptions, null);
+    final List<String> baselineDescription = SchemaCrawlerConcurrentTest.describe(baselineCatalog);
+    for (final Table table : baselineCatalog.getTables()) {
+      table.setRemarks("baseline");
+    }
+
+    final Catalog catalog =
+        crawl(connection, SchemaInfoLevelBuilder.maximum(), "''", grepOptions, baselineCatalog);
+
+    assertThat(SchemaCrawlerConcurrentTest.describe(catalog), is(baselineDescription));
+    // Tables excluded by grep are excluded again without being crawled,
+    // so tables that refer to them are still copied
+    assertThat(tables(catalog).size(), is(1));
+    assertThat(table(catalog, "PUBLIC.BOOKS.AUTHORS").getRemarks(), is("baseline"));
+  }
+
+  @Test
+  public void unchangedTables(final Connection connection) throws Exception {
+    final Catalog baselineCatalog = crawl(connection, SchemaInfoLevelBuilder.standard(), null);
+    final Catalog catalog = crawl(connection, SchemaInfoLevelBuilder.standard(), baselineCatalog);
+
+    final List<Table> baselineTables = tables(baselineCatalog);
+    final List<Table> tables = tables(catalog);
+    assertThat(tables, is(not(empty())));
+    assertThat(tables.size(), is(baselineTables.size()));
+    // Tables are copied, rather than shared with the baseline catalog
+    for (int i = 0; i < tables.size(); i++) {
+      assertThat(tables.get(i), is(baselineTables.get(i)));
+      assertThat(tables.get(i), is(not(sameInstance(baselineTables.get(i)))));
+    }
+    assertThat(
+        SchemaCrawlerConcurrentTest.describe(catalog),
+        is(SchemaCrawlerConcurrentTest.describe(baselineCatalog)));
+  }
+}
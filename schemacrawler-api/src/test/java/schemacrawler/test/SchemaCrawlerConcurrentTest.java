@@ -0,0 +1,212 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Column;
+import schemacrawler.schema.ColumnDataType;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.Index;
+import schemacrawler.schema.Privilege;
+import schemacrawler.schema.Routine;
+import schemacrawler.schema.RoutineParameter;
+import schemacrawler.schema.Table;
+import schemacrawler.schema.TableConstraint;
+import schemacrawler.schema.Trigger;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.test.utility.DatabaseConnectionInfo;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.test.utility.TestUtility;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class SchemaCrawlerConcurrentTest {
+
+  static List<String> describe(final Catalog catalog) {
+    final List<String> lines = new ArrayList<>();
+    for (final Table table : catalog.getTables()) {
+      lines.add("table: " + table.getFullName() + " " + table.getDefinition());
+      lines.add("  attributes: " + new TreeMap<>(table.getAttributes()));
+      for (final Column column : table.getColumns()) {
+        lines.add(
+            String.format(
+                "  column: %s %s pk=%s index=%s %s",
+                column.getName(),
+                column.getColumnDataType(),
+                column.isPartOfPrimaryKey(),
+                column.isPartOfIndex(),
+                new TreeMap<>(column.getAttributes())));
+      }
+      lines.add("  primary key: " + table.getPrimaryKey());
+      for (final Index index : table.getIndexes()) {
+        lines.add("  index: " + index.getName() + " " + new TreeMap<>(index.getAttributes()));
+      }
+      for (final ForeignKey foreignKey : table.getForeignKeys()) {
+        lines.add("  foreign key: " + foreignKey.getName());
+      }
+      for (final TableConstraint tableConstraint : table.getTableConstraints()) {
+        lines.add(
+            "  table constraint: "
+                + tableConstraint.getName()
+                + " "
+                + tableConstraint.getDefinition());
+      }
+      for (final Trigger trigger : table.getTriggers()) {
+        lines.add("  trigger: " + trigger.getName() + " " + trigger.getActionStatement());
+      }
+      for (final Privilege<Table> privilege : table.getPrivileges()) {
+        lines.add("  privilege: " + privilege.getName() + " " + privilege.getGrants());
+      }
+    }
+    for (final Routine routine : catalog.getRoutines()) {
+      lines.add("routine: " + routine.getFullName() + " " + routine.getSpecificName());
+      for (final RoutineParameter<?> parameter : routine.getParameters()) {
+        lines.add("  parameter: " + parameter.getName() + " " + parameter.getColumnDataType());
+      }
+    }
+    for (final ColumnDataType columnDataType : catalog.getColumnDataTypes()) {
+      lines.add("data type: " + columnDataType.getFullName());
+    }
+    return lines;
+  }
+
+  private static SchemaCrawlerOptions schemaCrawlerOptions(final int maxThreads) {
+    return schemaCrawlerOptions(maxThreads, 1);
+  }
+
+  private static SchemaCrawlerOptions schemaCrawlerOptions(
+      final int maxThreads, final int maxMetadataConnections) {
+    final LimitOptionsBuilder limitOptionsBuilder =
+        LimitOptionsBuilder.builder()
+            .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"))
+            .includeAllRoutines();
+    final LoadOptionsBuilder loadOptionsBuilder =
+        LoadOptionsBuilder.builder()
+            .withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum())
+            .withMaxThreads(maxThreads)
+            .withMaxMetadataConnections(maxMetadataConnections);
+    return SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+        .withLimitOptions(limitOptionsBuilder.toOptions())
+        .withLoadOptions(loadOptionsBuilder.toOptions());
+  }
+
+  @Test
+  public void concurrentCrawlMatchesSequentialCrawl(
+      final Connection connection, final DatabaseConnectionInfo connectionInfo) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog sequentialCatalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(1)).crawl();
+
+    final AtomicInteger connectionCount = new AtomicInteger();
+    final Supplier<Connection> connectionSupplier =
+        () -> {
+          try {
+            connectionCount.incrementAndGet();
+            return DriverManager.getConnection(connectionInfo.getConnectionUrl(), "sa", "");
+          } catch (final SQLException e) {
+            throw new RuntimeException(e);
+          }
+        };
+    final Catalog concurrentCatalog =
+        new SchemaCrawler(
+                connection, connectionSupplier, schemaRetrievalOptions, schemaCrawlerOptions(4))
+            .crawl();
+
+    assertThat(connectionCount.get(), is(greaterThan(0)));
+    assertThat(describe(concurrentCatalog), is(equalTo(describe(sequentialCatalog))));
+  }
+
+  @Test
+  public void concurrentMetadataCallsMatchSequentialCrawl(
+      final Connection connection, final DatabaseConnectionInfo connectionInfo) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog sequentialCatalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(1)).crawl();
+
+    final AtomicInteger connectionCount = new AtomicInteger();
+    final Supplier<Connection> connectionSupplier =
+        () -> {
+          try {
+            connectionCount.incrementAndGet();
+            return DriverManager.getConnection(connectionInfo.getConnectionUrl(), "sa", "");
+          } catch (final SQLException e) {
+            throw new RuntimeException(e);
+          }
+        };
+    final Catalog concurrentCatalog =
+        new SchemaCrawler(
+                connection, connectionSupplier, schemaRetrievalOptions, schemaCrawlerOptions(1, 4))
+            .crawl();
+
+    // Metadata calls are made on the crawl connection, and at most
+    // three pooled connections, which are reused
+    assertThat(connectionCount.get(), is(greaterThan(0)));
+    assertThat(connectionCount.get(), is(lessThanOrEqualTo(3)));
+    assertThat(describe(concurrentCatalog), is(equalTo(describe(sequentialCatalog))));
+  }
+
+  @Test
+  public void concurrentCrawlWithBadConnections(final Connection connection) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final SchemaCrawler schemaCrawler =
+        new SchemaCrawler(connection, () -> null, schemaRetrievalOptions, schemaCrawlerOptions(4));
+    assertThrows(SchemaCrawlerException.class, () -> schemaCrawler.crawl());
+  }
+}
@@ -0,0 +1,182 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.crawl.CrawlMetrics;
+import schemacrawler.crawl.CrawlTaskMetrics;
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.DatabaseConnectionInfo;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.test.utility.TestUtility;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class SchemaCrawlerCrawlMetricsTest {
+
+  private static SchemaCrawlerOptions schemaCrawlerOptions(final int maxThreads) {
+    final LimitOptionsBuilder limitOptionsBuilder =
+        LimitOptionsBuilder.builder()
+            .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"));
+    final LoadOptionsBuilder loadOptionsBuilder =
+        LoadOptionsBuilder.builder()
+            .withSchemaInfoLevel(SchemaInfoLevelBuilder.standard())
+            .withMaxThreads(maxThreads);
+    return SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+        .withLimitOptions(limitOptionsBuilder.toOptions())
+        .withLoadOptions(loadOptionsBuilder.toOptions());
+  }
+
+  @Test
+  public void crawlMetrics(final Connection connection) throws Exception {
+    final SchemaCrawler schemaCrawler =
+        new SchemaCrawler(
+            connection, TestUtility.newSchemaRetrievalOptions(), schemaCrawlerOptions(1));
+    assertThat(schemaCrawler.getCrawlMetrics().getTaskMetrics(), is(empty()));
+
+    schemaCrawler.crawl();
+    final CrawlMetrics crawlMetrics = schemaCrawler.getCrawlMetrics();
+
+    final List<String> taskNames =
+        crawlMetrics.getTaskMetrics().stream()
+            .map(CrawlTaskMetrics::getTaskName)
+            .collect(Collectors.toList());
+    assertThat(
+        taskNames,
+        hasItems(
+            "retrieveDatabaseInfo",
+            "retrieveTables",
+            "retrieveColumns",
+            "retrieveForeignKeys",
+            "retrievePrimaryKeys",
+            "retrieveIndexes"));
+
+    for (final String taskName : new String[] {"retrieveTables", "retrieveColumns"}) {
+      final CrawlTaskMetrics taskMetrics = lookupTaskMetrics(crawlMetrics, taskName).get();
+      assertThat(taskName, taskMetrics.getJdbcCallCount(), is(greaterThan(0L)));
+      assertThat(taskName, taskMetrics.getRowCount(), is(greaterThan(0L)));
+      assertThat(taskName, taskMetrics.getObjectCount(), is(greaterThan(0L)));
+      assertThat(taskName, taskMetrics.getFailureCount(), is(0L));
+    }
+    assertThat(
+        lookupTaskMetrics(crawlMetrics, "retrievePrimaryKeys").get().getPhase(),
+        is("crawlTableDetails"));
+
+    assertThat(
+        crawlMetrics.toJson(),
+        containsString("{\"phase\":\"crawlTables\",\"task-name\":\"retrieveTables\","));
+  }
+
+  @Test
+  public void crawlMetricsConcurrent(
+      final Connection connection, final DatabaseConnectionInfo connectionInfo) throws Exception {
+    final Supplier<Connection> connectionSupplier =
+        () -> {
+          try {
+            return DriverManager.getConnection(connectionInfo.getConnectionUrl(), "sa", "");
+          } catch (final SQLException e) {
+            throw new RuntimeException(e);
+          }
+        };
+    final SchemaCrawler schemaCrawler =
+        new SchemaCrawler(
+            connection,
+            connectionSupplier,
+            TestUtility.newSchemaRetrievalOptions(),
+            schemaCrawlerOptions(4));
+    schemaCrawler.crawl();
+    final CrawlMetrics crawlMetrics = schemaCrawler.getCrawlMetrics();
+
+    // Tables are retrieved on other threads, but are recorded against the task
+    final CrawlTaskMetrics retrieveTables = lookupTaskMetrics(crawlMetrics, "retrieveTables").get();
+    assertThat(retrieveTables.getJdbcCallCount(), is(greaterThan(0L)));
+    assertThat(retrieveTables.getRowCount(), is(greaterThan(0L)));
+    final CrawlTaskMetrics retrieveIndexes =
+        lookupTaskMetrics(crawlMetrics, "retrieveIndexes").get();
+    assertThat(retrieveIndexes.getJdbcCallCount(), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void crawlMetricsMXBean(final Connection connection) throws Exception {
+    final SchemaCrawler schemaCrawler =
+        new SchemaCrawler(
+            connection, TestUtility.newSchemaRetrievalOptions(), schemaCrawlerOptions(1));
+    schemaCrawler.crawl();
+    final CrawlMetrics crawlMetrics = schemaCrawler.getCrawlMetrics();
+
+    final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName objectName = new ObjectName("schemacrawler:type=CrawlMetrics");
+    mBeanServer.registerMBean(crawlMetrics, objectName);
+    try {
+      final CompositeData[] taskMetrics =
+          (CompositeData[]) mBeanServer.getAttribute(objectName, "TaskMetrics");
+      assertThat(taskMetrics, arrayWithSize(crawlMetrics.getTaskMetrics().size()));
+      assertThat(taskMetrics[0].get("taskName"), is("retrieveDatabaseInfo"));
+
+      final String json = (String) mBeanServer.invoke(objectName, "toJson", null, null);
+      assertThat(json, is(crawlMetrics.toJson()));
+    } finally {
+      mBeanServer.unregisterMBean(objectName);
+    }
+  }
+
+  private Optional<CrawlTaskMetrics> lookupTaskMetrics(
+      final CrawlMetrics crawlMetrics, final String taskName) {
+    return crawlMetrics.getTaskMetrics().stream()
+        .filter(taskMetrics -> taskMetrics.getTaskName().equals(taskName))
+        .findFirst();
+  }
+}
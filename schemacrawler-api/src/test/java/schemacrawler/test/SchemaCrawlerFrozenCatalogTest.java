@@ -0,0 +1,187 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Table;
+import schemacrawler.schema.TableRelationshipType;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.test.utility.DatabaseConnectionInfo;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.test.utility.TestUtility;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class SchemaCrawlerFrozenCatalogTest {
+
+  private static List<String> sortedDescription(final Catalog catalog) {
+    final List<String> lines = SchemaCrawlerConcurrentTest.describe(catalog);
+    Collections.sort(lines);
+    return lines;
+  }
+
+  private static SchemaCrawlerOptions schemaCrawlerOptions(final boolean isLazyTableDetails) {
+    final LimitOptionsBuilder limitOptionsBuilder =
+        LimitOptionsBuilder.builder()
+            .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"));
+    final LoadOptionsBuilder loadOptionsBuilder =
+        LoadOptionsBuilder.builder()
+            .withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum())
+            .withMaxThreads(1)
+            .withLazyTableDetails(isLazyTableDetails);
+    return SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+        .withLimitOptions(limitOptionsBuilder.toOptions())
+        .withLoadOptions(loadOptionsBuilder.toOptions());
+  }
+
+  @Test
+  public void frozenCatalogCannotBeChanged(final Connection connection) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog catalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(false)).crawl();
+    assertThat(catalog.isFrozen(), is(false));
+    catalog.freeze();
+    assertThat(catalog.isFrozen(), is(true));
+    // Freezing again has no effect
+    catalog.freeze();
+
+    assertThrows(UnsupportedOperationException.class, () -> catalog.getTables().clear());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> catalog.reduce(Table.class, tables -> tables.filter(table -> false)));
+
+    final Table table = catalog.getTables().iterator().next();
+    assertThrows(UnsupportedOperationException.class, () -> table.getColumns().clear());
+    assertThrows(UnsupportedOperationException.class, () -> table.getForeignKeys().clear());
+    assertThrows(UnsupportedOperationException.class, () -> table.getAlternateKeys().clear());
+    assertThrows(UnsupportedOperationException.class, () -> table.getHiddenColumns().clear());
+    assertThat(table.getHiddenColumns(), is(sameInstance(table.getHiddenColumns())));
+    assertThat(
+        table.getRelatedTables(TableRelationshipType.child),
+        is(sameInstance(table.getRelatedTables(TableRelationshipType.child))));
+    assertThat(catalog.getTables().size(), is(greaterThan(0)));
+
+    // Attributes cannot be changed
+    assertThrows(UnsupportedOperationException.class, () -> catalog.setAttribute("name", "value"));
+    assertThrows(UnsupportedOperationException.class, () -> table.setAttribute("name", "value"));
+    assertThrows(UnsupportedOperationException.class, () -> table.removeAttribute("name"));
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> table.getColumns().get(0).setAttribute("name", "value"));
+  }
+
+  @Test
+  public void frozenCatalogMatchesCrawledCatalog(final Connection connection) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog catalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(false)).crawl();
+    final List<String> description = SchemaCrawlerConcurrentTest.describe(catalog);
+    catalog.freeze();
+
+    assertThat(SchemaCrawlerConcurrentTest.describe(catalog), is(equalTo(description)));
+  }
+
+  @Test
+  public void frozenLazyCatalogLoadsTableDetails(
+      final Connection connection, final DatabaseConnectionInfo connectionInfo) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog eagerCatalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(false)).crawl();
+
+    final AtomicInteger connectionCount = new AtomicInteger();
+    final Supplier<Connection> connectionSupplier =
+        () -> {
+          try {
+            connectionCount.incrementAndGet();
+            return DriverManager.getConnection(connectionInfo.getConnectionUrl(), "sa", "");
+          } catch (final SQLException e) {
+            throw new RuntimeException(e);
+          }
+        };
+    final Catalog lazyCatalog =
+        new SchemaCrawler(
+                connection, connectionSupplier, schemaRetrievalOptions, schemaCrawlerOptions(true))
+            .crawl();
+    lazyCatalog.freeze();
+    final int loadConnectionCount = connectionCount.get();
+    assertThat(loadConnectionCount, is(greaterThan(0)));
+
+    assertThat(sortedDescription(lazyCatalog), is(equalTo(sortedDescription(eagerCatalog))));
+    assertThat(connectionCount.get(), is(loadConnectionCount));
+  }
+
+  @Test
+  public void frozenCatalogReadConcurrently(final Connection connection) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog catalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(false)).crawl();
+    catalog.freeze();
+    final List<String> description = SchemaCrawlerConcurrentTest.describe(catalog);
+
+    final long matching =
+        Collections.nCopies(16, catalog)
+            .parallelStream()
+            .map(SchemaCrawlerConcurrentTest::describe)
+            .filter(description::equals)
+            .count();
+    assertThat(matching, is(16L));
+  }
+}
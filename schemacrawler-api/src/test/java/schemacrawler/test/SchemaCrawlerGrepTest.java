@@ -40,6 +40,8 @@ import static schemacrawler.test.utility.FileHasContent.outputOf;
 
 import java.sql.Connection;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -47,10 +49,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import schemacrawler.inclusionrule.RegularExpressionInclusionRule;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Column;
+import schemacrawler.schema.PartialDatabaseObject;
 import schemacrawler.schema.Routine;
 import schemacrawler.schema.RoutineParameter;
 import schemacrawler.schema.Schema;
 import schemacrawler.schema.Table;
+import schemacrawler.schema.TableRelationshipType;
 import schemacrawler.schemacrawler.FilterOptionsBuilder;
 import schemacrawler.schemacrawler.GrepOptionsBuilder;
 import schemacrawler.schemacrawler.LimitOptionsBuilder;
@@ -132,6 +136,55 @@ public class SchemaCrawlerGrepTest {
     assertThat("Table AUTHORS not found", table, notNullValue());
   }
 
+  @Test
+  public void grepColumnsAndIncludeRelatedTablesByDepth(final Connection connection)
+      throws Exception {
+    final Catalog fullCatalog =
+        getCatalog(connection, SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions());
+    final Schema fullSchema = fullCatalog.lookupSchema("PUBLIC.BOOKS").get();
+    final Table authors = fullCatalog.lookupTable(fullSchema, "AUTHORS").get();
+
+    final GrepOptionsBuilder grepOptionsBuilder =
+        GrepOptionsBuilder.builder()
+            .includeGreppedColumns(new RegularExpressionInclusionRule(".*\\.AUTHORS\\..*"));
+    for (final TableRelationshipType tableRelationshipType :
+        new TableRelationshipType[] {TableRelationshipType.child, TableRelationshipType.parent}) {
+      for (int depth = 0; depth <= 3; depth++) {
+        // Expected tables, found by expanding all included tables at every depth
+        final Set<String> expectedTables = new HashSet<>();
+        Set<Table> includedTables = new HashSet<>(Arrays.asList(authors));
+        for (int i = 0; i < depth; i++) {
+          final Set<Table> expandedTables = new HashSet<>(includedTables);
+          for (final Table table : includedTables) {
+            for (final Table relatedTable : table.getRelatedTables(tableRelationshipType)) {
+              if (!(relatedTable instanceof PartialDatabaseObject)) {
+                expandedTables.add(relatedTable);
+              }
+            }
+          }
+          includedTables = expandedTables;
+        }
+        includedTables.forEach(table -> expectedTables.add(table.getFullName()));
+
+        final FilterOptionsBuilder filterOptionsBuilder = FilterOptionsBuilder.builder();
+        if (tableRelationshipType == TableRelationshipType.child) {
+          filterOptionsBuilder.childTableFilterDepth(depth);
+        } else {
+          filterOptionsBuilder.parentTableFilterDepth(depth);
+        }
+        final SchemaCrawlerOptions schemaCrawlerOptions =
+            SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+                .withGrepOptions(grepOptionsBuilder.toOptions())
+                .withFilterOptions(filterOptionsBuilder.toOptions());
+
+        final Catalog catalog = getCatalog(connection, schemaCrawlerOptions);
+        final Set<String> tables = new HashSet<>();
+        catalog.getTables().forEach(table -> tables.add(table.getFullName()));
+        assertThat(tableRelationshipType + " depth " + depth, tables, is(expectedTables));
+      }
+    }
+  }
+
   @Test
   public void grepCombined(final TestContext testContext, final Connection connection)
       throws Exception {
@@ -0,0 +1,188 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.test.utility.DatabaseConnectionInfo;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.test.utility.TestUtility;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class SchemaCrawlerLazyTableDetailsTest {
+
+  private static Supplier<Connection> connectionSupplier(
+      final DatabaseConnectionInfo connectionInfo, final AtomicInteger connectionCount) {
+    return () -> {
+      try {
+        connectionCount.incrementAndGet();
+        return DriverManager.getConnection(connectionInfo.getConnectionUrl(), "sa", "");
+      } catch (final SQLException e) {
+        throw new RuntimeException(e);
+      }
+    };
+  }
+
+  private static List<String> sortedDescription(final Catalog catalog) {
+    final List<String> lines = SchemaCrawlerConcurrentTest.describe(catalog);
+    Collections.sort(lines);
+    return lines;
+  }
+
+  private static SchemaCrawlerOptions schemaCrawlerOptions(final boolean isLazyTableDetails) {
+    final LimitOptionsBuilder limitOptionsBuilder =
+        LimitOptionsBuilder.builder()
+            .includeSchemas(new RegularExpressionExclusionRule(".*\\.FOR_LINT"));
+    final LoadOptionsBuilder loadOptionsBuilder =
+        LoadOptionsBuilder.builder()
+            .withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum())
+            .withMaxThreads(1)
+            .withLazyTableDetails(isLazyTableDetails);
+    return SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+        .withLimitOptions(limitOptionsBuilder.toOptions())
+        .withLoadOptions(loadOptionsBuilder.toOptions());
+  }
+
+  @Test
+  public void lazyCatalogLoadsTableOnAccess(
+      final Connection connection, final DatabaseConnectionInfo connectionInfo) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final AtomicInteger connectionCount = new AtomicInteger();
+    final Catalog catalog =
+        new SchemaCrawler(
+                connection,
+                connectionSupplier(connectionInfo, connectionCount),
+                schemaRetrievalOptions,
+                schemaCrawlerOptions(true))
+            .crawl();
+    assertThat(catalog.getTables(), is(not(empty())));
+    assertThat(connectionCount.get(), is(0));
+
+    final Table table = catalog.getTables().iterator().next();
+    assertThat(table.getColumns(), is(not(empty())));
+    final int loadConnectionCount = connectionCount.get();
+    assertThat(loadConnectionCount, is(greaterThan(0)));
+
+    assertThat(table.getColumns(), is(not(empty())));
+    table.getPrimaryKey();
+    assertThat(connectionCount.get(), is(loadConnectionCount));
+  }
+
+  @Test
+  public void lazyCatalogMatchesEagerCatalog(
+      final Connection connection, final DatabaseConnectionInfo connectionInfo) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog eagerCatalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(false)).crawl();
+    final Catalog lazyCatalog =
+        new SchemaCrawler(
+                connection,
+                connectionSupplier(connectionInfo, new AtomicInteger()),
+                schemaRetrievalOptions,
+                schemaCrawlerOptions(true))
+            .crawl();
+
+    assertThat(sortedDescription(lazyCatalog), is(equalTo(sortedDescription(eagerCatalog))));
+  }
+
+  @Test
+  public void lazyCatalogSharesForeignKeys(
+      final Connection connection, final DatabaseConnectionInfo connectionInfo) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog catalog =
+        new SchemaCrawler(
+                connection,
+                connectionSupplier(connectionInfo, new AtomicInteger()),
+                schemaRetrievalOptions,
+                schemaCrawlerOptions(true))
+            .crawl();
+
+    // Load the referencing tables first, so that the foreign keys are
+    // retrieved again when the referenced tables are loaded
+    int foreignKeyCount = 0;
+    for (final Table table : catalog.getTables()) {
+      for (final ForeignKey foreignKey : table.getImportedForeignKeys()) {
+        final Table referencedTable = foreignKey.getPrimaryKeyTable();
+        for (final ForeignKey exportedForeignKey : referencedTable.getExportedForeignKeys()) {
+          if (exportedForeignKey.key().equals(foreignKey.key())) {
+            assertThat(exportedForeignKey, is(sameInstance(foreignKey)));
+            foreignKeyCount++;
+          }
+        }
+      }
+    }
+    assertThat(foreignKeyCount, is(greaterThan(0)));
+  }
+
+  @Test
+  public void lazyCatalogWithoutConnectionSupplier(final Connection connection) throws Exception {
+
+    final SchemaRetrievalOptions schemaRetrievalOptions = TestUtility.newSchemaRetrievalOptions();
+
+    final Catalog catalog =
+        new SchemaCrawler(connection, schemaRetrievalOptions, schemaCrawlerOptions(true)).crawl();
+
+    for (final Table table : catalog.getTables()) {
+      assertThat(table.getColumns(), is(not(empty())));
+    }
+  }
+}
@@ -168,7 +168,8 @@ public abstract class BaseJacksonSerializedCatalog implements CatalogSerializer
       "parent",
       "referenced-column",
       "exported-foreign-keys",
-      "imported-foreign-keys"
+      "imported-foreign-keys",
+      "frozen"
     })
     @JsonPropertyOrder(
         value = {
@@ -0,0 +1,388 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.catalogloader;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+import static us.fatehi.utility.Utility.isBlank;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+
+import schemacrawler.SchemaCrawlerLogger;
+import schemacrawler.crawl.CrawlFingerprint;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * On-disk cache of serialized catalogs. Catalogs are keyed by the connection URL and user, and the
+ * options used to crawl them. Cached catalogs expire after a time to live, and the oldest catalogs
+ * are evicted when the cache grows beyond a maximum size. Optionally, a probe query is run on the
+ * database, and a cached catalog is only used if the results of the probe query have not changed
+ * since the catalog was cached. Cached catalogs can only contain SchemaCrawler classes, and the
+ * Java classes that catalogs use, and cache files with any other classes are discarded.
+ */
+final class CatalogCache {
+
+  private static final SchemaCrawlerLogger LOGGER =
+      SchemaCrawlerLogger.getLogger(CatalogCache.class.getName());
+
+  private static final String CACHE_FILE_EXTENSION = ".ser";
+
+  /**
+   * Object input stream that only reads classes that can be part of a catalog, so that a cache file
+   * that has been tampered with cannot create arbitrary objects when it is read.
+   */
+  static final class CatalogInputStream extends ObjectInputStream {
+
+    private static final String[] ALLOWED_PACKAGES = {"schemacrawler.", "us.fatehi."};
+
+    // Java classes of attribute values, collections that hold catalog
+    // objects, and classes that column data types are mapped to
+    private static final Set<String> ALLOWED_CLASSES =
+        new HashSet<>(
+            Arrays.asList(
+                "boolean",
+                "byte",
+                "char",
+                "double",
+                "float",
+                "int",
+                "long",
+                "short",
+                "void",
+                "java.lang.Boolean",
+                "java.lang.Byte",
+                "java.lang.Character",
+                "java.lang.Double",
+                "java.lang.Enum",
+                "java.lang.Float",
+                "java.lang.Integer",
+                "java.lang.Long",
+                "java.lang.Number",
+                "java.lang.Object",
+                "java.lang.Short",
+                "java.lang.String",
+                "java.lang.StringBuilder",
+                "java.math.BigDecimal",
+                "java.math.BigInteger",
+                "java.sql.Array",
+                "java.sql.Blob",
+                "java.sql.Clob",
+                "java.sql.Date",
+                "java.sql.JDBCType",
+                "java.sql.NClob",
+                "java.sql.Ref",
+                "java.sql.RowId",
+                "java.sql.RowIdLifetime",
+                "java.sql.SQLXML",
+                "java.sql.Struct",
+                "java.sql.Time",
+                "java.sql.Timestamp",
+                "java.time.Instant",
+                "java.time.LocalDate",
+                "java.time.LocalDateTime",
+                "java.time.LocalTime",
+                "java.time.OffsetDateTime",
+                "java.time.OffsetTime",
+                "java.time.Ser",
+                "java.time.ZonedDateTime",
+                "java.util.ArrayList",
+                "java.util.Arrays$ArrayList",
+                "java.util.Collections$EmptyList",
+                "java.util.Collections$EmptyMap",
+                "java.util.Collections$EmptySet",
+                "java.util.Date",
+                "java.util.HashMap",
+                "java.util.HashSet",
+                "java.util.LinkedHashMap",
+                "java.util.LinkedHashSet",
+                "java.util.TreeMap",
+                "java.util.TreeSet",
+                "java.util.UUID",
+                "java.util.concurrent.ConcurrentHashMap",
+                "java.util.concurrent.ConcurrentHashMap$Segment"));
+
+    CatalogInputStream(final InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass objectStreamClass)
+        throws IOException, ClassNotFoundException {
+      final String className = objectStreamClass.getName();
+      if (!isAllowed(className)) {
+        throw new InvalidClassException(className, "Class is not allowed in a cached catalog");
+      }
+      return super.resolveClass(objectStreamClass);
+    }
+
+    private boolean isAllowed(final String className) {
+      // Arrays are allowed if their elements are allowed
+      String elementClassName = className;
+      while (elementClassName.startsWith("[")) {
+        elementClassName = elementClassName.substring(1);
+      }
+      if (elementClassName.startsWith("L") && elementClassName.endsWith(";")) {
+        elementClassName = elementClassName.substring(1, elementClassName.length() - 1);
+      } else if (elementClassName.length() == 1) {
+        // Array of primitives
+        return true;
+      }
+      if (ALLOWED_CLASSES.contains(elementClassName)) {
+        return true;
+      }
+      for (final String allowedPackage : ALLOWED_PACKAGES) {
+        if (elementClassName.startsWith(allowedPackage)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private final Path cacheDirectory;
+  private final Duration timeToLive;
+  private final long maxSize;
+  private final String probeSql;
+
+  CatalogCache(
+      final Path cacheDirectory,
+      final Duration timeToLive,
+      final long maxSize,
+      final String probeSql) {
+    this.cacheDirectory = requireNonNull(cacheDirectory, "No cache directory provided");
+    this.timeToLive = requireNonNull(timeToLive, "No time to live provided");
+    this.maxSize = maxSize;
+    this.probeSql = probeSql;
+  }
+
+  /**
+   * Computes the cache key for a crawl.
+   *
+   * @param connection Database connection
+   * @param schemaCrawlerOptions Options for the crawl
+   * @param schemaRetrievalOptions Database-specific options for the crawl
+   * @return Cache key
+   */
+  String cacheKey(
+      final Connection connection,
+      final SchemaCrawlerOptions schemaCrawlerOptions,
+      final SchemaRetrievalOptions schemaRetrievalOptions)
+      throws SchemaCrawlerException {
+    final CrawlFingerprint fingerprint = new CrawlFingerprint();
+    try {
+      final DatabaseMetaData metaData = connection.getMetaData();
+      fingerprint.add("url", metaData.getURL()).add("user", metaData.getUserName());
+    } catch (final SQLException e) {
+      throw new SchemaCrawlerException("Could not obtain connection URL and user", e);
+    }
+    return fingerprint
+        .addOptions(schemaCrawlerOptions)
+        .addRetrievalOptions(schemaRetrievalOptions)
+        .fingerprint();
+  }
+
+  /**
+   * Loads a catalog from the cache, if it has not expired, and if the database has not changed
+   * since it was cached.
+   *
+   * @param cacheKey Cache key
+   * @param probe Current results of the probe query
+   * @return Cached catalog, or empty if there is no usable catalog in the cache
+   */
+  Optional<Catalog> load(final String cacheKey, final String probe) {
+    final Path cacheFile = cacheFile(cacheKey);
+    if (!Files.isRegularFile(cacheFile)) {
+      LOGGER.log(Level.INFO, new StringFormat("No cached catalog <%s>", cacheFile));
+      return Optional.empty();
+    }
+    if (isExpired(cacheFile)) {
+      LOGGER.log(Level.INFO, new StringFormat("Cached catalog has expired <%s>", cacheFile));
+      delete(cacheFile);
+      return Optional.empty();
+    }
+
+    try (final ObjectInputStream in = new CatalogInputStream(Files.newInputStream(cacheFile))) {
+      final String cachedProbe = in.readUTF();
+      if (!cachedProbe.equals(probe)) {
+        LOGGER.log(Level.INFO, "Database has changed since catalog was cached");
+        return Optional.empty();
+      }
+      final Catalog catalog = (Catalog) in.readObject();
+      LOGGER.log(Level.INFO, new StringFormat("Loaded cached catalog <%s>", cacheFile));
+      return Optional.of(catalog);
+    } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+      LOGGER.log(
+          Level.WARNING, new StringFormat("Could not read cached catalog <%s>", cacheFile), e);
+      delete(cacheFile);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Runs the probe query, if one is provided, and returns a hash of the results.
+   *
+   * @param connection Database connection
+   * @return Hash of the probe query results
+   */
+  String probe(final Connection connection) throws SchemaCrawlerException {
+    final CrawlFingerprint fingerprint = new CrawlFingerprint();
+    if (isBlank(probeSql)) {
+      return fingerprint.fingerprint();
+    }
+
+    try (final Statement statement = connection.createStatement();
+        final ResultSet results = statement.executeQuery(probeSql)) {
+      final int columnCount = results.getMetaData().getColumnCount();
+      while (results.next()) {
+        final StringBuilder line = new StringBuilder();
+        for (int i = 1; i <= columnCount; i++) {
+          line.append(results.getString(i)).append('\t');
+        }
+        fingerprint.add("row", line);
+      }
+    } catch (final SQLException e) {
+      throw new SchemaCrawlerException("Could not run catalog cache probe SQL:\n" + probeSql, e);
+    }
+    return fingerprint.fingerprint();
+  }
+
+  /**
+   * Saves a catalog to the cache, and evicts expired and old catalogs.
+   *
+   * @param cacheKey Cache key
+   * @param probe Results of the probe query, from before the catalog was crawled
+   * @param catalog Catalog to cache
+   */
+  void save(final String cacheKey, final String probe, final Catalog catalog) {
+    final Path cacheFile = cacheFile(cacheKey);
+    try {
+      Files.createDirectories(cacheDirectory);
+      final Path tempFile = Files.createTempFile(cacheDirectory, cacheKey, ".tmp");
+      try (final ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(tempFile))) {
+        out.writeUTF(probe);
+        out.writeObject(catalog);
+      }
+      Files.move(tempFile, cacheFile, REPLACE_EXISTING, ATOMIC_MOVE);
+      LOGGER.log(Level.INFO, new StringFormat("Cached catalog <%s>", cacheFile));
+    } catch (final IOException e) {
+      LOGGER.log(
+          Level.WARNING, new StringFormat("Could not write cached catalog <%s>", cacheFile), e);
+      return;
+    }
+
+    evict();
+  }
+
+  private Path cacheFile(final String cacheKey) {
+    return cacheDirectory.resolve(cacheKey + CACHE_FILE_EXTENSION);
+  }
+
+  private void delete(final Path cacheFile) {
+    try {
+      Files.deleteIfExists(cacheFile);
+    } catch (final IOException e) {
+      LOGGER.log(
+          Level.WARNING, new StringFormat("Could not delete cached catalog <%s>", cacheFile), e);
+    }
+  }
+
+  /** Deletes expired catalogs, and then the oldest catalogs, until the cache is small enough. */
+  private void evict() {
+    final List<Path> cacheFiles = new ArrayList<>();
+    try (final DirectoryStream<Path> directoryStream =
+        Files.newDirectoryStream(cacheDirectory, "*" + CACHE_FILE_EXTENSION)) {
+      for (final Path cacheFile : directoryStream) {
+        if (isExpired(cacheFile)) {
+          delete(cacheFile);
+        } else {
+          cacheFiles.add(cacheFile);
+        }
+      }
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, "Could not evict cached catalogs", e);
+      return;
+    }
+
+    // Newest first
+    cacheFiles.sort((file1, file2) -> Long.compare(lastModified(file2), lastModified(file1)));
+    long size = 0;
+    for (final Path cacheFile : cacheFiles) {
+      size = size + size(cacheFile);
+      if (size > maxSize) {
+        LOGGER.log(Level.INFO, new StringFormat("Evicting cached catalog <%s>", cacheFile));
+        delete(cacheFile);
+      }
+    }
+  }
+
+  private boolean isExpired(final Path cacheFile) {
+    return System.currentTimeMillis() - lastModified(cacheFile) > timeToLive.toMillis();
+  }
+
+  private long lastModified(final Path cacheFile) {
+    try {
+      return Files.getLastModifiedTime(cacheFile).toMillis();
+    } catch (final IOException e) {
+      return 0;
+    }
+  }
+
+  private long size(final Path cacheFile) {
+    try {
+      return Files.size(cacheFile);
+    } catch (final IOException e) {
+      return 0;
+    }
+  }
+}
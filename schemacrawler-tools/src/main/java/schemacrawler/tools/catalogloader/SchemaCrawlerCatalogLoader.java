@@ -29,22 +29,65 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.catalogloader;
 
 import static java.util.Objects.requireNonNull;
+import static us.fatehi.utility.Utility.isBlank;
 
+import java.nio.file.Paths;
 import java.sql.Connection;
+import java.time.Duration;
+import java.util.Optional;
 
 import schemacrawler.crawl.SchemaCrawler;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.executable.CommandDescription;
+import schemacrawler.tools.executable.commandline.PluginCommand;
+import schemacrawler.tools.options.Config;
 
 public class SchemaCrawlerCatalogLoader extends BaseCatalogLoader {
 
+  private static final String OPTION_CATALOG_CACHE_DIRECTORY = "catalog-cache-directory";
+  private static final String OPTION_CATALOG_CACHE_MAX_SIZE = "catalog-cache-max-size";
+  private static final String OPTION_CATALOG_CACHE_PROBE_SQL = "catalog-cache-probe-sql";
+  private static final String OPTION_CATALOG_CACHE_TTL = "catalog-cache-ttl";
+
   public SchemaCrawlerCatalogLoader() {
     super(
         new CommandDescription("schemacrawlerloader", "Loader for SchemaCrawler metadata catalog"),
         0);
   }
 
+  @Override
+  public PluginCommand getCommandLineCommand() {
+    final CommandDescription commandDescription = getCommandDescription();
+    final PluginCommand pluginCommand =
+        PluginCommand.newCatalogLoaderCommand(
+            commandDescription.getName(), commandDescription.getDescription());
+    pluginCommand
+        .addOption(
+            OPTION_CATALOG_CACHE_DIRECTORY,
+            String.class,
+            "Directory in which to cache crawled catalogs",
+            "Catalogs are reused if the connection and options are the same",
+            "Optional, catalogs are not cached by default")
+        .addOption(
+            OPTION_CATALOG_CACHE_MAX_SIZE,
+            Integer.class,
+            "Maximum size of the catalog cache, in megabytes",
+            "Optional, defaults to 100")
+        .addOption(
+            OPTION_CATALOG_CACHE_PROBE_SQL,
+            String.class,
+            "SQL query that returns different results when the database changes",
+            "Cached catalogs are not reused if the results have changed",
+            "Optional, cached catalogs are reused until they expire")
+        .addOption(
+            OPTION_CATALOG_CACHE_TTL,
+            Integer.class,
+            "Time for which cached catalogs can be reused, in minutes",
+            "Optional, defaults to 60");
+    return pluginCommand;
+  }
+
   @Override
   public void loadCatalog() throws SchemaCrawlerException {
     if (isLoaded()) {
@@ -54,9 +97,53 @@ public class SchemaCrawlerCatalogLoader extends BaseCatalogLoader {
     final Connection connection = getConnection();
     requireNonNull(connection, "No connection provided");
 
+    final Optional<CatalogCache> optionalCatalogCache = newCatalogCache();
+    if (!optionalCatalogCache.isPresent()) {
+      setCatalog(crawl(connection));
+      return;
+    }
+
+    final CatalogCache catalogCache = optionalCatalogCache.get();
+    final String cacheKey =
+        catalogCache.cacheKey(connection, getSchemaCrawlerOptions(), getSchemaRetrievalOptions());
+    // Probe the database before crawling, so that any changes made
+    // during the crawl are detected the next time
+    final String probe = catalogCache.probe(connection);
+    final Optional<Catalog> cachedCatalog = catalogCache.load(cacheKey, probe);
+    if (cachedCatalog.isPresent()) {
+      setCatalog(cachedCatalog.get());
+      return;
+    }
+
+    final Catalog catalog = crawl(connection);
+    catalogCache.save(cacheKey, probe, catalog);
+    setCatalog(catalog);
+  }
+
+  private Catalog crawl(final Connection connection) throws SchemaCrawlerException {
     final SchemaCrawler schemaCrawler =
         new SchemaCrawler(connection, getSchemaRetrievalOptions(), getSchemaCrawlerOptions());
-    final Catalog catalog = schemaCrawler.crawl();
-    setCatalog(catalog);
+    return schemaCrawler.crawl();
+  }
+
+  private Optional<CatalogCache> newCatalogCache() {
+    final Config config = getAdditionalConfiguration();
+    if (config == null) {
+      return Optional.empty();
+    }
+    final String cacheDirectory = config.getStringValue(OPTION_CATALOG_CACHE_DIRECTORY, null);
+    if (isBlank(cacheDirectory)) {
+      return Optional.empty();
+    }
+
+    final int timeToLive = config.getIntegerValue(OPTION_CATALOG_CACHE_TTL, 60);
+    final int maxSize = config.getIntegerValue(OPTION_CATALOG_CACHE_MAX_SIZE, 100);
+    final String probeSql = config.getStringValue(OPTION_CATALOG_CACHE_PROBE_SQL, null);
+    return Optional.of(
+        new CatalogCache(
+            Paths.get(cacheDirectory),
+            Duration.ofMinutes(timeToLive),
+            maxSize * 1024L * 1024L,
+            probeSql));
   }
 }
@@ -0,0 +1,169 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.catalogloader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static schemacrawler.test.utility.TestUtility.newSchemaRetrievalOptions;
+
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opentest4j.AssertionFailedError;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.test.utility.TestDatabaseConnectionParameterResolver;
+import schemacrawler.tools.catalogloader.CatalogCache.CatalogInputStream;
+import schemacrawler.tools.options.Config;
+
+@ExtendWith(TestDatabaseConnectionParameterResolver.class)
+public class CatalogCacheTest {
+
+  private Path cacheDirectory;
+
+  @BeforeEach
+  public void createCacheDirectory() throws Exception {
+    cacheDirectory = Files.createTempDirectory("catalog-cache");
+  }
+
+  @Test
+  public void expiredCatalog(final Connection connection) throws Exception {
+    final CatalogCache catalogCache =
+        new CatalogCache(cacheDirectory, Duration.ofMinutes(1), Long.MAX_VALUE, null);
+    catalogCache.save("key", "probe", loadCatalog(connection, new Config()));
+    assertThat(catalogCache.load("key", "probe").isPresent(), is(true));
+
+    final Path cacheFile = cacheDirectory.resolve("key.ser");
+    Files.setLastModifiedTime(
+        cacheFile,
+        FileTime.fromMillis(System.currentTimeMillis() - Duration.ofHours(1).toMillis()));
+    assertThat(catalogCache.load("key", "probe").isPresent(), is(false));
+    assertThat(Files.exists(cacheFile), is(false));
+  }
+
+  @Test
+  public void evictCatalogs(final Connection connection) throws Exception {
+    final Catalog catalog = loadCatalog(connection, new Config());
+
+    final CatalogCache catalogCache =
+        new CatalogCache(cacheDirectory, Duration.ofMinutes(1), 0, null);
+    catalogCache.save("key", "probe", catalog);
+    assertThat(catalogCache.load("key", "probe").isPresent(), is(false));
+    assertThat(cacheFileCount(), is(0L));
+  }
+
+  @Test
+  public void disallowedClass() throws Exception {
+    final Path cacheFile = cacheDirectory.resolve("key.ser");
+    try (final ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(cacheFile))) {
+      out.writeUTF("probe");
+      out.writeObject(new AssertionFailedError("Not a catalog"));
+    }
+    try (final ObjectInputStream in = new CatalogInputStream(Files.newInputStream(cacheFile))) {
+      in.readUTF();
+      assertThrows(InvalidClassException.class, () -> in.readObject());
+    }
+
+    final CatalogCache catalogCache =
+        new CatalogCache(cacheDirectory, Duration.ofMinutes(1), Long.MAX_VALUE, null);
+    assertThat(catalogCache.load("key", "probe").isPresent(), is(false));
+    assertThat(Files.exists(cacheFile), is(false));
+  }
+
+  @Test
+  public void disallowedJavaClass() throws Exception {
+    final Path cacheFile = cacheDirectory.resolve("key.ser");
+    try (final ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(cacheFile))) {
+      out.writeUTF("probe");
+      out.writeObject(new PriorityQueue<>(Arrays.asList("Not", "a", "catalog")));
+    }
+    try (final ObjectInputStream in = new CatalogInputStream(Files.newInputStream(cacheFile))) {
+      in.readUTF();
+      assertThrows(InvalidClassException.class, () -> in.readObject());
+    }
+  }
+
+  @Test
+  public void loadCachedCatalog(final Connection connection) throws Exception {
+    final Config config = new Config();
+    config.put("catalog-cache-directory", cacheDirectory.toString());
+    config.put("catalog-cache-probe-sql", "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES");
+
+    final Catalog catalog = loadCatalog(connection, config);
+    assertThat(cacheFileCount(), is(1L));
+
+    final Catalog cachedCatalog = loadCatalog(connection, config);
+    assertThat(cachedCatalog, is(not(sameInstance(catalog))));
+    assertThat(cachedCatalog.getTables().size(), is(catalog.getTables().size()));
+    assertThat(cachedCatalog.getSchemas(), is(catalog.getSchemas()));
+    assertThat(cacheFileCount(), is(1L));
+  }
+
+  @Test
+  public void probeChanged(final Connection connection) throws Exception {
+    final CatalogCache catalogCache =
+        new CatalogCache(cacheDirectory, Duration.ofMinutes(1), Long.MAX_VALUE, null);
+    catalogCache.save("key", "probe", loadCatalog(connection, new Config()));
+
+    assertThat(catalogCache.load("key", "probe").isPresent(), is(true));
+    assertThat(catalogCache.load("key", "changed probe").isPresent(), is(false));
+    assertThat(catalogCache.load("other key", "probe").isPresent(), is(false));
+  }
+
+  private long cacheFileCount() throws Exception {
+    try (final Stream<Path> files = Files.list(cacheDirectory)) {
+      return files.filter(file -> file.toString().endsWith(".ser")).count();
+    }
+  }
+
+  private Catalog loadCatalog(final Connection connection, final Config config) throws Exception {
+    final SchemaCrawlerCatalogLoader catalogLoader = new SchemaCrawlerCatalogLoader();
+    catalogLoader.setConnection(connection);
+    catalogLoader.setSchemaRetrievalOptions(newSchemaRetrievalOptions());
+    catalogLoader.setSchemaCrawlerOptions(SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions());
+    catalogLoader.setAdditionalConfiguration(config);
+    catalogLoader.loadCatalog();
+    return catalogLoader.getCatalog();
+  }
+}
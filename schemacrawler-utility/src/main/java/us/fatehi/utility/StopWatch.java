@@ -31,6 +31,7 @@ import static java.time.temporal.ChronoField.HOUR_OF_DAY;
 import static java.time.temporal.ChronoField.MINUTE_OF_HOUR;
 import static java.time.temporal.ChronoField.NANO_OF_SECOND;
 import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
+import static us.fatehi.utility.Utility.isClassAvailable;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -75,6 +76,27 @@ public final class StopWatch {
           .appendFraction(NANO_OF_SECOND, 3, 3, true)
           .toFormatter();
 
+  private static final boolean isFlightRecorderAvailable = isClassAvailable("jdk.jfr.Event");
+
+  /**
+   * Runs a task, and if Java Flight Recorder is available, records the task as a flight recorder
+   * event.
+   *
+   * @param id Id of the stop watch or task runner that the task belongs to
+   * @param taskName Name of the task
+   * @param callable Task to run
+   * @return Value returned by the task
+   * @throws Exception On an exception from the task
+   */
+  public static <V> V recordTask(final String id, final String taskName, final Callable<V> callable)
+      throws Exception {
+    if (isFlightRecorderAvailable) {
+      return TaskEvent.time(id, taskName, callable);
+    } else {
+      return callable.call();
+    }
+  }
+
   private final String id;
   private final List<TaskInfo> tasks = new LinkedList<>();
   private String currentTaskName;
@@ -125,9 +147,22 @@ public final class StopWatch {
     };
   }
 
+  /**
+   * Records a task that was timed independently, such as on another thread. Tasks are reported in
+   * the order in which they were recorded.
+   *
+   * @param taskName Name of the task
+   * @param duration Time taken by the task
+   */
+  public synchronized void record(final String taskName, final Duration duration) {
+    final TaskInfo taskInfo = new TaskInfo(taskName, duration);
+    tasks.add(taskInfo);
+    totalDuration = totalDuration.plus(duration);
+  }
+
   public <V> V time(final String taskName, final Callable<V> callable) throws Exception {
     start(taskName);
-    final V returnValue = callable.call();
+    final V returnValue = recordTask(id, taskName, callable);
     stop();
     return returnValue;
   }
@@ -0,0 +1,89 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package us.fatehi.utility;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Callable;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a timed task, so that tasks show up in the same recording as JDBC
+ * driver and garbage collector activity. The event begins when the task begins, and ends when the
+ * task ends. This class can only be loaded if Java Flight Recorder is available, so callers need to
+ * check for it first.
+ */
+@Name("schemacrawler.Task")
+@Label("Task")
+@Category("SchemaCrawler")
+@Description("A timed SchemaCrawler task, such as retrieving tables")
+public final class TaskEvent extends Event {
+
+  // Checked before each task, so that no event is created when the event is not enabled
+  private static final EventType EVENT_TYPE = EventType.getEventType(TaskEvent.class);
+
+  /**
+   * Runs a task, recording it as a Java Flight Recorder event, if the event is enabled in the
+   * recording settings.
+   *
+   * @param id Id of the stop watch or task runner that the task belongs to
+   * @param taskName Name of the task
+   * @param callable Task to run
+   * @return Value returned by the task
+   * @throws Exception On an exception from the task
+   */
+  public static <V> V time(final String id, final String taskName, final Callable<V> callable)
+      throws Exception {
+    requireNonNull(callable, "No task provided");
+    if (!EVENT_TYPE.isEnabled()) {
+      return callable.call();
+    }
+    final TaskEvent event = new TaskEvent();
+    event.id = id;
+    event.taskName = taskName;
+    event.begin();
+    try {
+      return callable.call();
+    } finally {
+      event.commit();
+    }
+  }
+
+  @Label("Id")
+  @Description("Stop watch or task runner that the task belongs to")
+  String id;
+
+  @Label("Task Name")
+  String taskName;
+}
@@ -27,8 +27,10 @@ http://www.gnu.org/licenses/
 */
 package us.fatehi.utility.graph;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -36,13 +38,17 @@ import java.util.Set;
 public class DirectedGraph<T extends Comparable<? super T>> {
 
   private final Set<DirectedEdge<T>> edges;
+  private final Map<Vertex<T>, Set<DirectedEdge<T>>> incomingEdges;
   private final String name;
+  private final Map<Vertex<T>, Set<DirectedEdge<T>>> outgoingEdges;
   private final Map<T, Vertex<T>> verticesMap;
 
   public DirectedGraph(final String name) {
     this.name = name;
     verticesMap = new HashMap<>();
     edges = new HashSet<>();
+    incomingEdges = new HashMap<>();
+    outgoingEdges = new HashMap<>();
   }
 
   /**
@@ -54,7 +60,11 @@ public class DirectedGraph<T extends Comparable<? super T>> {
    */
   public void addEdge(final T from, final T to) {
     if (!from.equals(to)) {
-      edges.add(new DirectedEdge<>(addVertex(from), addVertex(to)));
+      final DirectedEdge<T> edge = new DirectedEdge<>(addVertex(from), addVertex(to));
+      if (edges.add(edge)) {
+        outgoingEdges.computeIfAbsent(edge.getFrom(), vertex -> new LinkedHashSet<>()).add(edge);
+        incomingEdges.computeIfAbsent(edge.getTo(), vertex -> new LinkedHashSet<>()).add(edge);
+      }
     }
   }
 
@@ -84,16 +94,14 @@ public class DirectedGraph<T extends Comparable<? super T>> {
     return name;
   }
 
+  public Set<DirectedEdge<T>> getIncomingEdges(final Vertex<T> vertexTo) {
+    Objects.requireNonNull(vertexTo, "No vertex provided");
+    return new HashSet<>(incomingEdges.getOrDefault(vertexTo, Collections.emptySet()));
+  }
+
   public Set<DirectedEdge<T>> getOutgoingEdges(final Vertex<T> vertexFrom) {
     Objects.requireNonNull(vertexFrom, "No vertex provided");
-
-    final Set<DirectedEdge<T>> outgoingEdges = new HashSet<>();
-    for (final DirectedEdge<T> edge : edges) {
-      if (edge.getFrom().equals(vertexFrom)) {
-        outgoingEdges.add(edge);
-      }
-    }
-    return outgoingEdges;
+    return new HashSet<>(outgoingEdges.getOrDefault(vertexFrom, Collections.emptySet()));
   }
 
   @Override
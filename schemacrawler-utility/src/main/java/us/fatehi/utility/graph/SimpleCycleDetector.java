@@ -27,7 +27,10 @@ http://www.gnu.org/licenses/
 */
 package us.fatehi.utility.graph;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Objects;
 
 public class SimpleCycleDetector<T extends Comparable<? super T>> {
@@ -83,25 +86,40 @@ public class SimpleCycleDetector<T extends Comparable<? super T>> {
     return vertices;
   }
 
+  /**
+   * Depth-first traversal from a vertex, looking for an edge back to a vertex that is still in
+   * progress. The traversal keeps its own stack, so that long chains of edges do not overflow the
+   * call stack.
+   *
+   * @param vertex Vertex to start from
+   * @return true if a cycle was found
+   */
   private boolean visitForCyles(final Vertex<T> vertex) {
+    final Deque<Vertex<T>> path = new ArrayDeque<>();
+    final Deque<Iterator<DirectedEdge<T>>> pathEdges = new ArrayDeque<>();
+
     vertex.putAttribute(ATTRIBUTE_TRAVERSAL_STATE, TraversalState.inProgress);
+    path.push(vertex);
+    pathEdges.push(graph.getOutgoingEdges(vertex).iterator());
 
-    for (final DirectedEdge<T> edge : graph.edgeSet()) {
-      if (edge.isFrom(vertex)) {
-        final Vertex<T> to = edge.getTo();
+    while (!path.isEmpty()) {
+      final Iterator<DirectedEdge<T>> edges = pathEdges.peek();
+      if (edges.hasNext()) {
+        final Vertex<T> to = edges.next().getTo();
         if (to.getAttribute(ATTRIBUTE_TRAVERSAL_STATE) == TraversalState.inProgress) {
           to.putAttribute(ATTRIBUTE_TRAVERSAL_STATE, TraversalState.marked);
           return true;
         } else if (to.getAttribute(ATTRIBUTE_TRAVERSAL_STATE) == TraversalState.notStarted) {
-          if (visitForCyles(to)) {
-            return true;
-          }
+          to.putAttribute(ATTRIBUTE_TRAVERSAL_STATE, TraversalState.inProgress);
+          path.push(to);
+          pathEdges.push(graph.getOutgoingEdges(to).iterator());
         }
+      } else {
+        path.pop().putAttribute(ATTRIBUTE_TRAVERSAL_STATE, TraversalState.complete);
+        pathEdges.pop();
       }
     }
 
-    vertex.putAttribute(ATTRIBUTE_TRAVERSAL_STATE, TraversalState.complete);
-
     return false;
   }
 }
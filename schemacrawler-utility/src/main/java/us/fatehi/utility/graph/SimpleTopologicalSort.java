@@ -31,8 +31,9 @@ import static java.util.Comparator.naturalOrder;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class SimpleTopologicalSort<T extends Comparable<? super T>> {
@@ -43,6 +44,14 @@ public class SimpleTopologicalSort<T extends Comparable<? super T>> {
     this.graph = Objects.requireNonNull(graph, "No diagram provided");
   }
 
+  /**
+   * Sorts vertices level by level, using Kahn's algorithm. Each level has the vertices that have no
+   * incoming edges from vertices that are not yet sorted, and vertices in a level are in natural
+   * sort order.
+   *
+   * @return Sorted vertex values
+   * @throws GraphException If the graph contains a cycle
+   */
   public List<T> topologicalSort() throws GraphException {
     if (containsCycle()) {
       throw new GraphException("Graph contains a cycle, so cannot be topologically sorted");
@@ -51,41 +60,42 @@ public class SimpleTopologicalSort<T extends Comparable<? super T>> {
     final Collection<Vertex<T>> vertices = graph.vertexSet();
     final int collectionSize = vertices.size();
 
-    final Collection<DirectedEdge<T>> edges = new ArrayList<>(graph.edgeSet());
-    final List<T> sortedValues = new ArrayList<>(collectionSize);
-
-    while (!vertices.isEmpty()) {
-
-      final List<T> nodesAtLevel = new ArrayList<>(collectionSize);
-
-      // Remove unattached nodes
-      for (final Iterator<Vertex<T>> iterator = vertices.iterator(); iterator.hasNext(); ) {
-        final Vertex<T> vertex = iterator.next();
-        if (isUnattachedNode(vertex, edges)) {
-          nodesAtLevel.add(vertex.getValue());
-          iterator.remove();
-        }
+    final Map<Vertex<T>, Integer> inDegrees = new HashMap<>();
+    List<Vertex<T>> verticesAtLevel = new ArrayList<>();
+    for (final Vertex<T> vertex : vertices) {
+      final int inDegree = graph.getIncomingEdges(vertex).size();
+      if (inDegree == 0) {
+        verticesAtLevel.add(vertex);
+      } else {
+        inDegrees.put(vertex, inDegree);
       }
+    }
 
-      // Find all nodes at the current level
-      final List<Vertex<T>> startNodes = new ArrayList<>(collectionSize);
-      for (final Vertex<T> vertex : vertices) {
-        if (isStartNode(vertex, edges)) {
-          startNodes.add(vertex);
-        }
-      }
+    final List<T> sortedValues = new ArrayList<>(collectionSize);
+    while (!verticesAtLevel.isEmpty()) {
 
-      for (final Vertex<T> vertex : startNodes) {
+      final List<T> nodesAtLevel = new ArrayList<>(verticesAtLevel.size());
+      final List<Vertex<T>> verticesAtNextLevel = new ArrayList<>();
+      for (final Vertex<T> vertex : verticesAtLevel) {
         // Save the vertex value
         nodesAtLevel.add(vertex.getValue());
-        // Remove all out edges
-        dropOutEdges(vertex, edges);
-        // Remove the vertex itself
-        vertices.remove(vertex);
+        // Remove all out edges, and find vertices that have no more incoming edges
+        for (final DirectedEdge<T> edge : graph.getOutgoingEdges(vertex)) {
+          final Vertex<T> to = edge.getTo();
+          final int inDegree = inDegrees.get(to) - 1;
+          if (inDegree == 0) {
+            inDegrees.remove(to);
+            verticesAtNextLevel.add(to);
+          } else {
+            inDegrees.put(to, inDegree);
+          }
+        }
       }
 
       nodesAtLevel.sort(naturalOrder());
       sortedValues.addAll(nodesAtLevel);
+
+      verticesAtLevel = verticesAtNextLevel;
     }
 
     return sortedValues;
@@ -95,32 +105,4 @@ public class SimpleTopologicalSort<T extends Comparable<? super T>> {
     final SimpleCycleDetector<T> cycleDetector = new SimpleCycleDetector<>(graph);
     return cycleDetector.containsCycle();
   }
-
-  private void dropOutEdges(final Vertex<T> vertex, final Collection<DirectedEdge<T>> edges) {
-    for (final Iterator<DirectedEdge<T>> iterator = edges.iterator(); iterator.hasNext(); ) {
-      final DirectedEdge<T> edge = iterator.next();
-      if (edge.isFrom(vertex)) {
-        iterator.remove();
-      }
-    }
-  }
-
-  private boolean isStartNode(final Vertex<T> vertex, final Collection<DirectedEdge<T>> edges) {
-    for (final DirectedEdge<T> edge : edges) {
-      if (edge.isTo(vertex)) {
-        return false;
-      }
-    }
-    return true;
-  }
-
-  private boolean isUnattachedNode(
-      final Vertex<T> vertex, final Collection<DirectedEdge<T>> edges) {
-    for (final DirectedEdge<T> edge : edges) {
-      if (edge.isTo(vertex) || edge.isFrom(vertex)) {
-        return false;
-      }
-    }
-    return true;
-  }
 }
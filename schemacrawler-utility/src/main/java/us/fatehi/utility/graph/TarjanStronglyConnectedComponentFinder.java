@@ -27,35 +27,32 @@ http://www.gnu.org/licenses/
 */
 package us.fatehi.utility.graph;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Implementation of <a href=
  * "https://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm"> Tarjan's
- * algorithm</a>
+ * algorithm</a>. The depth-first search keeps its own stack, so that long chains of edges do not
+ * overflow the call stack.
  *
  * @param <T> Any comparable class
  * @author Sualeh Fatehi
  */
 public class TarjanStronglyConnectedComponentFinder<T extends Comparable<? super T>> {
 
-  private static final String ATTRIBUTE_INDEX = "index";
-  private static final String ATTRIBUTE_LOWLINK = "lowlink";
   private final DirectedGraph<T> graph;
-  private final Deque<Vertex<T>> stack;
-  private final Collection<List<T>> stronglyConnectedComponents;
 
   public TarjanStronglyConnectedComponentFinder(final DirectedGraph<T> graph) {
     this.graph = Objects.requireNonNull(graph, "No diagram provided");
-
-    stronglyConnectedComponents = new HashSet<>();
-    stack = new ArrayDeque<>();
   }
 
   /**
@@ -64,49 +61,87 @@ public class TarjanStronglyConnectedComponentFinder<T extends Comparable<? super
    * @return Set of strongly connected components (sets of vertices)
    */
   public Collection<List<T>> detectCycles() {
-    for (final Vertex<T> vertex : graph.vertexSet()) {
-      if (!vertex.hasAttribute(ATTRIBUTE_INDEX)) {
-        strongConnect(vertex, 0);
+    final List<Vertex<T>> vertices = new ArrayList<>(graph.vertexSet());
+    final int vertexCount = vertices.size();
+
+    // Number vertices, and build adjacency lists of vertex numbers
+    final Map<Vertex<T>, Integer> vertexNumbers = new HashMap<>();
+    for (int i = 0; i < vertexCount; i++) {
+      vertexNumbers.put(vertices.get(i), i);
+    }
+    final int[][] successors = new int[vertexCount][];
+    for (int i = 0; i < vertexCount; i++) {
+      final Set<DirectedEdge<T>> outgoingEdges = graph.getOutgoingEdges(vertices.get(i));
+      successors[i] = new int[outgoingEdges.size()];
+      int j = 0;
+      for (final DirectedEdge<T> edge : outgoingEdges) {
+        successors[i][j++] = vertexNumbers.get(edge.getTo());
       }
     }
-    return stronglyConnectedComponents;
-  }
 
-  private void strongConnect(final Vertex<T> vertexFrom, final int index) {
-    vertexFrom.putAttribute(ATTRIBUTE_INDEX, index);
-    vertexFrom.putAttribute(ATTRIBUTE_LOWLINK, index);
-    stack.push(vertexFrom);
-
-    for (final DirectedEdge<T> edge : graph.getOutgoingEdges(vertexFrom)) {
-      final Vertex<T> vertexTo = edge.getTo();
-      if (!vertexTo.hasAttribute(ATTRIBUTE_INDEX)) {
-        // Successor vertex has not yet been visited; recurse on it
-        strongConnect(vertexTo, index + 1);
-        vertexFrom.putAttribute(
-            ATTRIBUTE_LOWLINK,
-            Math.min(
-                vertexFrom.getAttribute(ATTRIBUTE_LOWLINK),
-                vertexTo.getAttribute(ATTRIBUTE_LOWLINK)));
-      } else if (stack.contains(vertexTo)) {
-        // Successor vertex is on stack, hence in the current SCC
-        vertexFrom.putAttribute(
-            ATTRIBUTE_LOWLINK,
-            Math.min(
-                vertexFrom.getAttribute(ATTRIBUTE_LOWLINK),
-                vertexTo.getAttribute(ATTRIBUTE_INDEX)));
+    final int[] index = new int[vertexCount];
+    final int[] lowlink = new int[vertexCount];
+    final int[] nextSuccessor = new int[vertexCount];
+    final BitSet visited = new BitSet(vertexCount);
+    final BitSet onStack = new BitSet(vertexCount);
+    // Tarjan's stack of vertices, and the depth-first search path
+    final int[] stack = new int[vertexCount];
+    int stackSize = 0;
+    final int[] path = new int[vertexCount];
+    int pathSize = 0;
+    int nextIndex = 0;
+
+    final Collection<List<T>> stronglyConnectedComponents = new HashSet<>();
+    for (int root = 0; root < vertexCount; root++) {
+      if (visited.get(root)) {
+        continue;
       }
-    }
 
-    if (vertexFrom.getAttribute(ATTRIBUTE_LOWLINK) == vertexFrom.getAttribute(ATTRIBUTE_INDEX)) {
-      final LinkedList<T> scc = new LinkedList<>();
-      Vertex<T> sccVertex;
-      do {
-        sccVertex = stack.pop();
-        scc.addFirst(sccVertex.getValue());
-      } while (!vertexFrom.equals(sccVertex));
-      if (scc.size() > 1) {
-        stronglyConnectedComponents.add(scc);
+      visited.set(root);
+      index[root] = lowlink[root] = nextIndex++;
+      stack[stackSize++] = root;
+      onStack.set(root);
+      path[pathSize++] = root;
+
+      while (pathSize > 0) {
+        final int vertexFrom = path[pathSize - 1];
+        if (nextSuccessor[vertexFrom] < successors[vertexFrom].length) {
+          final int vertexTo = successors[vertexFrom][nextSuccessor[vertexFrom]++];
+          if (!visited.get(vertexTo)) {
+            // Successor vertex has not yet been visited; descend into it
+            visited.set(vertexTo);
+            index[vertexTo] = lowlink[vertexTo] = nextIndex++;
+            stack[stackSize++] = vertexTo;
+            onStack.set(vertexTo);
+            path[pathSize++] = vertexTo;
+          } else if (onStack.get(vertexTo)) {
+            // Successor vertex is on stack, hence in the current SCC
+            lowlink[vertexFrom] = Math.min(lowlink[vertexFrom], index[vertexTo]);
+          }
+          continue;
+        }
+
+        // All successors have been visited, so return to the previous vertex on the path
+        pathSize--;
+        if (pathSize > 0) {
+          final int previousVertex = path[pathSize - 1];
+          lowlink[previousVertex] = Math.min(lowlink[previousVertex], lowlink[vertexFrom]);
+        }
+
+        if (lowlink[vertexFrom] == index[vertexFrom]) {
+          final LinkedList<T> scc = new LinkedList<>();
+          int sccVertex;
+          do {
+            sccVertex = stack[--stackSize];
+            onStack.clear(sccVertex);
+            scc.addFirst(vertices.get(sccVertex).getValue());
+          } while (sccVertex != vertexFrom);
+          if (scc.size() > 1) {
+            stronglyConnectedComponents.add(scc);
+          }
+        }
       }
     }
+    return stronglyConnectedComponents;
   }
 }
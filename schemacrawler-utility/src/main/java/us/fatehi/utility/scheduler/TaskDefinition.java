@@ -0,0 +1,88 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package us.fatehi.utility.scheduler;
+
+import static java.util.Objects.requireNonNull;
+import static us.fatehi.utility.Utility.requireNotBlank;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/** A named unit of work, that can only run once all the tasks that it depends on have completed. */
+public final class TaskDefinition {
+
+  @FunctionalInterface
+  public interface TaskRunnable {
+    void run() throws Exception;
+  }
+
+  private final String taskName;
+  private final Set<String> dependencies;
+  private final TaskRunnable runnable;
+
+  public TaskDefinition(
+      final String taskName, final TaskRunnable runnable, final String... dependencies) {
+    this(
+        taskName,
+        runnable,
+        Arrays.asList(requireNonNull(dependencies, "No dependencies provided")));
+  }
+
+  public TaskDefinition(
+      final String taskName, final TaskRunnable runnable, final Collection<String> dependencies) {
+    this.taskName = requireNotBlank(taskName, "No task name provided");
+    this.runnable = requireNonNull(runnable, "No task provided");
+    this.dependencies =
+        new LinkedHashSet<>(requireNonNull(dependencies, "No dependencies provided"));
+  }
+
+  /**
+   * Names of tasks that need to complete before this task can run.
+   *
+   * @return Names of tasks that this task depends on
+   */
+  public Set<String> getDependencies() {
+    return Collections.unmodifiableSet(dependencies);
+  }
+
+  public TaskRunnable getRunnable() {
+    return runnable;
+  }
+
+  public String getTaskName() {
+    return taskName;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s%s", taskName, dependencies);
+  }
+}
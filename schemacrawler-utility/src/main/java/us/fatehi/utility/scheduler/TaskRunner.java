@@ -0,0 +1,214 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package us.fatehi.utility.scheduler;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import us.fatehi.utility.StopWatch;
+
+/**
+ * Runs a set of tasks, respecting the dependencies between them. Tasks need to be added after all
+ * the tasks that they depend on, so the order in which tasks are added is always a valid order in
+ * which to run them. With a single thread, tasks run on the calling thread, one after the other, in
+ * the order in which they were added. With more than one thread, each task is started as soon as
+ * all of its dependencies have completed, so independent tasks run concurrently.
+ */
+public final class TaskRunner {
+
+  private static final class TaskThreadFactory implements ThreadFactory {
+
+    private final String id;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    TaskThreadFactory(final String id) {
+      this.id = id;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread =
+          new Thread(runnable, String.format("%s-%d", id, threadNumber.getAndIncrement()));
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  private final String id;
+  private final int maxThreads;
+  private final Map<String, TaskDefinition> taskDefinitions;
+  private final StopWatch stopWatch;
+
+  public TaskRunner(final String id, final int maxThreads) {
+    this.id = requireNonNull(id, "No id provided");
+    if (maxThreads <= 0) {
+      throw new IllegalArgumentException("Number of threads needs to be positive");
+    }
+    this.maxThreads = maxThreads;
+    taskDefinitions = new LinkedHashMap<>();
+    stopWatch = new StopWatch(id);
+  }
+
+  /**
+   * Adds a task to be run. All the tasks that the task depends on need to have been added already.
+   *
+   * @param taskDefinition Task to add
+   */
+  public void add(final TaskDefinition taskDefinition) {
+    requireNonNull(taskDefinition, "No task provided");
+    final String taskName = taskDefinition.getTaskName();
+    if (taskDefinitions.containsKey(taskName)) {
+      throw new IllegalArgumentException(String.format("Task <%s> is already defined", taskName));
+    }
+    for (final String dependency : taskDefinition.getDependencies()) {
+      if (!taskDefinitions.containsKey(dependency)) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Task <%s> depends on <%s>, which has not been defined", taskName, dependency));
+      }
+    }
+    taskDefinitions.put(taskName, taskDefinition);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public int getMaxThreads() {
+    return maxThreads;
+  }
+
+  /**
+   * Whether tasks will be run concurrently, on more than one thread.
+   *
+   * @return True if tasks can run concurrently
+   */
+  public boolean isConcurrent() {
+    return maxThreads > 1 && taskDefinitions.size() > 1;
+  }
+
+  /**
+   * Runs all tasks, and waits for them to complete. If a task fails, tasks that depend on it are
+   * not run, and the first failure, in the order in which tasks were added, is thrown.
+   *
+   * @throws Exception On an exception from any task
+   */
+  public void run() throws Exception {
+    if (isConcurrent()) {
+      runConcurrently();
+    } else {
+      for (final TaskDefinition taskDefinition : taskDefinitions.values()) {
+        stopWatch.time(
+            taskDefinition.getTaskName(),
+            () -> {
+              taskDefinition.getRunnable().run();
+              return null;
+            });
+      }
+    }
+  }
+
+  /**
+   * Allows for a deferred conversion to a string. Useful in logging.
+   *
+   * @return String supplier.
+   */
+  public Supplier<String> report() {
+    return stopWatch.stringify();
+  }
+
+  private void runConcurrently() throws Exception {
+    final int threadCount = Math.min(maxThreads, taskDefinitions.size());
+    final ExecutorService executorService =
+        Executors.newFixedThreadPool(threadCount, new TaskThreadFactory(id));
+    try {
+      final Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+      for (final TaskDefinition taskDefinition : taskDefinitions.values()) {
+        final List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (final String dependency : taskDefinition.getDependencies()) {
+          dependencies.add(futures.get(dependency));
+        }
+        final CompletableFuture<Void> future =
+            CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> timeTask(taskDefinition), executorService);
+        futures.put(taskDefinition.getTaskName(), future);
+      }
+
+      Throwable failure = null;
+      for (final CompletableFuture<Void> future : futures.values()) {
+        try {
+          future.join();
+        } catch (final CompletionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+        }
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      } else if (failure != null) {
+        throw (Exception) failure;
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private void timeTask(final TaskDefinition taskDefinition) {
+    final String taskName = taskDefinition.getTaskName();
+    final Instant start = Instant.now();
+    try {
+      StopWatch.recordTask(
+          id,
+          taskName,
+          () -> {
+            taskDefinition.getRunnable().run();
+            return null;
+          });
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new CompletionException(e);
+    } finally {
+      stopWatch.record(taskName, Duration.between(start, Instant.now()));
+    }
+  }
+}
@@ -30,6 +30,8 @@ package us.fatehi.utility.test.graph;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 import us.fatehi.utility.graph.DirectedGraph;
@@ -48,6 +50,27 @@ public class DirectedGraphBoundaryTest extends GraphTestBase {
     assertThat(containsCycleTarjan(graph), is(false));
   }
 
+  @Test
+  public void longChain() throws Exception {
+    final int length = 50_000;
+    final DirectedGraph<Integer> graph = new DirectedGraph<>("");
+    for (int i = length - 1; i > 0; i--) {
+      graph.addEdge(i - 1, i);
+    }
+
+    assertThat(containsCycleSimple(graph), is(false));
+    assertThat(containsCycleTarjan(graph), is(false));
+    final List<Integer> sorted = topologicalSort(graph);
+    assertThat(sorted.size(), is(length));
+    for (int i = 0; i < length; i++) {
+      assertThat(sorted.get(i), is(i));
+    }
+
+    graph.addEdge(length - 1, 0);
+    assertThat(containsCycleSimple(graph), is(true));
+    assertThat(containsCycleTarjan(graph), is(true));
+  }
+
   @Test
   public void selfLoop() throws Exception {
     final DirectedGraph<String> graph = new DirectedGraph<>("");
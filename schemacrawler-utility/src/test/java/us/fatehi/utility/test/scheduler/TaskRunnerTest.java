@@ -0,0 +1,194 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2021, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package us.fatehi.utility.test.scheduler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import us.fatehi.utility.scheduler.TaskDefinition;
+import us.fatehi.utility.scheduler.TaskDefinition.TaskRunnable;
+import us.fatehi.utility.scheduler.TaskRunner;
+
+public class TaskRunnerTest {
+
+  @Test
+  public void badDefinitions() {
+    assertThrows(IllegalArgumentException.class, () -> new TaskRunner("test", 0));
+    assertThrows(IllegalArgumentException.class, () -> new TaskDefinition(" ", () -> {}));
+    assertThrows(NullPointerException.class, () -> new TaskDefinition("task", null));
+
+    final TaskRunner taskRunner = new TaskRunner("test", 2);
+    taskRunner.add(new TaskDefinition("task1", () -> {}));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> taskRunner.add(new TaskDefinition("task1", () -> {})));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> taskRunner.add(new TaskDefinition("task2", () -> {}, "task3")));
+  }
+
+  @Test
+  public void concurrentTasksOverlap() throws Exception {
+    // Both tasks wait for each other, so they can only complete if
+    // they run at the same time
+    final CountDownLatch latch = new CountDownLatch(2);
+    final TaskRunnable runnable =
+        () -> {
+          latch.countDown();
+          if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Tasks did not run concurrently");
+          }
+        };
+
+    final TaskRunner taskRunner = new TaskRunner("test", 2);
+    taskRunner.add(new TaskDefinition("task1", runnable));
+    taskRunner.add(new TaskDefinition("task2", runnable));
+    assertThat(taskRunner.isConcurrent(), is(true));
+    taskRunner.run();
+
+    assertThat(latch.getCount(), is(0L));
+    assertThat(taskRunner.report().get(), containsString("<task1>"));
+    assertThat(taskRunner.report().get(), containsString("<task2>"));
+  }
+
+  @Test
+  public void concurrentTasksRespectDependencies() throws Exception {
+    final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+    // Task 1 cannot complete until the independent task 4 has completed,
+    // so task 4 must run without waiting for the chain of dependent tasks
+    final CountDownLatch task4Completed = new CountDownLatch(1);
+
+    final TaskRunner taskRunner = new TaskRunner("test", 4);
+    taskRunner.add(
+        new TaskDefinition(
+            "task1",
+            () -> {
+              if (!task4Completed.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Task 4 did not run concurrently");
+              }
+              completed.add("task1");
+            }));
+    taskRunner.add(new TaskDefinition("task2", () -> completed.add("task2"), "task1"));
+    taskRunner.add(new TaskDefinition("task3", () -> completed.add("task3"), "task2"));
+    taskRunner.add(
+        new TaskDefinition(
+            "task4",
+            () -> {
+              completed.add("task4");
+              task4Completed.countDown();
+            }));
+    taskRunner.run();
+
+    assertThat(completed.indexOf("task1"), is(lessThan(completed.indexOf("task2"))));
+    assertThat(completed.indexOf("task2"), is(lessThan(completed.indexOf("task3"))));
+    assertThat(completed.indexOf("task4"), is(lessThan(completed.indexOf("task1"))));
+  }
+
+  @Test
+  public void failedTask() throws Exception {
+    final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+
+    final TaskRunner taskRunner = new TaskRunner("test", 4);
+    taskRunner.add(
+        new TaskDefinition(
+            "task1",
+            () -> {
+              throw new IOException("Failed task");
+            }));
+    taskRunner.add(new TaskDefinition("task2", () -> completed.add("task2"), "task1"));
+
+    final IOException exception = assertThrows(IOException.class, () -> taskRunner.run());
+    assertThat(exception.getMessage(), is("Failed task"));
+    assertThat(completed, is(empty()));
+  }
+
+  @Test
+  public void flightRecorderEvents() throws Exception {
+    final Path recordingFile = Files.createTempFile("schemacrawler", ".jfr");
+    try (final Recording recording = new Recording()) {
+      recording.enable("schemacrawler.Task");
+      recording.start();
+
+      final TaskRunner sequentialTaskRunner = new TaskRunner("sequential", 1);
+      sequentialTaskRunner.add(new TaskDefinition("task1", () -> {}));
+      sequentialTaskRunner.run();
+
+      final TaskRunner concurrentTaskRunner = new TaskRunner("concurrent", 2);
+      concurrentTaskRunner.add(new TaskDefinition("task2", () -> {}));
+      concurrentTaskRunner.add(new TaskDefinition("task3", () -> {}));
+      concurrentTaskRunner.run();
+
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    final List<String> tasks = new ArrayList<>();
+    for (final RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+      tasks.add(event.getString("id") + "." + event.getString("taskName"));
+    }
+    Files.delete(recordingFile);
+
+    assertThat(
+        tasks, containsInAnyOrder("sequential.task1", "concurrent.task2", "concurrent.task3"));
+  }
+
+  @Test
+  public void sequentialTasks() throws Exception {
+    final List<String> completed = new ArrayList<>();
+
+    final TaskRunner taskRunner = new TaskRunner("test", 1);
+    taskRunner.add(new TaskDefinition("task1", () -> completed.add("task1")));
+    taskRunner.add(new TaskDefinition("task2", () -> completed.add("task2")));
+    taskRunner.add(new TaskDefinition("task3", () -> completed.add("task3"), "task1"));
+    assertThat(taskRunner.isConcurrent(), is(false));
+    taskRunner.run();
+
+    assertThat(completed, contains("task1", "task2", "task3"));
+  }
+}